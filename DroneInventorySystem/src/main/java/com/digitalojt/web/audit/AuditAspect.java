@@ -0,0 +1,85 @@
+package com.digitalojt.web.audit;
+
+import java.time.LocalDateTime;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.digitalojt.web.consts.OperationStatus;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 操作履歴の記録処理
+ * ※@Audited を付与したメソッドの実行後、操作履歴をキューに積むだけで戻る
+ *   DBへの書き込みは AuditLogWriter がバックグラウンドでまとめて行う
+ *
+ * @author dotlife
+ * 
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditAspect {
+
+	/** 操作情報の最大文字数（operation_log.operation_details） */
+	private static final int MAX_DETAILS_LENGTH = 255;
+
+	/** 操作履歴の書き込み処理 */
+	private final AuditLogWriter auditLogWriter;
+
+	/**
+	 * 記録対象メソッドの実行と操作履歴の記録
+	 * 
+	 * @param joinPoint 実行対象
+	 * @param audited 記録内容
+	 * @return 実行結果
+	 * @throws Throwable 実行対象の例外（そのまま呼び出し元へ返す）
+	 */
+	@Around("@annotation(audited)")
+	public Object audit(ProceedingJoinPoint joinPoint, Audited audited) throws Throwable {
+		boolean success = false;
+		try {
+			Object result = joinPoint.proceed();
+			success = true;
+			return result;
+		} finally {
+			record(joinPoint, audited, success);
+		}
+	}
+
+	/**
+	 * 操作履歴をキューに積む
+	 * ※ログインユーザーが取得できない場合（起動時処理など）は記録しない
+	 * 
+	 * @param joinPoint 実行対象
+	 * @param audited 記録内容
+	 * @param success 正常終了したかどうか
+	 */
+	private void record(ProceedingJoinPoint joinPoint, Audited audited, boolean success) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| authentication instanceof AnonymousAuthenticationToken) {
+			log.debug("操作履歴: ログインユーザーが取得できないため記録しません {}", joinPoint.getSignature());
+			return;
+		}
+
+		String details = audited.details().isEmpty()
+				? joinPoint.getSignature().getDeclaringType().getSimpleName() + "#" + joinPoint.getSignature().getName()
+				: audited.details();
+		if (details.length() > MAX_DETAILS_LENGTH) {
+			details = details.substring(0, MAX_DETAILS_LENGTH);
+		}
+
+		OperationStatus status = success ? OperationStatus.SUCCESS : OperationStatus.FAILURE;
+		auditLogWriter.enqueue(new AuditEntry(authentication.getName(), audited.screen().getTableKey(),
+				audited.operation().getTypeCode(), status.getStatusCode(), details, LocalDateTime.now()));
+	}
+}
@@ -0,0 +1,38 @@
+package com.digitalojt.web.audit;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 書き込み待ちの操作履歴1件
+ * ※キューに積んだ後は変更しないため不変とする
+ *
+ * @author dotlife
+ * 
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AuditEntry {
+
+	/** 管理者ID */
+	private final String adminId;
+
+	/** テーブルキー（画面） */
+	private final String tableKey;
+
+	/** 操作の種類 */
+	private final int operateType;
+
+	/** 操作ステータス */
+	private final int status;
+
+	/** 操作情報 */
+	private final String operationDetails;
+
+	/** 操作時刻 */
+	private final LocalDateTime createDate;
+}
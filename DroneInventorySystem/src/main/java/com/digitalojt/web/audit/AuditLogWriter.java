@@ -0,0 +1,309 @@
+package com.digitalojt.web.audit;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalojt.web.consts.DeleteFlagConsts;
+import com.digitalojt.web.repository.OperationLogDailyRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 操作履歴の非同期書き込み処理
+ * ※操作履歴を上限付きキューに溜め、専用スレッドが件数または経過時間に達した時点でJDBCバッチ登録する
+ *   同じトランザクションで日次集計テーブルの件数も加算し、コミット後にライブ表示へ配信する
+ *   キューが満杯の場合は呼び出し元を一定時間待たせ（バックプレッシャー）、それでも空かなければ破棄する
+ *   停止時はキューに残った操作履歴をすべて書き込んでから終了する
+ *
+ * @author dotlife
+ * 
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+	/** 登録SQL */
+	private static final String INSERT_SQL = "INSERT INTO operation_log ("
+			+ "admin_id, table_key, operate_type, status, operation_details, delete_flag, create_date, update_date"
+			+ ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	/** 書き込みスレッド名 */
+	private static final String THREAD_NAME = "audit-log-writer";
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/** トランザクションテンプレート（1バッチ単位でコミット） */
+	private final TransactionTemplate transactionTemplate;
+
+	/** 操作履歴の日次集計テーブル リポジトリー */
+	private final OperationLogDailyRepository dailyRepository;
+
+	/** 操作履歴のライブ配信 */
+	private final OperationLogBroadcaster broadcaster;
+
+	/** 書き込み待ちの操作履歴 */
+	private final BlockingQueue<AuditEntry> queue;
+
+	/** 1バッチあたりの最大登録件数 */
+	private final int batchSize;
+
+	/** 書き込みまでの最大待ち時間 */
+	private final Duration flushInterval;
+
+	/** キューが満杯の場合に呼び出し元を待たせる最大時間 */
+	private final Duration offerTimeout;
+
+	/** 停止時の書き込み完了待ちの最大時間 */
+	private final Duration shutdownTimeout;
+
+	/** バッチ登録の所要時間 */
+	private final Timer flushTimer;
+
+	/** 登録件数 */
+	private final Counter writtenCounter;
+
+	/** 破棄件数（キュー満杯・登録失敗） */
+	private final Counter droppedCounter;
+
+	/** 書き込みスレッド */
+	private Thread worker;
+
+	/** 稼働中かどうか */
+	private volatile boolean running;
+
+	/**
+	 * コンストラクタ
+	 */
+	public AuditLogWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			OperationLogDailyRepository dailyRepository, OperationLogBroadcaster broadcaster,
+			MeterRegistry meterRegistry,
+			@Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+			@Value("${app.audit.batch-size:500}") int batchSize,
+			@Value("${app.audit.flush-interval:1s}") Duration flushInterval,
+			@Value("${app.audit.offer-timeout:100ms}") Duration offerTimeout,
+			@Value("${app.audit.shutdown-timeout:30s}") Duration shutdownTimeout) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.dailyRepository = dailyRepository;
+		this.broadcaster = broadcaster;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.flushInterval = flushInterval;
+		this.offerTimeout = offerTimeout;
+		this.shutdownTimeout = shutdownTimeout;
+
+		Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+				.description("書き込み待ちの操作履歴件数")
+				.register(meterRegistry);
+		this.flushTimer = Timer.builder("audit.flush")
+				.description("操作履歴のバッチ登録の所要時間")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		this.writtenCounter = Counter.builder("audit.written")
+				.description("操作履歴の登録件数")
+				.register(meterRegistry);
+		this.droppedCounter = Counter.builder("audit.dropped")
+				.description("操作履歴の破棄件数")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 操作履歴をキューに積む
+	 * ※キューが満杯の場合は最大 offerTimeout だけ待ち、空かなければ破棄する
+	 * 
+	 * @param entry 操作履歴
+	 */
+	public void enqueue(AuditEntry entry) {
+		try {
+			if (queue.offer(entry, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				return;
+			}
+			log.warn("操作履歴: キューが満杯のため破棄しました {}", entry);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("操作履歴: 待機中に割り込まれたため破棄しました {}", entry);
+		}
+		droppedCounter.increment();
+	}
+
+	/**
+	 * 書き込みスレッドの開始
+	 */
+	@Override
+	public void start() {
+		running = true;
+		worker = new Thread(this::runLoop, THREAD_NAME);
+		worker.setDaemon(true);
+		// flush() で捕捉できない異常（Error 等）でスレッドが終了した場合も記録を残す
+		worker.setUncaughtExceptionHandler((thread, e) ->
+				log.error("操作履歴: 書き込みスレッドが異常終了しました 未書き込み {} 件", queue.size(), e));
+		worker.start();
+	}
+
+	/**
+	 * 書き込みスレッドの停止
+	 * ※キューに残った操作履歴を書き込み終えるまで待つ
+	 *   書き込み中のJDBC処理を中断させないよう、割り込みは行わない（待機は最大 flushInterval）
+	 */
+	@Override
+	public void stop() {
+		running = false;
+		try {
+			worker.join(shutdownTimeout.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (worker.isAlive()) {
+			log.warn("操作履歴: 停止待ちがタイムアウトしました 未書き込み {} 件", queue.size());
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * 停止の順序
+	 * ※Webサーバー（既定フェーズ付近）の停止後に停止し、処理中リクエストの操作履歴も書き込む
+	 */
+	@Override
+	public int getPhase() {
+		return 0;
+	}
+
+	/**
+	 * 書き込みループ
+	 * ※停止指示後はキューが空になるまで書き込みを続ける
+	 */
+	private void runLoop() {
+		List<AuditEntry> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				collect(batch);
+			} catch (InterruptedException e) {
+				// 想定外の割り込み：取り出し済みの分を書き込んで継続する
+				log.warn("操作履歴: 書き込みスレッドが割り込まれました");
+			}
+			if (!running) {
+				queue.drainTo(batch, batchSize - batch.size());
+			}
+			flush(batch);
+		}
+		log.info("操作履歴: 書き込みスレッドを停止しました");
+	}
+
+	/**
+	 * 1バッチ分の操作履歴を取り出す
+	 * ※先頭の1件を取り出してから flushInterval 経過するか、batchSize 件に達するまで待つ
+	 * 
+	 * @param batch 取り出し先
+	 * @throws InterruptedException 待機中の割り込み
+	 */
+	private void collect(List<AuditEntry> batch) throws InterruptedException {
+		AuditEntry first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+		if (first == null) {
+			return;
+		}
+		batch.add(first);
+
+		long deadline = System.nanoTime() + flushInterval.toNanos();
+		while (batch.size() < batchSize) {
+			queue.drainTo(batch, batchSize - batch.size());
+			long remaining = deadline - System.nanoTime();
+			if (batch.size() >= batchSize || remaining <= 0) {
+				return;
+			}
+			AuditEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				return;
+			}
+			batch.add(next);
+		}
+	}
+
+	/**
+	 * バッチ内の操作履歴を日次集計の単位（日付・管理者・画面・操作・ステータス）で件数にまとめる
+	 * 
+	 * @param batch 登録対象
+	 * @return 日付・管理者ID・テーブルキー・操作・ステータス・件数 の配列のリスト
+	 */
+	private static List<Object[]> toDailyCounts(List<AuditEntry> batch) {
+		Map<List<Object>, Long> counts = new HashMap<>();
+		for (AuditEntry entry : batch) {
+			List<Object> key = List.of(Date.valueOf(entry.getCreateDate().toLocalDate()), entry.getAdminId(),
+					entry.getTableKey(), entry.getOperateType(), entry.getStatus());
+			counts.merge(key, 1L, Long::sum);
+		}
+		List<Object[]> rows = new ArrayList<>(counts.size());
+		counts.forEach((key, count) -> {
+			Object[] row = key.toArray(new Object[key.size() + 1]);
+			row[key.size()] = count;
+			rows.add(row);
+		});
+		return rows;
+	}
+
+	/**
+	 * 取り出した操作履歴をJDBCバッチで登録
+	 * ※登録に失敗したバッチは再試行せず破棄する（業務処理は完了済みのため）
+	 *   想定外の実行時例外も同様に破棄扱いとし、書き込みスレッドは止めない
+	 * 
+	 * @param batch 登録対象（登録後にクリアする）
+	 */
+	private void flush(List<AuditEntry> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		Timer.Sample sample = Timer.start();
+		try {
+			List<Object[]> params = new ArrayList<>(batch.size());
+			for (AuditEntry entry : batch) {
+				Timestamp createDate = Timestamp.valueOf(entry.getCreateDate());
+				params.add(new Object[] { entry.getAdminId(), entry.getTableKey(), entry.getOperateType(),
+						entry.getStatus(), entry.getOperationDetails(), DeleteFlagConsts.ACTIVE, createDate, createDate });
+			}
+
+			// 操作履歴と日次集計を同一トランザクションで更新する
+			transactionTemplate.executeWithoutResult(status -> {
+				jdbcTemplate.batchUpdate(INSERT_SQL, params);
+				dailyRepository.increment(toDailyCounts(batch));
+			});
+			writtenCounter.increment(batch.size());
+		} catch (RuntimeException e) {
+			log.error("操作履歴: {} 件の登録に失敗しました", batch.size(), e);
+			droppedCounter.increment(batch.size());
+			return;
+		} finally {
+			sample.stop(flushTimer);
+			batch.clear();
+		}
+
+		// ライブ表示への配信（失敗しても書き込み処理は継続する）
+		try {
+			broadcaster.onFlushed();
+		} catch (RuntimeException e) {
+			log.warn("操作履歴: ライブ表示への配信に失敗しました", e);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.digitalojt.web.audit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.digitalojt.web.consts.OperationType;
+import com.digitalojt.web.consts.ScreenTitle;
+
+/**
+ * 操作履歴の記録対象メソッドを示すアノテーション
+ * ※付与したサービスメソッドの実行結果（成功・失敗）を操作履歴として非同期に記録する
+ *
+ * @author dotlife
+ * 
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Audited {
+
+	/**
+	 * 操作対象の画面
+	 */
+	ScreenTitle screen();
+
+	/**
+	 * 操作の種類
+	 */
+	OperationType operation();
+
+	/**
+	 * 操作情報（未指定の場合は「クラス名#メソッド名」）
+	 */
+	String details() default "";
+}
@@ -0,0 +1,289 @@
+package com.digitalojt.web.audit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.digitalojt.web.dto.OperationLogView;
+import com.digitalojt.web.repository.OperationLogRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 操作履歴のライブ配信（Server-Sent Events）
+ * ※操作履歴の書き込み後に1回だけ新着分を取得し、接続中の全クライアントへ配信する
+ *   クライアントごとに上限付きの送信待ちバッファを持ち、満杯の場合は古いイベントから破棄する
+ *   （遅いクライアントが他のクライアントや書き込み処理を待たせない）
+ *
+ * @author dotlife
+ * 
+ */
+@Component
+@Slf4j
+public class OperationLogBroadcaster {
+
+	/** イベント名 */
+	private static final String EVENT_NAME = "operationLog";
+
+	/** 1回の新着取得の最大件数 */
+	private static final int FETCH_SIZE = 500;
+
+	/** 送信スレッド名の接頭辞 */
+	private static final String THREAD_NAME_PREFIX = "operation-log-sse-";
+
+	/** 操作履歴テーブル リポジトリー */
+	private final OperationLogRepository repository;
+
+	/** 接続中のクライアント */
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+	/** 送信処理（クライアントごとのバッファを順に送信する） */
+	private final ExecutorService sender;
+
+	/** クライアントごとの送信待ちバッファの上限件数 */
+	private final int bufferSize;
+
+	/** 接続のタイムアウト */
+	private final Duration timeout;
+
+	/** 破棄件数（送信待ちバッファ満杯） */
+	private final Counter droppedCounter;
+
+	/** 配信済みの最後のログID（lastLogIdLock を保持して更新する） */
+	private int lastLogId = -1;
+
+	/** lastLogId の更新と新着取得の排他（接続スレッドと書き込みスレッドの両方から更新するため） */
+	private final Object lastLogIdLock = new Object();
+
+	/**
+	 * コンストラクタ
+	 */
+	public OperationLogBroadcaster(OperationLogRepository repository, MeterRegistry meterRegistry,
+			@Value("${app.operation-log.live.buffer-size:256}") int bufferSize,
+			@Value("${app.operation-log.live.timeout:30m}") Duration timeout,
+			@Value("${app.operation-log.live.sender-threads:2}") int senderThreads) {
+		this.repository = repository;
+		this.bufferSize = bufferSize;
+		this.timeout = timeout;
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		Gauge.builder("operation_log.live.subscribers", subscribers, Set::size)
+				.description("操作履歴ライブ表示の接続数")
+				.register(meterRegistry);
+		this.droppedCounter = Counter.builder("operation_log.live.dropped")
+				.description("操作履歴ライブ表示の破棄イベント数")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * クライアントの接続
+	 * ※接続が無い間は新着取得を行わず lastLogId が進まないため、最初のクライアントの接続時に
+	 *   現在の最大ログIDから配信を再開する（接続前の操作履歴を配信しない）
+	 * 
+	 * @return SSEの送信先
+	 */
+	public SseEmitter subscribe() {
+		SseEmitter emitter = new SseEmitter(timeout.toMillis());
+		Subscriber subscriber = new Subscriber(emitter);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(e -> subscribers.remove(subscriber));
+		synchronized (lastLogIdLock) {
+			if (subscribers.isEmpty()) {
+				lastLogId = repository.findMaxLogId();
+			}
+			subscribers.add(subscriber);
+		}
+		return emitter;
+	}
+
+	/**
+	 * 操作履歴の書き込み後の新着配信
+	 * ※AuditLogWriter の書き込みスレッドから呼び出す。接続が無い場合は何もしない
+	 */
+	public void onFlushed() {
+		if (subscribers.isEmpty()) {
+			return;
+		}
+		synchronized (lastLogIdLock) {
+			if (subscribers.isEmpty() || lastLogId < 0) {
+				return;
+			}
+			List<OperationLogView> rows;
+			do {
+				rows = repository.findOperationLogsAfterLogId(lastLogId, PageRequest.ofSize(FETCH_SIZE));
+				for (OperationLogView row : rows) {
+					publish(new LiveEvent(row));
+					lastLogId = row.getLogId();
+				}
+			} while (rows.size() == FETCH_SIZE);
+		}
+	}
+
+	/**
+	 * 接続維持のための定期送信
+	 * ※切断済みのクライアントもここで検出して取り除く
+	 */
+	@Scheduled(fixedDelayString = "${app.operation-log.live.heartbeat-interval-ms:30000}")
+	public void heartbeat() {
+		if (!subscribers.isEmpty()) {
+			publish(LiveEvent.HEARTBEAT);
+		}
+	}
+
+	/**
+	 * 停止時に全クライアントの接続を終了
+	 */
+	@PreDestroy
+	public void shutdown() {
+		subscribers.forEach(subscriber -> subscriber.emitter.complete());
+		subscribers.clear();
+		sender.shutdownNow();
+	}
+
+	/**
+	 * 全クライアントのバッファにイベントを追加
+	 * ※SseEventBuilder は送信のたびに内部状態が変わるため共有せず、送信スレッドでクライアントごとに生成する
+	 * 
+	 * @param event イベント
+	 */
+	private void publish(LiveEvent event) {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(event);
+		}
+	}
+
+	/**
+	 * 配信するイベント（操作履歴1件、または接続維持のためのハートビート）
+	 *
+	 * @param row 操作履歴（ハートビートの場合はnull）
+	 */
+	private record LiveEvent(OperationLogView row) {
+
+		/** ハートビート */
+		private static final LiveEvent HEARTBEAT = new LiveEvent(null);
+
+		/**
+		 * SSEのイベントを生成
+		 *
+		 * @return 送信するイベント
+		 */
+		private SseEventBuilder toSseEvent() {
+			if (row == null) {
+				return SseEmitter.event().comment("heartbeat");
+			}
+			return SseEmitter.event().name(EVENT_NAME).id(String.valueOf(row.getLogId())).data(row);
+		}
+	}
+
+	/**
+	 * 接続中のクライアント1件
+	 */
+	private final class Subscriber {
+
+		/** SSEの送信先 */
+		private final SseEmitter emitter;
+
+		/** 送信待ちバッファ */
+		private final Deque<LiveEvent> buffer = new ArrayDeque<>();
+
+		/** 送信処理の実行中（予約済み）かどうか */
+		private final AtomicBoolean draining = new AtomicBoolean();
+
+		private Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		/**
+		 * バッファに追加し、送信処理を予約する
+		 * ※バッファが満杯の場合は最も古いイベントを破棄する
+		 * 
+		 * @param event イベント
+		 */
+		private void offer(LiveEvent event) {
+			synchronized (buffer) {
+				if (buffer.size() >= bufferSize) {
+					buffer.pollFirst();
+					droppedCounter.increment();
+				}
+				buffer.addLast(event);
+			}
+			if (draining.compareAndSet(false, true)) {
+				sender.execute(this::drain);
+			}
+		}
+
+		/**
+		 * バッファが空になるまで送信
+		 * ※送信に失敗した場合は想定外の例外も含めてクライアントを取り除き、送信処理の予約を解除する
+		 */
+		private void drain() {
+			while (true) {
+				LiveEvent event;
+				synchronized (buffer) {
+					event = buffer.pollFirst();
+					if (event == null) {
+						draining.set(false);
+						return;
+					}
+				}
+				try {
+					emitter.send(event.toSseEvent());
+				} catch (IOException | IllegalStateException e) {
+					// 切断済み
+					log.debug("操作履歴ライブ表示: クライアントが切断されました", e);
+					close(e);
+					return;
+				} catch (RuntimeException e) {
+					log.warn("操作履歴ライブ表示: 送信に失敗したためクライアントを切断します", e);
+					close(e);
+					return;
+				}
+			}
+		}
+
+		/**
+		 * クライアントを取り除き、送信待ちバッファを破棄して接続を終了する
+		 *
+		 * @param cause 送信失敗の原因
+		 */
+		private void close(Exception cause) {
+			subscribers.remove(this);
+			synchronized (buffer) {
+				buffer.clear();
+				draining.set(false);
+			}
+			try {
+				emitter.completeWithError(cause);
+			} catch (RuntimeException e) {
+				log.debug("操作履歴ライブ表示: 接続の終了に失敗しました", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.digitalojt.web.consts;
+
+/**
+ * CSV出力 定数クラス
+ *
+ * @author dotlife
+ * 
+ */
+public class CsvExportConsts {
+
+	// 永続化コンテキストをクリアする間隔（行数）
+	public static final int CLEAR_INTERVAL = 1000;
+
+	// レスポンスのContent-Type
+	public static final String CONTENT_TYPE = "text/csv; charset=UTF-8";
+
+	/** 在庫センター情報 */
+	// ファイル名
+	public static final String CENTER_INFO_FILE_NAME = "center_info.csv";
+	// ヘッダー
+	public static final String[] CENTER_INFO_HEADER = {
+			"センターID", "センター名", "郵便番号", "住所", "電話番号", "管理者名", "稼働状況ステータス",
+			"最大容量", "現在容量", "備考", "論理削除フラグ", "作成日付", "更新日付" };
+
+	/** 操作履歴 */
+	// ファイル名
+	public static final String OPERATION_LOG_FILE_NAME = "operation_log.csv";
+	// ヘッダー
+	public static final String[] OPERATION_LOG_HEADER = {
+			"ログID", "管理者ID", "管理者名", "テーブルキー", "操作の種類", "操作のステータス", "操作内容詳細",
+			"論理削除フラグ", "作成日付", "更新日付" };
+}
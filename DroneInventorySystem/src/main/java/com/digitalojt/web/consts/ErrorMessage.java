@@ -11,6 +11,9 @@ public class ErrorMessage {
 	// ログイン情報の入力に誤りがあった場合に、出力するエラーメッセージのID
 	public static final String  LOGIN_WRONG_INPUT = "login.wrongInput";
 
+	// 予期せぬエラーが発生した場合のエラーメッセージ
+	public static final String UNEXPECTED_ERROR_MESSAGE = "unexpected.error";
+
 	// データが空の場合のエラーメッセージ
 	public static final String DATA_EMPTY_ERROR_MESSAGE = "data.empty";
 	
@@ -25,6 +28,51 @@ public class ErrorMessage {
 
 	// 文字超過に関するエラーメッセージ
 	public static final String CENTER_NAME_LENGTH_ERROR_MESSAGE = "centerName.length.wrongInput";
+
+	// CSV取込：行ごとのエラーメッセージ
+	public static final String CSV_IMPORT_ROW_ERROR_MESSAGE = "csvImport.row.error";
+
+	// CSV取込：バッチ登録失敗のエラーメッセージ
+	public static final String CSV_IMPORT_BATCH_ERROR_MESSAGE = "csvImport.batch.error";
+
+	// CSV取込：列数不正のエラーメッセージ
+	public static final String CSV_IMPORT_COLUMN_COUNT_ERROR_MESSAGE = "csvImport.columnCount.wrongInput";
+
+	// CSV取込：必須項目未入力のエラーメッセージ
+	public static final String CSV_IMPORT_REQUIRED_ERROR_MESSAGE = "csvImport.required.empty";
+
+	// CSV取込：ファイル未指定のエラーメッセージ
+	public static final String CSV_IMPORT_FILE_EMPTY_ERROR_MESSAGE = "csvImport.file.empty";
+
+	// CSV取込：住所から都道府県を判定できない場合のエラーメッセージ
+	public static final String CSV_IMPORT_ADDRESS_ERROR_MESSAGE = "centerInfo.import.address.wrongInput";
+
+	// CSV取込：稼働状況ステータス不正のエラーメッセージ
+	public static final String CSV_IMPORT_STATUS_ERROR_MESSAGE = "centerInfo.import.status.wrongInput";
+
+	// CSV取込：容量不正のエラーメッセージ
+	public static final String CSV_IMPORT_CAPACITY_ERROR_MESSAGE = "centerInfo.import.capacity.wrongInput";
+
+	// 容量の範囲指定に関するエラーメッセージ
+	public static final String STORAGE_CAPACITY_RANGE_ERROR_MESSAGE = "storageCapacity.range.wrongInput";
+	
+	// 在庫数の範囲指定に関するエラーメッセージ
+	public static final String STOCK_QUANTITY_RANGE_ERROR_MESSAGE = "stockQuantity.range.wrongInput";
+	
+	// 在庫数が不足する場合のエラーメッセージ
+	public static final String STOCK_INSUFFICIENT_ERROR_MESSAGE = "stock.insufficient";
+
+	// 対象の在庫が無い場合のエラーメッセージ
+	public static final String STOCK_NOT_FOUND_ERROR_MESSAGE = "stock.notFound";
+
+	// 部品コードに該当する部品が無い場合のエラーメッセージ
+	public static final String PART_NOT_FOUND_ERROR_MESSAGE = "part.notFound";
+	
+	// 在庫移管：移管元と移管先が同じ場合のエラーメッセージ
+	public static final String STOCK_TRANSFER_SAME_CENTER_ERROR_MESSAGE = "stockTransfer.sameCenter";
+
+	// 在庫移管：稼働中でない在庫センターを含む場合のエラーメッセージ
+	public static final String STOCK_TRANSFER_CENTER_ERROR_MESSAGE = "stockTransfer.center.wrongInput";
 	
 	// 空欄の場合のエラーメッセージキー
 	public static final String CATEGORY_NAME_REQUIRED = "category.name.required";
@@ -37,4 +85,7 @@ public class ErrorMessage {
 	
 	// 操作履歴画面の操作時刻に関するエラーメッセージ
 	public static final String OPERATION_DATE_FIELD_ERROR_MESSAGE = "operationLog.operationDateField.empty";
+
+	// 操作履歴画面の検索件数が上限を超えた場合のメッセージ
+	public static final String OPERATION_LOG_OVER_LIMIT_ERROR_MESSAGE = "operationLog.result.overLimit";
 }
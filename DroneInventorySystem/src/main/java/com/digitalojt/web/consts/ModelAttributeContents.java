@@ -25,12 +25,66 @@ public class ModelAttributeContents {
 	
 	// 成功メッセージ
 	public static final String SUCCESS_MSG = "successMsg";
+
+	// CSV取込の行ごとのエラーメッセージ
+	public static final String IMPORT_ERRORS = "importErrors";
 	
 	/** 操作履歴画面 */
 	// 操作履歴一覧
 	public static final String OPERATION_LOG_LIST = "operationLogList";
+	// 操作履歴一覧（ページング情報）
+	public static final String OPERATION_LOG_PAGE = "operationLogPage";
+	// 操作履歴の検索件数
+	public static final String OPERATION_LOG_COUNT = "operationLogCount";
+	// 検索件数が上限を超えた場合のメッセージ
+	public static final String OPERATION_LOG_OVER_LIMIT_MSG = "overLimitMsg";
+	public static final int OPERATION_LOG_PAGE_SIZE = 100; // 1ページあたりの表示件数（既定値）
+	public static final int MAX_OPERATION_LOG_PAGE_SIZE = 500; // 1ページあたりの表示件数（上限）
+	public static final int MAX_OPERATION_LOG_RESULT_COUNT = 10000; // 検索件数の上限
+	public static final String PAGE_DIRECTION_PREV = "prev"; // ページ送り：前ページ
+
+	/** 操作履歴ダッシュボード */
+	// 日別の操作件数
+	public static final String DAILY_SUMMARY_LIST = "dailySummaryList";
+	// 画面別の操作件数
+	public static final String SCREEN_SUMMARY_LIST = "screenSummaryList";
+	// 日別の最大件数（グラフの基準）
+	public static final String MAX_DAILY_TOTAL = "maxDailyTotal";
+	// 集計期間
+	public static final String DASHBOARD_FROM = "from";
+	public static final String DASHBOARD_TO = "to";
+	public static final int DASHBOARD_DEFAULT_DAYS = 30; // 集計期間の既定日数
+	public static final int DASHBOARD_MAX_DAYS = 3660; // 集計期間の上限日数（約10年）
+
+	/** 在庫一覧画面 */
+	// 在庫一覧
+	public static final String STOCK_LIST = "stockList";
+	// 分類
+	public static final String CATEGORIES = "categories";
+	// 在庫センター（選択肢）
+	public static final String CENTERS = "centers";
+	// 分類ごとの在庫数の合計（添字 = 分類の序数）
+	public static final String CATEGORY_TOTALS = "categoryTotals";
+	// 次ページのカーソル
+	public static final String NEXT_QUANTITY = "nextQuantity";
+	public static final String NEXT_STOCK_ID = "nextStockId";
+	public static final int STOCK_LIST_PAGE_SIZE = 50; // 1ページあたりの表示件数（既定値）
+	public static final int MAX_STOCK_LIST_PAGE_SIZE = 200; // 1ページあたりの表示件数（上限）
+	public static final int MAX_STOCK_TRANSFER_LINES = 500; // 在庫移管の明細数（上限）
+	// 在庫不足の一覧
+	public static final String LOW_STOCK_ALERTS = "lowStockAlerts";
+	public static final int LOW_STOCK_ALERT_DISPLAY_COUNT = 20; // 在庫不足の表示件数
+	public static final int MAX_LOW_STOCK_ALERT_COUNT = 1000; // 在庫不足の取得件数（API・上限）
+	// 在庫推移
+	public static final int MAX_STOCK_HISTORY_DAYS = 3 * 366; // 在庫推移の取得期間の日数（API・上限）
 
 	/** 在庫センター情報画面*/
 	public static final int INITIAL_CAPACITY_FROM = 10;// 容量(From)初期値
     public static final int MAX_CENTER_NAME_LENGTH = 20; // 最大文字数
+    public static final int CENTER_INFO_PAGE_SIZE = 50; // 1ページあたりの表示件数（既定値）
+    public static final int MAX_CENTER_INFO_PAGE_SIZE = 200; // 1ページあたりの表示件数（上限）
+    public static final String NEXT_CENTER_ID = "nextCenterId"; // 次ページのカーソル
+    public static final String NEXT_UTILIZATION_RATE = "nextUtilizationRate"; // 次ページのカーソル（使用率順）
+    public static final String SORT_UTILIZATION = "utilization"; // 並び順：使用率の降順
+    public static final String PAGE_SIZE = "pageSize"; // 1ページあたりの表示件数
 }
@@ -18,6 +18,20 @@ public enum OperationStatus {
 	private final Integer statusCode; // ステータスコード
 	private final String statusName; // ステータスの表示文言
 
+	/** ステータスコードによる表示文言の逆引き表（添字 = ステータスコード） */
+	private static final String[] NAME_BY_CODE;
+
+	static {
+		int maxCode = 0;
+		for (OperationStatus status : values()) {
+			maxCode = Math.max(maxCode, status.statusCode);
+		}
+		NAME_BY_CODE = new String[maxCode + 1];
+		for (OperationStatus status : values()) {
+			NAME_BY_CODE[status.statusCode] = status.statusName;
+		}
+	}
+
 	OperationStatus(Integer statusCode, String statusName) {
 		this.statusCode = statusCode;
 		this.statusName = statusName;
@@ -38,12 +52,11 @@ public enum OperationStatus {
 	 * @return 操作ステータス名 (該当しない場合は "不明なステータス" を返す)
 	 */
 	public static String fromStatusCode(Integer statusCode) {
-		for (OperationStatus status : values()) {
-			if (status.getStatusCode().equals(statusCode)) {
-				return status.getStatusName();
-			}
+		if (statusCode == null || statusCode < 0 || statusCode >= NAME_BY_CODE.length
+				|| NAME_BY_CODE[statusCode] == null) {
+			return "不明なステータス"; // デフォルト値
 		}
-		return "不明なステータス"; // デフォルト値
+		return NAME_BY_CODE[statusCode];
 	}
 	
 	// 操作ステータスの一覧を取得
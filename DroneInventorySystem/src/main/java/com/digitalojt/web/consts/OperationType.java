@@ -19,6 +19,20 @@ public enum OperationType {
 	private final Integer typeCode; // 操作タイプのコード
 	private final String typeName; // 操作タイプの表示文言
 
+	/** 操作タイプのコードによる表示文言の逆引き表（添字 = 操作タイプのコード） */
+	private static final String[] NAME_BY_CODE;
+
+	static {
+		int maxCode = 0;
+		for (OperationType type : values()) {
+			maxCode = Math.max(maxCode, type.typeCode);
+		}
+		NAME_BY_CODE = new String[maxCode + 1];
+		for (OperationType type : values()) {
+			NAME_BY_CODE[type.typeCode] = type.typeName;
+		}
+	}
+
 	OperationType(Integer typeCode, String typeName) {
 		this.typeCode = typeCode;
 		this.typeName = typeName;
@@ -39,12 +53,10 @@ public enum OperationType {
 	 * @return 操作タイプ名 (該当しない場合は "不明な操作" を返す)
 	 */
 	public static String fromTypeCode(Integer val) {
-		for (OperationType type : values()) {
-			if (type.getTypeCode().equals(val)) {
-				return type.getTypeName();
-			}
+		if (val == null || val < 0 || val >= NAME_BY_CODE.length || NAME_BY_CODE[val] == null) {
+			return "不明な操作"; // デフォルト値
 		}
-		return "不明な操作"; // デフォルト値
+		return NAME_BY_CODE[val];
 	}
 	
 	// 操作種類の一覧を取得
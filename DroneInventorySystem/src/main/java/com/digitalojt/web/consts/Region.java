@@ -7,61 +7,138 @@ package com.digitalojt.web.consts;
  */
 public enum Region {
 
-	HOKKAIDO("北海道"),
-    AOMORI("青森県"),
-    IWATE("岩手県"),
-    MIYAGI("宮城県"),
-    AKITA("秋田県"),
-    YAMAGATA("山形県"),
-    FUKUSHIMA("福島県"),
-    IBARAKI("茨城県"),
-    TOCHIGI("栃木県"),
-    GUNMA("群馬県"),
-    SAITAMA("埼玉県"),
-    CHIBA("千葉県"),
-    TOKYO("東京都"),
-    KANAGAWA("神奈川県"),
-    NIIGATA("新潟県"),
-    TOYAMA("富山県"),
-    ISHIKAWA("石川県"),
-    FUKUI("福井県"),
-    YAMANASHI("山梨県"),
-    NAGANO("長野県"),
-    GIFU("岐阜県"),
-    SHIZUOKA("静岡県"),
-    AICHI("愛知県"),
-    MIE("三重県"),
-    SHIGA("滋賀県"),
-    KYOTO("京都府"),
-    OSAKA("大阪府"),
-    HYOGO("兵庫県"),
-    NARA("奈良県"),
-    WAKAYAMA("和歌山県"),
-    TOTTORI("鳥取県"),
-    SHIMANE("島根県"),
-    OKAYAMA("岡山県"),
-    HIROSHIMA("広島県"),
-    YAMAGUCHI("山口県"),
-    TOKUSHIMA("徳島県"),
-    KAGAWA("香川県"),
-    EHIME("愛媛県"),
-    KOCHI("高知県"),
-    FUKUOKA("福岡県"),
-    SAGA("佐賀県"),
-    NAGASAKI("長崎県"),
-    KUMAMOTO("熊本県"),
-    OITA("大分県"),
-    MIYAZAKI("宮崎県"),
-    KAGOSHIMA("鹿児島県"),
-    OKINAWA("沖縄県");
+	HOKKAIDO(1, "北海道"),
+    AOMORI(2, "青森県"),
+    IWATE(3, "岩手県"),
+    MIYAGI(4, "宮城県"),
+    AKITA(5, "秋田県"),
+    YAMAGATA(6, "山形県"),
+    FUKUSHIMA(7, "福島県"),
+    IBARAKI(8, "茨城県"),
+    TOCHIGI(9, "栃木県"),
+    GUNMA(10, "群馬県"),
+    SAITAMA(11, "埼玉県"),
+    CHIBA(12, "千葉県"),
+    TOKYO(13, "東京都"),
+    KANAGAWA(14, "神奈川県"),
+    NIIGATA(15, "新潟県"),
+    TOYAMA(16, "富山県"),
+    ISHIKAWA(17, "石川県"),
+    FUKUI(18, "福井県"),
+    YAMANASHI(19, "山梨県"),
+    NAGANO(20, "長野県"),
+    GIFU(21, "岐阜県"),
+    SHIZUOKA(22, "静岡県"),
+    AICHI(23, "愛知県"),
+    MIE(24, "三重県"),
+    SHIGA(25, "滋賀県"),
+    KYOTO(26, "京都府"),
+    OSAKA(27, "大阪府"),
+    HYOGO(28, "兵庫県"),
+    NARA(29, "奈良県"),
+    WAKAYAMA(30, "和歌山県"),
+    TOTTORI(31, "鳥取県"),
+    SHIMANE(32, "島根県"),
+    OKAYAMA(33, "岡山県"),
+    HIROSHIMA(34, "広島県"),
+    YAMAGUCHI(35, "山口県"),
+    TOKUSHIMA(36, "徳島県"),
+    KAGAWA(37, "香川県"),
+    EHIME(38, "愛媛県"),
+    KOCHI(39, "高知県"),
+    FUKUOKA(40, "福岡県"),
+    SAGA(41, "佐賀県"),
+    NAGASAKI(42, "長崎県"),
+    KUMAMOTO(43, "熊本県"),
+    OITA(44, "大分県"),
+    MIYAZAKI(45, "宮崎県"),
+    KAGOSHIMA(46, "鹿児島県"),
+    OKINAWA(47, "沖縄県");
 
-    private final String name;
+    private final int code; // 都道府県コード（JIS X 0401）
+    private final String name; // 都道府県名
 
-    Region(String name) {
+    /** 都道府県コードによる逆引き表（添字 = 都道府県コード） */
+    private static final Region[] BY_CODE = new Region[values().length + 1];
+
+    static {
+        for (Region region : values()) {
+            BY_CODE[region.code] = region;
+        }
+    }
+
+    Region(int code, String name) {
+        this.code = code;
         this.name = name;
     }
 
+    public int getCode() {
+        return code;
+    }
+
     public String getName() {
         return name;
     }
+
+    /**
+     * 都道府県コードから対応する Enum を取得
+     * 
+     * @param code 都道府県コード
+     * @return 都道府県 (該当しない場合は null を返す)
+     */
+    public static Region fromCode(Integer code) {
+        if (code == null || code <= 0 || code >= BY_CODE.length) {
+            return null;
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * 都道府県名から対応する Enum を取得
+     * ※完全一致を優先し、無ければ部分一致が1件のみの場合に採用する
+     * 
+     * @param name 都道府県名
+     * @return 都道府県 (該当しない場合は null を返す)
+     */
+    public static Region fromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        Region candidate = null;
+        for (Region region : values()) {
+            if (region.name.equals(name)) {
+                return region;
+            }
+            if (region.name.contains(name)) {
+                if (candidate != null) {
+                    return null; // 複数に一致する場合は特定不可
+                }
+                candidate = region;
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * 住所に含まれる都道府県を判定
+     * ※住所の先頭に最も近い位置に現れる都道府県名を採用する
+     * 
+     * @param address 住所
+     * @return 都道府県 (判定できない場合は null を返す)
+     */
+    public static Region fromAddress(String address) {
+        if (address == null) {
+            return null;
+        }
+        Region found = null;
+        int foundIndex = Integer.MAX_VALUE;
+        for (Region region : values()) {
+            int index = address.indexOf(region.name);
+            if (index >= 0 && index < foundIndex) {
+                found = region;
+                foundIndex = index;
+            }
+        }
+        return found;
+    }
 }
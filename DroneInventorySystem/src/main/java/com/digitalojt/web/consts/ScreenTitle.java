@@ -1,7 +1,9 @@
 package com.digitalojt.web.consts;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +23,15 @@ public enum ScreenTitle {
 	private final String tableKey; // テーブルキー
 	private final String screenName; // 画面名
 
+	/** テーブルキーによる画面名の逆引き表 */
+	private static final Map<String, String> NAME_BY_TABLE_KEY = new HashMap<>();
+
+	static {
+		for (ScreenTitle title : values()) {
+			NAME_BY_TABLE_KEY.put(title.tableKey, title.screenName);
+		}
+	}
+
 	ScreenTitle(String tableKey, String screenName) {
 		this.tableKey = tableKey;
 		this.screenName = screenName;
@@ -41,12 +52,8 @@ public enum ScreenTitle {
 	 * @return
 	 */
 	public static String fromTableKey(String tableKey) {
-		for (ScreenTitle title : values()) {
-			if (title.getTableKey().equals(tableKey)) {
-				return title.getScreenName();
-			}
-		}
-		return "不明な画面"; // 定義されていない場合のデフォルト値
+		String screenName = tableKey == null ? null : NAME_BY_TABLE_KEY.get(tableKey);
+		return screenName != null ? screenName : "不明な画面"; // 定義されていない場合のデフォルト値
 	}
 
 	/**
@@ -0,0 +1,48 @@
+package com.digitalojt.web.consts;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 在庫推移の集計単位Enum
+ * 
+ * @author dotlife
+ *
+ */
+public enum StockHistoryInterval {
+
+	DAILY("日次", 90),
+	WEEKLY("週次", 52 * 7),
+	MONTHLY("月次", 731);
+
+	private final String intervalName; // 集計単位の表示文言
+	private final int defaultDays; // 期間未指定時の日数
+
+	StockHistoryInterval(String intervalName, int defaultDays) {
+		this.intervalName = intervalName;
+		this.defaultDays = defaultDays;
+	}
+
+	public String getIntervalName() {
+		return intervalName;
+	}
+
+	public int getDefaultDays() {
+		return defaultDays;
+	}
+
+	/**
+	 * 日付が属する集計期間の開始日（週次は月曜日、月次は1日）
+	 * 
+	 * @param date 日付
+	 * @return 集計期間の開始日
+	 */
+	public LocalDate bucketStart(LocalDate date) {
+		return switch (this) {
+		case DAILY -> date;
+		case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+		case MONTHLY -> date.withDayOfMonth(1);
+		};
+	}
+}
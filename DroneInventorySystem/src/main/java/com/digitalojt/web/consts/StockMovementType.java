@@ -0,0 +1,32 @@
+package com.digitalojt.web.consts;
+
+/**
+ * 在庫移動種別Enum
+ * 
+ * @author dotlife
+ *
+ */
+public enum StockMovementType {
+
+	RECEIPT(1, "入庫"),
+	ISSUE(2, "出庫"),
+	TRANSFER_OUT(3, "移管出庫"),
+	TRANSFER_IN(4, "移管入庫"),
+	ADJUSTMENT(5, "調整");
+
+	private final int typeCode; // 移動種別のコード
+	private final String typeName; // 移動種別の表示文言
+
+	StockMovementType(int typeCode, String typeName) {
+		this.typeCode = typeCode;
+		this.typeName = typeName;
+	}
+
+	public int getTypeCode() {
+		return typeCode;
+	}
+
+	public String getTypeName() {
+		return typeName;
+	}
+}
@@ -0,0 +1,16 @@
+package com.digitalojt.web.consts;
+
+/**
+ * 成功メッセージ定数クラス
+ * 
+ * @author dotlife
+ *
+ */
+public class SuccessMessage {
+
+	// CSV取込が完了した場合のメッセージ
+	public static final String CSV_IMPORT_SUCCESS_MESSAGE = "csvImport.success";
+
+	// 在庫数の調整が完了した場合のメッセージ
+	public static final String STOCK_ADJUST_SUCCESS_MESSAGE = "stock.adjust.success";
+}
@@ -28,6 +28,24 @@ public class UrlConsts {
 
 	// 在庫一覧画面 検索
 	public static final String STOCK_LIST_SEARCH = "/admin/stockList/search";
+
+	// 在庫一覧画面 在庫数調整
+	public static final String STOCK_LIST_ADJUST = "/admin/stockList/adjust";
+
+	// 在庫API 在庫移管（JSON）
+	public static final String STOCK_API_TRANSFER = "/admin/stockList/api/transfer";
+
+	// 在庫API 在庫不足の一覧（JSON）
+	public static final String STOCK_API_LOW_STOCK = "/admin/stockList/api/lowStock";
+
+	// 在庫API 在庫推移（JSON）
+	public static final String STOCK_API_HISTORY = "/admin/stockList/api/history";
+
+	// 在庫API 部品照会（JSON）
+	public static final String STOCK_API_PART = "/admin/stockList/api/parts/{partCode}";
+
+	// 在庫API 基準日時時点の在庫数（JSON）
+	public static final String STOCK_API_QUANTITY = "/admin/stockList/api/quantity";
 	
 	// 在庫センター情報画面
 	public static final String  CENTER_INFO = "/admin/centerInfo";
@@ -37,6 +55,12 @@ public class UrlConsts {
 	
 	// 在庫センター情報画面 検索
 	public static final String CENTER_INFO_SEARCH = "/admin/centerInfo/search";
+
+	// 在庫センター情報画面 CSV出力
+	public static final String CENTER_INFO_EXPORT = "/admin/centerInfo/export";
+
+	// 在庫センター情報画面 CSV取込
+	public static final String CENTER_INFO_IMPORT = "/admin/centerInfo/import";
 	
 	// 操作履歴画面
 	public static final String  OPERATION_LOG = "/admin/operationLog";
@@ -46,6 +70,27 @@ public class UrlConsts {
 
 	// 操作履歴画面 検索
 	public static final String  OPERATION_LOG_SEARCH = "/admin/operationLog/search";
+
+	// 操作履歴画面 CSV出力
+	public static final String  OPERATION_LOG_EXPORT = "/admin/operationLog/export";
+
+	// 操作履歴画面 ライブ表示
+	public static final String  OPERATION_LOG_LIVE = "/admin/operationLog/live";
+
+	// 操作履歴画面 ライブ表示画面
+	public static final String  OPERATION_LOG_LIVE_INDEX = "admin/operationLog/live";
+
+	// 操作履歴画面 ライブ表示（SSE）
+	public static final String  OPERATION_LOG_LIVE_STREAM = "/admin/operationLog/live/stream";
+
+	// 操作履歴ダッシュボード
+	public static final String  OPERATION_LOG_DASHBOARD = "/admin/operationLog/dashboard";
+
+	// 操作履歴ダッシュボード初期画面
+	public static final String  OPERATION_LOG_DASHBOARD_INDEX = "admin/operationLog/dashboard";
+
+	// 操作履歴ダッシュボード 日別件数（JSON）
+	public static final String  OPERATION_LOG_DASHBOARD_DAILY = "/admin/operationLog/dashboard/daily";
 	
 	// 認証不要画面
 	public static final String[] NO_AUTHENTICATION = {LOGIN, AUTHENTICATE};
@@ -1,21 +1,39 @@
 package com.digitalojt.web.controller;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.context.MessageSource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
-
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import com.digitalojt.web.consts.CsvExportConsts;
+import com.digitalojt.web.consts.ErrorMessage;
 import com.digitalojt.web.consts.LogMessage;
 import com.digitalojt.web.consts.ModelAttributeContents;
 import com.digitalojt.web.consts.Region;
+import com.digitalojt.web.consts.SuccessMessage;
 import com.digitalojt.web.consts.UrlConsts;
+import com.digitalojt.web.dto.CsvImportResult;
+import com.digitalojt.web.dto.KeysetPage;
 import com.digitalojt.web.entity.CenterInfo;
 import com.digitalojt.web.form.CenterInfoForm;
+import com.digitalojt.web.service.CenterInfoImportService;
 import com.digitalojt.web.service.CenterInfoService;
+import com.digitalojt.web.util.MessageManager;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +51,12 @@ public class CenterInfoController extends AbstractController {
 	/** センター情報 サービス */
 	private final CenterInfoService centerInfoService;
 
+	/** センター情報 CSV取込サービス */
+	private final CenterInfoImportService centerInfoImportService;
+
+	/** メッセージソース */
+	private final MessageSource messageSource;
+
 	/**
 	 * 都道府県Enumをリストに変換
 	 * 
@@ -47,17 +71,21 @@ public class CenterInfoController extends AbstractController {
 	 * 初期表示
 	 * 
 	 * @param model
+	 * @param lastCenterId 前ページ最終行のセンターID
+	 * @param pageSize 1ページあたりの表示件数
 	 * @retur
 	 */
 	@GetMapping(UrlConsts.CENTER_INFO)
-	public String index(Model model) {
+	public String index(Model model,
+			@RequestParam(required = false) Integer lastCenterId,
+			@RequestParam(required = false) Integer pageSize) {
 		logStart(LogMessage.HTTP_GET);
 
-		// 在庫センター情報画面に表示するデータを取得
-		List<CenterInfo> centerInfoList = centerInfoService.getCenterInfoData();
+		// 在庫センター情報画面に表示するデータを1ページ分取得
+		KeysetPage<CenterInfo> centerInfoPage = centerInfoService.getCenterInfoData(lastCenterId, pageSize);
 
 		// 画面表示用に商品情報リストをセット
-		model.addAttribute(ModelAttributeContents.CENTER_INFO_LIST, centerInfoList);
+		setCenterInfoPage(model, centerInfoPage);
 
 		logEnd(LogMessage.HTTP_GET);
 
@@ -81,17 +109,86 @@ public class CenterInfoController extends AbstractController {
 			return UrlConsts.CENTER_INFO_INDEX;
 		}
 
-		// 検索条件に基づいて在庫センター情報を取得
-		List<CenterInfo> centerInfoList = centerInfoService.getCenterInfoData(form.getCenterName(), form.getRegion());
+		// 検索条件に基づいて在庫センター情報を1ページ分取得
+		KeysetPage<CenterInfo> centerInfoPage = centerInfoService.getCenterInfoData(form);
 
 		// 画面表示用に商品情報リストをセット
-		model.addAttribute(ModelAttributeContents.CENTER_INFO_LIST, centerInfoList);
+		setCenterInfoPage(model, centerInfoPage);
 
 		logEnd(LogMessage.HTTP_GET);
 
 		return UrlConsts.CENTER_INFO_INDEX;
 	}
 
+	/**
+	 * CSV出力
+	 * ※全件をストリーミングで出力する
+	 * 
+	 * @return CSVファイル
+	 */
+	@GetMapping(UrlConsts.CENTER_INFO_EXPORT)
+	public ResponseEntity<StreamingResponseBody> export() {
+		logStart(LogMessage.HTTP_GET);
+
+		StreamingResponseBody body = centerInfoService::exportCsv;
+
+		logEnd(LogMessage.HTTP_GET);
+
+		return ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename(CsvExportConsts.CENTER_INFO_FILE_NAME).build().toString())
+				.contentType(MediaType.parseMediaType(CsvExportConsts.CONTENT_TYPE))
+				.body(body);
+	}
+
+	/**
+	 * CSV取込
+	 * ※取込結果（件数・行ごとのエラー）をフラッシュメッセージにセットし、初期表示へリダイレクトする
+	 * 
+	 * @param file 取込ファイル
+	 * @param redirectAttributes
+	 * @return 初期表示へのリダイレクト
+	 * @throws IOException
+	 */
+	@PostMapping(UrlConsts.CENTER_INFO_IMPORT)
+	public String importCsv(@RequestParam("file") MultipartFile file, RedirectAttributes redirectAttributes)
+			throws IOException {
+		logStart(LogMessage.HTTP_POST);
+
+		if (file.isEmpty()) {
+			setFlashErrorMsg(messageSource, redirectAttributes, ErrorMessage.CSV_IMPORT_FILE_EMPTY_ERROR_MESSAGE);
+			logEnd(LogMessage.HTTP_POST);
+			return "redirect:" + UrlConsts.CENTER_INFO;
+		}
+
+		CsvImportResult result = centerInfoImportService.importCsv(file.getInputStream());
+
+		redirectAttributes.addFlashAttribute(ModelAttributeContents.SUCCESS_MSG,
+				MessageManager.getMessage(messageSource, SuccessMessage.CSV_IMPORT_SUCCESS_MESSAGE,
+						result.getTotalCount(), result.getImportedCount(), result.getErrorCount()));
+		redirectAttributes.addFlashAttribute(ModelAttributeContents.IMPORT_ERRORS, result.getErrors());
+
+		logEnd(LogMessage.HTTP_POST);
+
+		return "redirect:" + UrlConsts.CENTER_INFO;
+	}
+
+	/**
+	 * 1ページ分の在庫センター情報と次ページのカーソルをモデルにセット
+	 * 
+	 * @param model
+	 * @param centerInfoPage
+	 */
+	private void setCenterInfoPage(Model model, KeysetPage<CenterInfo> centerInfoPage) {
+		model.addAttribute(ModelAttributeContents.CENTER_INFO_LIST, centerInfoPage.getContent());
+		model.addAttribute(ModelAttributeContents.PAGE_SIZE, centerInfoPage.getPageSize());
+		if (centerInfoPage.isHasNext()) {
+			CenterInfo last = centerInfoPage.getLast();
+			model.addAttribute(ModelAttributeContents.NEXT_CENTER_ID, last.getCenterId());
+			model.addAttribute(ModelAttributeContents.NEXT_UTILIZATION_RATE, last.getUtilizationRate());
+		}
+	}
+
 	/**
 	 * バリデーションエラー処理
 	 * 
@@ -1,24 +1,40 @@
 package com.digitalojt.web.controller;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import jakarta.validation.Valid;
 
+import org.springframework.context.MessageSource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.digitalojt.web.audit.OperationLogBroadcaster;
+import com.digitalojt.web.consts.CsvExportConsts;
+import com.digitalojt.web.consts.ErrorMessage;
 import com.digitalojt.web.consts.LogMessage;
 import com.digitalojt.web.consts.ModelAttributeContents;
 import com.digitalojt.web.consts.OperationStatus;
 import com.digitalojt.web.consts.OperationType;
 import com.digitalojt.web.consts.UrlConsts;
-import com.digitalojt.web.entity.OperationLog;
+import com.digitalojt.web.dto.KeysetPage;
+import com.digitalojt.web.dto.OperationLogView;
 import com.digitalojt.web.form.OperationLogForm;
 import com.digitalojt.web.service.OperationLogService;
+import com.digitalojt.web.util.MessageManager;
 
 import lombok.RequiredArgsConstructor;
 
@@ -34,6 +50,12 @@ public class OperationLogController extends AbstractController {
 
 	/** 操作履歴 サービス */
 	private final OperationLogService operationLogService;
+
+	/** 操作履歴のライブ配信 */
+	private final OperationLogBroadcaster operationLogBroadcaster;
+
+	/** メッセージソース */
+	private final MessageSource messageSource;
     
     /**
      * 操作の種類Enumをリストに変換
@@ -62,15 +84,20 @@ public class OperationLogController extends AbstractController {
 	 * @return
 	 */
 	@GetMapping(UrlConsts.OPERATION_LOG)
-	public String index(Model model) {
+	public String index(Model model,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorDate,
+			@RequestParam(required = false) Integer cursorLogId,
+			@RequestParam(required = false) String direction,
+			@RequestParam(required = false) Integer pageSize) {
 
 		logStart(LogMessage.HTTP_GET);
 		
         // 操作履歴情報の取得（直近1か月分のみ）
-        List<OperationLog> operationLogList = operationLogService.getOperationLogList();
+        KeysetPage<OperationLogView> page = operationLogService.getOperationLogList(
+        		cursorDate, cursorLogId, direction, pageSize);
 		
         // 画面表示用に操作履歴情報リストをセット
-		model.addAttribute(ModelAttributeContents.OPERATION_LOG_LIST, operationLogList);
+		setOperationLogPage(model, page);
 	    
 		logEnd(LogMessage.HTTP_GET);
 
@@ -111,17 +138,98 @@ public class OperationLogController extends AbstractController {
         }
         
         // 検索条件に基づいて操作履歴情報を取得
-        List<OperationLog> operationLogList = operationLogService.getOperationLogData(
-        		form.getUserId(), operateTypeCode, statusCode, form.getCreateDate(), form.getUpdateDate());
+        KeysetPage<OperationLogView> page = operationLogService.getOperationLogData(
+        		form.getUserId(), operateTypeCode, statusCode, form.getCreateDate(), form.getUpdateDate(),
+        		form.getCursorDate(), form.getCursorLogId(), form.getDirection(), form.getPageSize());
 
         // 画面表示用に操作履歴情報リストをセット
-        model.addAttribute(ModelAttributeContents.OPERATION_LOG_LIST, operationLogList);
+        setOperationLogPage(model, page);
+
+        // 検索件数の上限チェック（上限件数 + 1件で打ち切って数える）
+        // ※上限を超える場合は件数表示の指定に関わらず、条件の絞り込みを促すメッセージを表示する
+        long count = operationLogService.countOperationLogData(
+        		form.getUserId(), operateTypeCode, statusCode, form.getCreateDate(), form.getUpdateDate());
+        if (count > ModelAttributeContents.MAX_OPERATION_LOG_RESULT_COUNT) {
+        	model.addAttribute(ModelAttributeContents.OPERATION_LOG_OVER_LIMIT_MSG,
+        			MessageManager.getMessage(messageSource, ErrorMessage.OPERATION_LOG_OVER_LIMIT_ERROR_MESSAGE,
+        					ModelAttributeContents.MAX_OPERATION_LOG_RESULT_COUNT));
+        } else if (form.isWithCount()) {
+        	// 件数表示が指定された場合のみ件数を表示
+        	model.addAttribute(ModelAttributeContents.OPERATION_LOG_COUNT, count);
+        }
         
         logEnd(LogMessage.HTTP_GET);
 
 		return UrlConsts.OPERATION_LOG_INDEX;
     }
     
+    /**
+     * CSV出力
+     * ※操作時刻（開始・終了）が両方指定された場合はその範囲、それ以外は全件をストリーミングで出力する
+     * 
+     * @param createDate 操作時刻（開始）
+     * @param updateDate 操作時刻（終了）
+     * @return CSVファイル
+     */
+    @GetMapping(UrlConsts.OPERATION_LOG_EXPORT)
+    public ResponseEntity<StreamingResponseBody> export(
+    		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createDate,
+    		@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updateDate) {
+        logStart(LogMessage.HTTP_GET);
+
+        StreamingResponseBody body = outputStream -> operationLogService.exportCsv(createDate, updateDate, outputStream);
+
+        logEnd(LogMessage.HTTP_GET);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(CsvExportConsts.OPERATION_LOG_FILE_NAME).build().toString())
+                .contentType(MediaType.parseMediaType(CsvExportConsts.CONTENT_TYPE))
+                .body(body);
+    }
+    
+    /**
+     * ライブ表示
+     * ※画面表示後、新着の操作履歴をSSEで受信して先頭に追加する
+     * 
+     * @return
+     */
+    @GetMapping(UrlConsts.OPERATION_LOG_LIVE)
+    public String live() {
+        logStart(LogMessage.HTTP_GET);
+        logEnd(LogMessage.HTTP_GET);
+
+        return UrlConsts.OPERATION_LOG_LIVE_INDEX;
+    }
+
+    /**
+     * ライブ表示の配信（Server-Sent Events）
+     * 
+     * @return SSEの送信先
+     */
+    @GetMapping(path = UrlConsts.OPERATION_LOG_LIVE_STREAM, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter liveStream() {
+        logStart(LogMessage.HTTP_GET);
+
+        SseEmitter emitter = operationLogBroadcaster.subscribe();
+
+        logEnd(LogMessage.HTTP_GET);
+
+        return emitter;
+    }
+
+    /**
+     * 1ページ分の操作履歴情報を画面表示用にセット
+     * 
+     * @param model
+     * @param page
+     */
+    private void setOperationLogPage(Model model, KeysetPage<OperationLogView> page) {
+    	model.addAttribute(ModelAttributeContents.OPERATION_LOG_LIST, page.getContent());
+    	model.addAttribute(ModelAttributeContents.OPERATION_LOG_PAGE, page);
+    }
+
     /**
      * バリデーションエラー処理
      * 
@@ -0,0 +1,117 @@
+package com.digitalojt.web.controller;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.digitalojt.web.consts.LogMessage;
+import com.digitalojt.web.consts.ModelAttributeContents;
+import com.digitalojt.web.consts.UrlConsts;
+import com.digitalojt.web.dto.OperationSummary;
+import com.digitalojt.web.service.OperationLogDashboardService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 操作履歴ダッシュボードのコントローラークラス
+ * 
+ * @author dotlife
+ *
+ */
+@Controller
+@RequiredArgsConstructor
+public class OperationLogDashboardController extends AbstractController {
+
+	/** 操作履歴ダッシュボード サービス */
+	private final OperationLogDashboardService dashboardService;
+
+	/**
+	 * 初期表示
+	 * 
+	 * @param model
+	 * @param from 集計開始日（未指定の場合は終了日の30日前）
+	 * @param to 集計終了日（未指定の場合は当日）
+	 * @return
+	 */
+	@GetMapping(UrlConsts.OPERATION_LOG_DASHBOARD)
+	public String index(Model model,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+		logStart(LogMessage.HTTP_GET);
+
+		LocalDate end = normalizeTo(to);
+		LocalDate start = normalizeFrom(from, end);
+
+		List<OperationSummary> dailySummaryList = dashboardService.getDailySummary(start, end);
+		long maxDailyTotal = dailySummaryList.stream().mapToLong(OperationSummary::getTotalCount).max().orElse(0);
+
+		model.addAttribute(ModelAttributeContents.DAILY_SUMMARY_LIST, dailySummaryList);
+		model.addAttribute(ModelAttributeContents.MAX_DAILY_TOTAL, maxDailyTotal);
+		model.addAttribute(ModelAttributeContents.SCREEN_SUMMARY_LIST, dashboardService.getScreenSummary(start, end));
+		model.addAttribute(ModelAttributeContents.DASHBOARD_FROM, start);
+		model.addAttribute(ModelAttributeContents.DASHBOARD_TO, end);
+
+		logEnd(LogMessage.HTTP_GET);
+
+		return UrlConsts.OPERATION_LOG_DASHBOARD_INDEX;
+	}
+
+	/**
+	 * 日別の操作件数（グラフ描画用JSON）
+	 * 
+	 * @param from 集計開始日（未指定の場合は終了日の30日前）
+	 * @param to 集計終了日（未指定の場合は当日）
+	 * @return 日付の昇順の操作件数
+	 */
+	@GetMapping(UrlConsts.OPERATION_LOG_DASHBOARD_DAILY)
+	@ResponseBody
+	public List<OperationSummary> daily(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+		logStart(LogMessage.HTTP_GET);
+
+		LocalDate end = normalizeTo(to);
+		List<OperationSummary> dailySummaryList = dashboardService.getDailySummary(normalizeFrom(from, end), end);
+
+		logEnd(LogMessage.HTTP_GET);
+
+		return dailySummaryList;
+	}
+
+	/**
+	 * 集計終了日の補完
+	 * 
+	 * @param to
+	 * @return 集計終了日
+	 */
+	private LocalDate normalizeTo(LocalDate to) {
+		return to != null ? to : LocalDate.now();
+	}
+
+	/**
+	 * 集計開始日の補完
+	 * ※終了日より後、または上限日数を超える場合は丸める
+	 * 
+	 * @param from
+	 * @param to 集計終了日
+	 * @return 集計開始日
+	 */
+	private LocalDate normalizeFrom(LocalDate from, LocalDate to) {
+		if (from == null || from.isAfter(to)) {
+			return to.minusDays(ModelAttributeContents.DASHBOARD_DEFAULT_DAYS - 1);
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= ModelAttributeContents.DASHBOARD_MAX_DAYS) {
+			return to.minusDays(ModelAttributeContents.DASHBOARD_MAX_DAYS - 1);
+		}
+		return from;
+	}
+}
@@ -0,0 +1,230 @@
+package com.digitalojt.web.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.ErrorMessage;
+import com.digitalojt.web.consts.LogMessage;
+import com.digitalojt.web.consts.ModelAttributeContents;
+import com.digitalojt.web.consts.Region;
+import com.digitalojt.web.consts.StockHistoryInterval;
+import com.digitalojt.web.consts.UrlConsts;
+import com.digitalojt.web.dto.LowStockAlert;
+import com.digitalojt.web.dto.PartView;
+import com.digitalojt.web.dto.StockHistoryPoint;
+import com.digitalojt.web.dto.StockQuantityView;
+import com.digitalojt.web.exception.InvalidInputException;
+import com.digitalojt.web.form.StockTransferForm;
+import com.digitalojt.web.service.LowStockDetector;
+import com.digitalojt.web.service.PartLookupService;
+import com.digitalojt.web.service.StockHistoryService;
+import com.digitalojt.web.service.StockLedgerService;
+import com.digitalojt.web.service.StockTransferService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫API（JSON）のコントローラークラス
+ * ※エラーは ApiExceptionHandler によりJSON（ErrorResponse）で返す
+ * 
+ * @author dotlife
+ *
+ */
+@RestController
+@RequiredArgsConstructor
+public class StockApiController extends AbstractController {
+
+	/** 在庫移管 サービス */
+	private final StockTransferService stockTransferService;
+
+	/** 在庫不足の検知 */
+	private final LowStockDetector lowStockDetector;
+
+	/** 在庫推移 サービス */
+	private final StockHistoryService stockHistoryService;
+
+	/** 部品照会 サービス */
+	private final PartLookupService partLookupService;
+
+	/** 在庫移動履歴からの在庫数の算出 */
+	private final StockLedgerService stockLedgerService;
+
+	/**
+	 * 在庫移管
+	 * ※全明細を1トランザクションで移管する
+	 * 
+	 * @param form 移管明細
+	 * @return 204 No Content
+	 */
+	@PostMapping(UrlConsts.STOCK_API_TRANSFER)
+	public ResponseEntity<Void> transfer(@Valid @RequestBody StockTransferForm form) {
+		logStart(LogMessage.HTTP_POST);
+
+		stockTransferService.transfer(form.getLines());
+
+		logEnd(LogMessage.HTTP_POST);
+
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * 在庫不足の一覧（不足の大きい順）
+	 * ※DBは参照せず、在庫不足の検知結果から取得する
+	 * 
+	 * @param category 分類（Categoryの列挙名、未指定の場合は条件なし）
+	 * @param region 都道府県名（未指定の場合は条件なし）
+	 * @param limit 取得件数
+	 * @return 在庫不足の一覧
+	 */
+	@GetMapping(UrlConsts.STOCK_API_LOW_STOCK)
+	public List<LowStockAlert> lowStock(@RequestParam(required = false) String category,
+			@RequestParam(required = false) String region,
+			@RequestParam(required = false) Integer limit) {
+		logStart(LogMessage.HTTP_GET);
+
+		Category targetCategory = null;
+		if (category != null && !category.isEmpty()) {
+			targetCategory = parseCategory(category);
+		}
+		Integer prefectureCode = null;
+		if (region != null && !region.isEmpty()) {
+			Region targetRegion = Region.fromName(region);
+			if (targetRegion == null) {
+				throw new InvalidInputException(ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+			}
+			prefectureCode = targetRegion.getCode();
+		}
+		int size = limit == null || limit <= 0
+				? ModelAttributeContents.LOW_STOCK_ALERT_DISPLAY_COUNT
+				: Math.min(limit, ModelAttributeContents.MAX_LOW_STOCK_ALERT_COUNT);
+		List<LowStockAlert> alerts = lowStockDetector.getAlerts(targetCategory, prefectureCode, size);
+
+		logEnd(LogMessage.HTTP_GET);
+
+		return alerts;
+	}
+
+	/**
+	 * 在庫センター・分類の在庫推移
+	 * ※日次在庫スナップショットから取得する（当日分は含まない）
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param category 分類（Categoryの列挙名）
+	 * @param interval 集計単位（StockHistoryIntervalの列挙名、未指定の場合は日次）
+	 * @param from 開始日（未指定の場合は集計単位ごとの既定の日数前）
+	 * @param to 終了日（未指定の場合は前日）
+	 * @return 集計期間の開始日の昇順の在庫推移
+	 */
+	@GetMapping(UrlConsts.STOCK_API_HISTORY)
+	public List<StockHistoryPoint> history(@RequestParam int centerId, @RequestParam String category,
+			@RequestParam(required = false) String interval,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		logStart(LogMessage.HTTP_GET);
+
+		StockHistoryInterval targetInterval = StockHistoryInterval.DAILY;
+		if (interval != null && !interval.isEmpty()) {
+			targetInterval = parseInterval(interval);
+		}
+		LocalDate end = to != null ? to : LocalDate.now().minusDays(1);
+		LocalDate start = from != null ? from : end.minusDays(targetInterval.getDefaultDays() - 1);
+		if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= ModelAttributeContents.MAX_STOCK_HISTORY_DAYS) {
+			throw new InvalidInputException(ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+		}
+		List<StockHistoryPoint> points = stockHistoryService.getHistory(centerId, parseCategory(category),
+				targetInterval, start, end);
+
+		logEnd(LogMessage.HTTP_GET);
+
+		return points;
+	}
+
+	/**
+	 * 部品コードによる部品照会
+	 * ※未登録の部品コードはブルームフィルタで判定し、DBを参照せずに404を返す
+	 * 
+	 * @param partCode 部品コード
+	 * @return 部品情報
+	 */
+	@GetMapping(UrlConsts.STOCK_API_PART)
+	public PartView part(@PathVariable String partCode) {
+		logStart(LogMessage.HTTP_GET);
+
+		PartView part = partLookupService.getPart(partCode.trim());
+
+		logEnd(LogMessage.HTTP_GET);
+
+		return part;
+	}
+
+	/**
+	 * 基準日時時点の在庫数
+	 * ※直前の在庫スナップショットと以降の在庫移動履歴から算出する
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param asOf 基準日時（未指定の場合は現在日時、未来の日時は指定不可）
+	 * @return 基準日時時点の在庫数
+	 */
+	@GetMapping(UrlConsts.STOCK_API_QUANTITY)
+	public StockQuantityView quantity(@RequestParam int centerId, @RequestParam int partId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+		logStart(LogMessage.HTTP_GET);
+
+		LocalDateTime now = LocalDateTime.now();
+		if (asOf != null && asOf.isAfter(now)) {
+			throw new InvalidInputException(ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+		}
+		LocalDateTime target = asOf != null ? asOf : now;
+		StockQuantityView quantity = new StockQuantityView(centerId, partId, target,
+				stockLedgerService.getQuantityAsOf(centerId, partId, target));
+
+		logEnd(LogMessage.HTTP_GET);
+
+		return quantity;
+	}
+
+	/**
+	 * 集計単位の列挙名を変換
+	 * 
+	 * @param interval 集計単位（StockHistoryIntervalの列挙名）
+	 * @return 集計単位
+	 */
+	private StockHistoryInterval parseInterval(String interval) {
+		for (StockHistoryInterval value : StockHistoryInterval.values()) {
+			if (value.name().equals(interval)) {
+				return value;
+			}
+		}
+		throw new InvalidInputException(ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+	}
+
+	/**
+	 * 分類の列挙名を変換
+	 * 
+	 * @param category 分類（Categoryの列挙名）
+	 * @return 分類
+	 */
+	private Category parseCategory(String category) {
+		for (Category value : Category.values()) {
+			if (value.name().equals(category)) {
+				return value;
+			}
+		}
+		throw new InvalidInputException(ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+	}
+}
@@ -1,27 +1,221 @@
 package com.digitalojt.web.controller;
 
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.LogMessage;
+import com.digitalojt.web.consts.ModelAttributeContents;
+import com.digitalojt.web.consts.SuccessMessage;
 import com.digitalojt.web.consts.UrlConsts;
+import com.digitalojt.web.dto.KeysetPage;
+import com.digitalojt.web.entity.CenterInfo;
+import com.digitalojt.web.entity.StockInfo;
+import com.digitalojt.web.form.StockListForm;
+import com.digitalojt.web.service.LowStockDetector;
+import com.digitalojt.web.service.StockAggregateService;
+import com.digitalojt.web.service.StockReservationService;
+import com.digitalojt.web.service.StockService;
+import com.digitalojt.web.util.MessageManager;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
 
 /**
  * 在庫一覧画面コントローラークラス
  * 
- * @author your name
+ * @author dotlife
  *
  */
 @Controller
+@RequiredArgsConstructor
 public class StockListController extends AbstractController {
-	
+
+	/** 分類ごとの在庫数の合計の格納先（リクエストスレッドごとに再利用する） */
+	private static final ThreadLocal<long[]> CATEGORY_TOTALS_BUFFER = ThreadLocal
+			.withInitial(() -> new long[StockAggregateService.CATEGORY_COUNT]);
+
+	/** 在庫一覧 サービス */
+	private final StockService stockService;
+
+	/** 在庫数の引当・調整 サービス */
+	private final StockReservationService stockReservationService;
+
+	/** 分類 × 在庫センターの在庫数集計 */
+	private final StockAggregateService stockAggregateService;
+
+	/** 在庫不足の検知 */
+	private final LowStockDetector lowStockDetector;
+
+	/** メッセージソース */
+	private final MessageSource messageSource;
+
+	/**
+	 * 分類Enumをリストに変換
+	 * 
+	 * @return
+	 */
+	@ModelAttribute(ModelAttributeContents.CATEGORIES)
+	public List<Category> populateCategories() {
+		return Arrays.asList(Category.values());
+	}
+
+	/**
+	 * 在庫センターの選択肢
+	 * 
+	 * @return
+	 */
+	@ModelAttribute(ModelAttributeContents.CENTERS)
+	public List<CenterInfo> populateCenters() {
+		return stockService.getCenters();
+	}
+
 	/**
 	 * 初期表示
 	 * 
+	 * @param model
+	 * @param form ページングカーソルのみ
 	 * @return String(path)
 	 */
 	@GetMapping(UrlConsts.STOCK_LIST)
-	public String index(Model model) {
+	public String index(Model model, StockListForm form) {
+		logStart(LogMessage.HTTP_GET);
+
+		// 在庫一覧画面に表示するデータを1ページ分取得
+		StockListForm cursor = new StockListForm();
+		cursor.setLastQuantity(form.getLastQuantity());
+		cursor.setLastStockId(form.getLastStockId());
+		cursor.setPageSize(form.getPageSize());
+		setStockPage(model, stockService.getStockData(cursor));
+		setCategoryTotals(model, null);
+		setLowStockAlerts(model, null);
+
+		logEnd(LogMessage.HTTP_GET);
+
+		return UrlConsts.STOCK_LIST_INDEX;
+	}
+
+	/**
+	 * 検索結果表示
+	 * 
+	 * @param model
+	 * @param form
+	 * @param bindingResult
+	 * @return String(path)
+	 */
+	@GetMapping(UrlConsts.STOCK_LIST_SEARCH)
+	public String search(Model model, @Valid StockListForm form, BindingResult bindingResult) {
+		logStart(LogMessage.HTTP_GET);
+
+		// 入力値のバリデーションチェック
+		if (bindingResult.hasErrors()) {
+			handleValidationError(model, bindingResult, form);
+			return UrlConsts.STOCK_LIST_INDEX;
+		}
+
+		// 検索条件に基づいて在庫情報を1ページ分取得
+		setStockPage(model, stockService.getStockData(form));
+		setCategoryTotals(model, form.getCenterId());
+		setLowStockAlerts(model, form.getCategory() == null || form.getCategory().isEmpty()
+				? null
+				: Category.valueOf(form.getCategory()));
+
+		logEnd(LogMessage.HTTP_GET);
+
 		return UrlConsts.STOCK_LIST_INDEX;
 	}
+
+	/**
+	 * 在庫数調整
+	 * ※在庫が不足する場合は InsufficientStockException により元の画面へ戻る
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param delta 増減する数量
+	 * @param redirectAttributes
+	 * @return 初期表示へのリダイレクト
+	 */
+	@PostMapping(UrlConsts.STOCK_LIST_ADJUST)
+	public String adjust(@RequestParam int centerId, @RequestParam int partId, @RequestParam int delta,
+			RedirectAttributes redirectAttributes) {
+		logStart(LogMessage.HTTP_POST);
+
+		stockReservationService.adjust(centerId, partId, delta);
+
+		redirectAttributes.addFlashAttribute(ModelAttributeContents.SUCCESS_MSG,
+				MessageManager.getMessage(messageSource, SuccessMessage.STOCK_ADJUST_SUCCESS_MESSAGE));
+
+		logEnd(LogMessage.HTTP_POST);
+
+		return "redirect:" + UrlConsts.STOCK_LIST;
+	}
+
+	/**
+	 * 1ページ分の在庫情報と次ページのカーソルをモデルにセット
+	 * 
+	 * @param model
+	 * @param stockPage
+	 */
+	private void setStockPage(Model model, KeysetPage<StockInfo> stockPage) {
+		model.addAttribute(ModelAttributeContents.STOCK_LIST, stockPage.getContent());
+		model.addAttribute(ModelAttributeContents.PAGE_SIZE, stockPage.getPageSize());
+		if (stockPage.isHasNext()) {
+			StockInfo last = stockPage.getLast();
+			model.addAttribute(ModelAttributeContents.NEXT_QUANTITY, last.getQuantity());
+			model.addAttribute(ModelAttributeContents.NEXT_STOCK_ID, last.getStockId());
+		}
+	}
+
+	/**
+	 * 分類ごとの在庫数の合計をモデルにセット
+	 * ※DBは参照せず、在庫数集計から取得する
+	 *   モデルの値は同じリクエストスレッドのテンプレート描画でのみ参照されるため、スレッドごとの配列を再利用する
+	 * 
+	 * @param model
+	 * @param centerId 在庫センターID（nullの場合は全センターの合計）
+	 */
+	private void setCategoryTotals(Model model, Integer centerId) {
+		long[] categoryTotals = CATEGORY_TOTALS_BUFFER.get();
+		stockAggregateService.copyCategoryTotals(centerId, categoryTotals);
+		model.addAttribute(ModelAttributeContents.CATEGORY_TOTALS, categoryTotals);
+	}
+
+	/**
+	 * 在庫不足の一覧（不足の大きい順）をモデルにセット
+	 * 
+	 * @param model
+	 * @param category 分類（nullの場合は条件なし）
+	 */
+	private void setLowStockAlerts(Model model, Category category) {
+		model.addAttribute(ModelAttributeContents.LOW_STOCK_ALERTS,
+				lowStockDetector.getAlerts(category, null, ModelAttributeContents.LOW_STOCK_ALERT_DISPLAY_COUNT));
+	}
+
+	/**
+	 * バリデーションエラー処理
+	 * 
+	 * @param model
+	 * @param bindingResult
+	 * @param form
+	 */
+	private void handleValidationError(Model model, BindingResult bindingResult, StockListForm form) {
+		// エラーメッセージを改行で区切って連結
+		StringBuilder errorMsg = new StringBuilder();
+		bindingResult.getAllErrors().forEach(error -> errorMsg.append(error.getDefaultMessage()).append("\r\n"));
+
+		// エラーメッセージをモデルに追加
+		model.addAttribute(LogMessage.FLASH_ATTRIBUTE_ERROR, errorMsg.toString());
+
+		logValidationError(LogMessage.HTTP_GET, form + " " + errorMsg.toString());
+	}
 }
@@ -0,0 +1,22 @@
+package com.digitalojt.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 管理者IDと管理者名のDTO
+ * ※JPQLのコンストラクタ式で管理者名の解決に必要な列のみを取得する（パスワード等は読み込まない）
+ * 
+ * @author dotlife
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class AdminName {
+
+	/** 管理者ID */
+	private final String adminId;
+
+	/** 管理者名 */
+	private final String adminName;
+}
@@ -0,0 +1,54 @@
+package com.digitalojt.web.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * CSV取込結果
+ * 
+ * @author dotlife
+ *
+ */
+@Data
+public class CsvImportResult {
+
+	/**
+	 * 画面に表示するエラーの上限件数
+	 */
+	public static final int MAX_REPORTED_ERRORS = 100;
+
+	/**
+	 * 処理した件数（ヘッダー行を除く）
+	 */
+	private int totalCount;
+
+	/**
+	 * 登録した件数
+	 */
+	private int importedCount;
+
+	/**
+	 * エラー件数
+	 */
+	private int errorCount;
+
+	/**
+	 * 行ごとのエラーメッセージ（先頭から上限件数まで）
+	 */
+	private List<String> errors = new ArrayList<>();
+
+	/**
+	 * エラーを追加
+	 * 
+	 * @param message エラーメッセージ
+	 * @param rows 対象の行数
+	 */
+	public void addError(String message, int rows) {
+		errorCount += rows;
+		if (errors.size() < MAX_REPORTED_ERRORS) {
+			errors.add(message);
+		}
+	}
+}
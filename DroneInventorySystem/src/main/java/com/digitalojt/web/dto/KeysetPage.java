@@ -0,0 +1,100 @@
+package com.digitalojt.web.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * キーセットページングの1ページ分の検索結果
+ * 
+ * @author dotlife
+ *
+ * @param <T> 明細の型
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+	/**
+	 * ページ内の明細
+	 */
+	private List<T> content;
+
+	/**
+	 * 次ページの有無
+	 */
+	private boolean hasNext;
+
+	/**
+	 * 前ページの有無
+	 */
+	private boolean hasPrevious;
+
+	/**
+	 * 1ページあたりの件数
+	 */
+	private int pageSize;
+
+	/**
+	 * 取得件数がページサイズを超えたかで次ページの有無を判定し、1ページ分に切り詰める
+	 * ※リポジトリーからは pageSize + 1 件を取得しておくこと
+	 * 
+	 * @param rows pageSize + 1 件を上限に取得した明細
+	 * @param pageSize 1ページあたりの件数
+	 * @return 1ページ分の検索結果
+	 */
+	public static <T> KeysetPage<T> of(List<T> rows, int pageSize) {
+		return forward(rows, pageSize, false);
+	}
+
+	/**
+	 * カーソルより後ろ方向に取得した明細から1ページ分の検索結果を生成
+	 * ※リポジトリーからは pageSize + 1 件を取得しておくこと
+	 * 
+	 * @param rows pageSize + 1 件を上限に取得した明細（表示順）
+	 * @param pageSize 1ページあたりの件数
+	 * @param hasPrevious 前ページの有無（カーソル指定ありの場合はtrue）
+	 * @return 1ページ分の検索結果
+	 */
+	public static <T> KeysetPage<T> forward(List<T> rows, int pageSize, boolean hasPrevious) {
+		boolean hasNext = rows.size() > pageSize;
+		List<T> content = hasNext ? rows.subList(0, pageSize) : rows;
+		return new KeysetPage<>(content, hasNext, hasPrevious && !content.isEmpty(), pageSize);
+	}
+
+	/**
+	 * カーソルより前方向に取得した明細から1ページ分の検索結果を生成
+	 * ※リポジトリーからは表示順の逆順で pageSize + 1 件を取得しておくこと
+	 * 
+	 * @param reversedRows pageSize + 1 件を上限に取得した明細（表示順の逆順）
+	 * @param pageSize 1ページあたりの件数
+	 * @return 1ページ分の検索結果（表示順）
+	 */
+	public static <T> KeysetPage<T> backward(List<T> reversedRows, int pageSize) {
+		boolean hasPrevious = reversedRows.size() > pageSize;
+		List<T> content = new ArrayList<>(hasPrevious ? reversedRows.subList(0, pageSize) : reversedRows);
+		Collections.reverse(content);
+		return new KeysetPage<>(content, true, hasPrevious, pageSize);
+	}
+
+	/**
+	 * ページ内の先頭明細を取得（前ページのカーソル算出用）
+	 * 
+	 * @return 先頭明細（明細が無い場合はnull）
+	 */
+	public T getFirst() {
+		return content.isEmpty() ? null : content.get(0);
+	}
+
+	/**
+	 * ページ内の最終明細を取得（次ページのカーソル算出用）
+	 * 
+	 * @return 最終明細（明細が無い場合はnull）
+	 */
+	public T getLast() {
+		return content.isEmpty() ? null : content.get(content.size() - 1);
+	}
+}
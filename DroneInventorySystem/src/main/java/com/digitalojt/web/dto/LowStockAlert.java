@@ -0,0 +1,76 @@
+package com.digitalojt.web.dto;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.Region;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 在庫不足（発注点付近の在庫）1件
+ *
+ * @author dotlife
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class LowStockAlert {
+
+	/** 在庫ID */
+	private final int stockId;
+
+	/** 在庫センターID */
+	private final int centerId;
+
+	/** センター名 */
+	private final String centerName;
+
+	/** 都道府県コード */
+	private final Integer prefectureCode;
+
+	/** 部品ID */
+	private final int partId;
+
+	/** 部品コード */
+	private final String partCode;
+
+	/** 部品名 */
+	private final String partName;
+
+	/** 分類 */
+	private final Category category;
+
+	/** 在庫数 */
+	private final int quantity;
+
+	/** 発注点 */
+	private final int reorderPoint;
+
+	/**
+	 * 発注点との差（負数は在庫不足）
+	 * 
+	 * @return 在庫数 - 発注点
+	 */
+	public long getMargin() {
+		return (long) quantity - reorderPoint;
+	}
+
+	/**
+	 * 在庫不足かどうか
+	 * 
+	 * @return 在庫数が発注点を下回る場合はtrue
+	 */
+	public boolean isBelowReorderPoint() {
+		return quantity < reorderPoint;
+	}
+
+	/**
+	 * 都道府県名
+	 * 
+	 * @return 都道府県名（不明な場合はnull）
+	 */
+	public String getRegionName() {
+		Region region = Region.fromCode(prefectureCode);
+		return region == null ? null : region.getName();
+	}
+}
@@ -0,0 +1,27 @@
+package com.digitalojt.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 操作履歴の日次集計テーブルの集計結果1行
+ *
+ * @author dotlife
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class OperationCount {
+
+	/** 集計キー（日付・テーブルキーなど） */
+	private final String key;
+
+	/** 操作の種類 */
+	private final int operateType;
+
+	/** 操作ステータス */
+	private final int status;
+
+	/** 件数 */
+	private final long count;
+}
@@ -0,0 +1,48 @@
+package com.digitalojt.web.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 操作履歴のCSV出力用DTO
+ * ※JPQLのコンストラクタ式でCSVの列のみを取得する（管理者情報はIDと名前のみ）
+ * 
+ * @author dotlife
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class OperationLogExportRow {
+
+	/** ログID */
+	private final int logId;
+
+	/** 管理者ID */
+	private final String adminId;
+
+	/** 管理者名 */
+	private final String adminName;
+
+	/** テーブルキー */
+	private final String tableKey;
+
+	/** 操作の種類 */
+	private final Integer operateType;
+
+	/** 操作のステータス */
+	private final Integer status;
+
+	/** 操作内容詳細 */
+	private final String operationDetails;
+
+	/** 論理削除フラグ */
+	private final Integer deleteFlag;
+
+	/** 作成日付 */
+	private final LocalDateTime createDate;
+
+	/** 更新日付 */
+	private final LocalDateTime updateDate;
+}
@@ -0,0 +1,90 @@
+package com.digitalojt.web.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.digitalojt.web.consts.OperationStatus;
+import com.digitalojt.web.consts.OperationType;
+import com.digitalojt.web.consts.ScreenTitle;
+
+import lombok.Getter;
+
+/**
+ * 操作履歴画面の表示用DTO
+ * ※JPQLのコンストラクタ式で画面表示に必要な列のみを取得する（読み取り専用）
+ * 
+ * @author dotlife
+ *
+ */
+@Getter
+public class OperationLogView {
+
+	/** 操作時刻の表示形式 */
+	private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+
+	/**
+	 * ログID
+	 */
+	private final int logId;
+
+	/**
+	 * 管理者名
+	 */
+	private final String adminName;
+
+	/**
+	 * 画面名（テーブルキーから変換）
+	 */
+	private final String screenName;
+
+	/**
+	 * 操作の種類（表示文言）
+	 */
+	private final String operateTypeStr;
+
+	/**
+	 * 操作内容詳細
+	 */
+	private final String operationDetails;
+
+	/**
+	 * 操作のステータス（表示文言）
+	 */
+	private final String statusStr;
+
+	/**
+	 * 作成日付
+	 */
+	private final LocalDateTime createDate;
+
+	/**
+	 * コンストラクタ（JPQLのコンストラクタ式から呼び出す）
+	 * 
+	 * @param logId ログID
+	 * @param adminName 管理者名
+	 * @param tableKey テーブルキー
+	 * @param operateType 操作の種類
+	 * @param status 操作のステータス
+	 * @param operationDetails 操作内容詳細
+	 * @param createDate 作成日付
+	 */
+	public OperationLogView(int logId, String adminName, String tableKey, Integer operateType, Integer status,
+			String operationDetails, LocalDateTime createDate) {
+		this.logId = logId;
+		this.adminName = adminName;
+		this.screenName = ScreenTitle.fromTableKey(tableKey);
+		this.operateTypeStr = OperationType.fromTypeCode(operateType);
+		this.operationDetails = operationDetails;
+		this.statusStr = OperationStatus.fromStatusCode(status);
+		this.createDate = createDate;
+	}
+
+	/**
+	 * 画面表示用に整形した操作時刻
+	 * 
+	 * @return 操作時刻（yyyy/MM/dd HH:mm:ss）
+	 */
+	public String getFormattedCreateDate() {
+		return createDate.format(DATE_TIME_FORMAT);
+	}
+}
@@ -0,0 +1,53 @@
+package com.digitalojt.web.dto;
+
+import com.digitalojt.web.consts.OperationStatus;
+import com.digitalojt.web.consts.OperationType;
+
+import lombok.Data;
+
+/**
+ * ダッシュボード表示用の操作件数（集計キー1件分）
+ *
+ * @author dotlife
+ *
+ */
+@Data
+public class OperationSummary {
+
+	/** 表示名（日付・画面名など） */
+	private final String label;
+
+	/** 登録件数 */
+	private long createCount;
+
+	/** 更新件数 */
+	private long updateCount;
+
+	/** 削除件数 */
+	private long deleteCount;
+
+	/** 失敗件数（操作の種類を問わない） */
+	private long failureCount;
+
+	/** 合計件数 */
+	private long totalCount;
+
+	/**
+	 * 集計結果1行分を加算
+	 *
+	 * @param count 集計結果
+	 */
+	public void add(OperationCount count) {
+		if (count.getOperateType() == OperationType.CREATE.getTypeCode()) {
+			createCount += count.getCount();
+		} else if (count.getOperateType() == OperationType.UPDATE.getTypeCode()) {
+			updateCount += count.getCount();
+		} else if (count.getOperateType() == OperationType.DELETE.getTypeCode()) {
+			deleteCount += count.getCount();
+		}
+		if (count.getStatus() == OperationStatus.FAILURE.getStatusCode()) {
+			failureCount += count.getCount();
+		}
+		totalCount += count.getCount();
+	}
+}
@@ -0,0 +1,50 @@
+package com.digitalojt.web.dto;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.entity.PartInfo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 部品情報1件（部品照会API用）
+ *
+ * @author dotlife
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class PartView {
+
+	/** 部品ID */
+	private final int partId;
+
+	/** 部品コード */
+	private final String partCode;
+
+	/** 部品名 */
+	private final String partName;
+
+	/** 分類 */
+	private final Category category;
+
+	/**
+	 * 分類の表示文言
+	 * 
+	 * @return 分類名
+	 */
+	public String getCategoryName() {
+		return category.getName();
+	}
+
+	/**
+	 * 部品情報から生成
+	 * 
+	 * @param partInfo 部品情報
+	 * @return 部品情報1件
+	 */
+	public static PartView from(PartInfo partInfo) {
+		return new PartView(partInfo.getPartId(), partInfo.getPartCode(), partInfo.getPartName(),
+				partInfo.getCategory());
+	}
+}
@@ -0,0 +1,29 @@
+package com.digitalojt.web.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 在庫推移の1集計期間分（在庫センター・分類ごと）
+ *
+ * @author dotlife
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class StockHistoryPoint {
+
+	/** 集計期間の開始日 */
+	private final LocalDate date;
+
+	/** 集計期間の最終日の在庫数 */
+	private final long quantity;
+
+	/** 集計期間中の最小在庫数 */
+	private final long minQuantity;
+
+	/** 集計期間中の最大在庫数 */
+	private final long maxQuantity;
+}
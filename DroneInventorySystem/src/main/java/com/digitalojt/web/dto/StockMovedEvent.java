@@ -0,0 +1,34 @@
+package com.digitalojt.web.dto;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.StockMovementType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 在庫移動イベント
+ * ※在庫移動を記録したトランザクション内で発行し、購読側はコミット後に受け取る
+ *
+ * @author dotlife
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class StockMovedEvent {
+
+	/** 在庫センターID */
+	private final int centerId;
+
+	/** 部品ID */
+	private final int partId;
+
+	/** 分類 */
+	private final Category category;
+
+	/** 移動種別 */
+	private final StockMovementType type;
+
+	/** 増減した数量（出庫は負数） */
+	private final int quantity;
+}
@@ -0,0 +1,29 @@
+package com.digitalojt.web.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 基準日時時点の在庫数（在庫センター・部品ごと）
+ *
+ * @author dotlife
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class StockQuantityView {
+
+	/** 在庫センターID */
+	private final int centerId;
+
+	/** 部品ID */
+	private final int partId;
+
+	/** 基準日時 */
+	private final LocalDateTime asOf;
+
+	/** 基準日時時点の在庫数 */
+	private final long quantity;
+}
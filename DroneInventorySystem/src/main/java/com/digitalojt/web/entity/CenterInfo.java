@@ -4,11 +4,17 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
+import com.digitalojt.web.consts.Region;
+
 import lombok.Data;
 
 /**
@@ -19,7 +25,12 @@ import lombok.Data;
  */
 @Data
 @Entity
-@Table(name = "center_info")
+@EntityListeners(CenterInfoChangeListener.class)
+@Table(name = "center_info", indexes = {
+		@Index(name = "idx_center_info_prefecture_status", columnList = "prefecture_code, operational_status"),
+		@Index(name = "idx_center_info_status_capacity", columnList = "operational_status, max_storage_capacity"),
+		@Index(name = "idx_center_info_status_utilization", columnList = "operational_status, utilization_rate, center_id")
+})
 public class CenterInfo {
 
 	/**
@@ -47,6 +58,12 @@ public class CenterInfo {
 	 */
     @Column(name = "address", length = 255, nullable = false)
 	private String address;
+
+	/**
+	 * 都道府県コード（JIS X 0401、住所から導出）
+	 */
+    @Column(name = "prefecture_code", columnDefinition = "TINYINT")
+	private Integer prefectureCode;
 	
 	/**
 	 * 電話番号
@@ -70,13 +87,19 @@ public class CenterInfo {
 	 * 最大容量
 	 */
     @Column(name = "max_storage_capacity", nullable = false)
-	private String  maxStorageCapacity;
+	private Integer maxStorageCapacity;
 	
 	/**
 	 * 現在容量
 	 */
     @Column(name = "current_storage_capacity", nullable = false)
-	private String currentStorageCapacity;
+	private Integer currentStorageCapacity;
+
+	/**
+	 * 使用率（千分率、現在容量 / 最大容量 から導出）
+	 */
+    @Column(name = "utilization_rate", nullable = false)
+	private int utilizationRate;
     
     /**
      * 備考
@@ -101,4 +124,29 @@ public class CenterInfo {
      */
     @Column(name = "update_date", nullable = false)
     private LocalDateTime updateDate;
+
+    /**
+     * 登録・更新時に検索用の導出項目（都道府県コード・使用率）を設定
+     */
+    @PrePersist
+    @PreUpdate
+    public void deriveSearchColumns() {
+        Region region = Region.fromAddress(address);
+        prefectureCode = region != null ? region.getCode() : null;
+        utilizationRate = calcUtilizationRate(currentStorageCapacity, maxStorageCapacity);
+    }
+
+    /**
+     * 使用率（千分率）を算出
+     * 
+     * @param current 現在容量
+     * @param max 最大容量
+     * @return 使用率（最大容量が未設定・0以下の場合は0）
+     */
+    public static int calcUtilizationRate(Integer current, Integer max) {
+        if (current == null || max == null || max <= 0) {
+            return 0;
+        }
+        return (int) (current * 1000L / max);
+    }
 }
@@ -0,0 +1,78 @@
+package com.digitalojt.web.entity;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.digitalojt.web.service.CenterInfoSearchCache;
+import com.digitalojt.web.service.CenterNameIndex;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * センター情報の変更をセンター名インデックス・検索キャッシュへ反映するEntityリスナー
+ * ※トランザクション中の場合はコミット後に反映する
+ *
+ * @author dotlife
+ *
+ */
+@Component
+@RequiredArgsConstructor
+public class CenterInfoChangeListener {
+
+	/** センター名インデックス */
+	private final CenterNameIndex centerNameIndex;
+
+	/** 在庫センター情報 検索キャッシュ */
+	private final CenterInfoSearchCache centerInfoSearchCache;
+
+	/**
+	 * 登録・更新の反映
+	 * 
+	 * @param centerInfo
+	 */
+	@PostPersist
+	@PostUpdate
+	public void onSave(CenterInfo centerInfo) {
+		afterCommit(() -> {
+			centerNameIndex.put(centerInfo);
+			centerInfoSearchCache.invalidateAll();
+		});
+	}
+
+	/**
+	 * 削除の反映
+	 * 
+	 * @param centerInfo
+	 */
+	@PostRemove
+	public void onRemove(CenterInfo centerInfo) {
+		int centerId = centerInfo.getCenterId();
+		afterCommit(() -> {
+			centerNameIndex.remove(centerId);
+			centerInfoSearchCache.invalidateAll();
+		});
+	}
+
+	/**
+	 * コミット後に処理を実行（トランザクション外の場合は即時実行）
+	 * 
+	 * @param action
+	 */
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
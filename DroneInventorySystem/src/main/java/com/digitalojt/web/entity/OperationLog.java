@@ -1,17 +1,16 @@
 package com.digitalojt.web.entity;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
-import jakarta.persistence.Transient;
 
 import lombok.Data;
 
@@ -23,7 +22,12 @@ import lombok.Data;
  */
 @Data
 @Entity
-@Table(name = "operation_log")
+@Table(name = "operation_log", indexes = {
+		@Index(name = "idx_operation_log_date", columnList = "create_date, log_id"),
+		@Index(name = "idx_operation_log_type_status_date", columnList = "operate_type, status, create_date, log_id"),
+		@Index(name = "idx_operation_log_status_date", columnList = "status, create_date, log_id"),
+		@Index(name = "idx_operation_log_admin_date", columnList = "admin_id, create_date, log_id")
+})
 public class OperationLog {
 
 	/**
@@ -81,23 +85,4 @@ public class OperationLog {
      */
     @Column(name = "update_date", nullable = false)
     private LocalDateTime updateDate;
-    
-    /**
-     * 画面表示用にデータ加工された操作種類
-     */
-    @Transient
-    private String operateTypeStr;
-
-    /**
-     * 画面表示用にデータ加工された操作ステータス
-     */
-    @Transient
-    private String statusStr;
-    
-    /**
-     * 初期表示用の操作時刻の表示を整形
-     */
-    public String getFormattedCreateDate() {
-        return createDate.format(DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss"));
-    }
 }
@@ -0,0 +1,73 @@
+package com.digitalojt.web.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import com.digitalojt.web.consts.Category;
+
+import lombok.Data;
+
+/**
+ * 部品情報Entity
+ * 
+ * @author dotlife
+ *
+ */
+@Data
+@Entity
+@Table(name = "part_info")
+public class PartInfo {
+
+	/**
+	 * 部品ID
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "part_id", nullable = false)
+	private int partId;
+
+	/**
+	 * 部品コード
+	 */
+	@Column(name = "part_code", length = 30, nullable = false, unique = true)
+	private String partCode;
+
+	/**
+	 * 部品名
+	 */
+	@Column(name = "part_name", length = 100, nullable = false)
+	private String partName;
+
+	/**
+	 * 分類
+	 */
+	@Enumerated(EnumType.STRING)
+	@Column(name = "category", length = 30, nullable = false)
+	private Category category;
+
+	/**
+	 * 論理削除フラグ (0:未削除, 1:削除済)
+	 */
+	@Column(name = "delete_flag", nullable = false)
+	private Integer deleteFlag;
+
+	/**
+	 * 作成日付
+	 */
+	@Column(name = "create_date", nullable = false)
+	private LocalDateTime createDate;
+
+	/**
+	 * 更新日付
+	 */
+	@Column(name = "update_date", nullable = false)
+	private LocalDateTime updateDate;
+}
@@ -0,0 +1,119 @@
+package com.digitalojt.web.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import com.digitalojt.web.consts.Category;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * 在庫情報Entity
+ * ※在庫センター・部品ごとに1行
+ *   分類は一覧検索のインデックスに含めるため、部品情報の分類を複製して保持する
+ * 
+ * @author dotlife
+ *
+ */
+@Data
+@Entity
+@Table(name = "stock_info", uniqueConstraints = {
+		@UniqueConstraint(name = "uk_stock_info_center_part", columnNames = { "center_id", "part_id" })
+}, indexes = {
+		@Index(name = "idx_stock_info_quantity", columnList = "quantity, stock_id"),
+		@Index(name = "idx_stock_info_category_quantity", columnList = "category, quantity, stock_id"),
+		@Index(name = "idx_stock_info_center_quantity", columnList = "center_id, quantity, stock_id"),
+		@Index(name = "idx_stock_info_center_category_quantity", columnList = "center_id, category, quantity, stock_id"),
+		@Index(name = "idx_stock_info_part", columnList = "part_id")
+})
+public class StockInfo {
+
+	/**
+	 * 在庫ID
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "stock_id", nullable = false)
+	private int stockId;
+
+	/**
+	 * 在庫センター
+	 */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "center_id", nullable = false)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private CenterInfo centerInfo;
+
+	/**
+	 * 部品
+	 */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "part_id", nullable = false)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private PartInfo partInfo;
+
+	/**
+	 * 分類（部品情報の分類の複製）
+	 */
+	@Enumerated(EnumType.STRING)
+	@Column(name = "category", length = 30, nullable = false)
+	private Category category;
+
+	/**
+	 * 在庫数
+	 */
+	@Column(name = "quantity", nullable = false)
+	private int quantity;
+
+	/**
+	 * 発注点（在庫数がこれを下回ると在庫不足、0は検知対象外）
+	 */
+	@Column(name = "reorder_point", nullable = false)
+	private int reorderPoint;
+
+	/**
+	 * 論理削除フラグ (0:未削除, 1:削除済)
+	 */
+	@Column(name = "delete_flag", nullable = false)
+	private Integer deleteFlag;
+
+	/**
+	 * 作成日付
+	 */
+	@Column(name = "create_date", nullable = false)
+	private LocalDateTime createDate;
+
+	/**
+	 * 更新日付
+	 */
+	@Column(name = "update_date", nullable = false)
+	private LocalDateTime updateDate;
+
+	/**
+	 * 登録時に部品情報の分類を複製
+	 */
+	@PrePersist
+	public void copyCategory() {
+		if (partInfo != null) {
+			category = partInfo.getCategory();
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.digitalojt.web.exception;
+
+import java.time.LocalDateTime;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import com.digitalojt.web.consts.ErrorMessage;
+import com.digitalojt.web.controller.StockApiController;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * API（JSON）用の例外ハンドラー
+ * ※画面用の GlobalExceptionHandler（リダイレクト）より先に適用し、ErrorResponse をJSONで返す
+ *
+ * @author dotlife
+ *
+ */
+@RestControllerAdvice(assignableTypes = StockApiController.class)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ApiExceptionHandler {
+
+	/**
+	 * 入力値不正のハンドリング
+	 * 
+	 * @param ex 入力値不正・リクエストの変換エラーの例外
+	 * @return 400 Bad Request のエラーレスポンス
+	 */
+	@ExceptionHandler({ InvalidInputException.class, MethodArgumentNotValidException.class,
+			HttpMessageNotReadableException.class, MissingServletRequestParameterException.class,
+			MethodArgumentTypeMismatchException.class })
+	public ResponseEntity<ErrorResponse> handleInvalidInput(Exception ex) {
+		String message = ex instanceof InvalidInputException
+				? ex.getMessage()
+				: ErrorMessageHelper.getMessage(ErrorMessage.UNEXPECTED_INPUT_ERROR_MESSAGE);
+		return response(HttpStatus.BAD_REQUEST, message);
+	}
+
+	/**
+	 * 在庫不足例外のハンドリング
+	 * 
+	 * @param ex 在庫不足例外
+	 * @return 409 Conflict のエラーレスポンス
+	 */
+	@ExceptionHandler(InsufficientStockException.class)
+	public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockException ex) {
+		return response(HttpStatus.CONFLICT, ex.getMessage());
+	}
+
+	/**
+	 * 部品未登録例外のハンドリング
+	 * 
+	 * @param ex 部品未登録例外
+	 * @return 404 Not Found のエラーレスポンス
+	 */
+	@ExceptionHandler(PartNotFoundException.class)
+	public ResponseEntity<ErrorResponse> handlePartNotFound(PartNotFoundException ex) {
+		return response(HttpStatus.NOT_FOUND, ex.getMessage());
+	}
+
+	/**
+	 * DBエラーのハンドリング
+	 * 
+	 * @param ex DBエラーの例外
+	 * @return 500 Internal Server Error のエラーレスポンス
+	 */
+	@ExceptionHandler(DataAccessException.class)
+	public ResponseEntity<ErrorResponse> handleDatabaseException(DataAccessException ex) {
+		log.error("API: DBエラー", ex);
+		return response(HttpStatus.INTERNAL_SERVER_ERROR,
+				ErrorMessageHelper.getMessage(ErrorMessage.UNEXPECTED_ERROR_MESSAGE));
+	}
+
+	/**
+	 * エラーレスポンスを生成
+	 * 
+	 * @param status HTTPステータス
+	 * @param message エラーメッセージ
+	 * @return エラーレスポンス
+	 */
+	private ResponseEntity<ErrorResponse> response(HttpStatus status, String message) {
+		return ResponseEntity.status(status).body(new ErrorResponse(message, status.value(), LocalDateTime.now()));
+	}
+}
@@ -27,6 +27,15 @@ public class GlobalExceptionHandler {
 		return handleException(ex, redirectAttributes, request);
 	}
 
+	/**
+	 * 在庫不足例外のハンドリング
+	 */
+	@ExceptionHandler(InsufficientStockException.class)
+	public String handleInsufficientStockException(InsufficientStockException ex, RedirectAttributes redirectAttributes,
+			HttpServletRequest request) {
+		return handleException(ex, redirectAttributes, request);
+	}
+
 	/**
 	 * 共通のエラーハンドリング
 	 */
@@ -0,0 +1,14 @@
+package com.digitalojt.web.exception;
+
+/**
+ * 在庫不足例外
+ * 
+ * @author dotlife
+ *
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String messageCode) {
+        super(ErrorMessageHelper.getMessage(messageCode));
+    }
+}
@@ -0,0 +1,14 @@
+package com.digitalojt.web.exception;
+
+/**
+ * 部品未登録例外
+ * 
+ * @author dotlife
+ *
+ */
+public class PartNotFoundException extends RuntimeException {
+
+    public PartNotFoundException(String messageCode) {
+        super(ErrorMessageHelper.getMessage(messageCode));
+    }
+}
@@ -34,6 +34,26 @@ public class CenterInfoForm {
 	 */
 	private Integer storageCapacityTo;
 
+	/**
+	 * 並び順（空:センターID順, utilization:使用率の降順）
+	 */
+	private String sortKey;
+
+	/**
+	 * 前ページ最終行の使用率（使用率順のページングカーソル）
+	 */
+	private Integer lastUtilizationRate;
+
+	/**
+	 * 前ページ最終行のセンターID（ページングカーソル）
+	 */
+	private Integer lastCenterId;
+
+	/**
+	 * 1ページあたりの表示件数
+	 */
+	private Integer pageSize;
+
 	/**
 	 * 容量(From)のデフォルト値を設定
 	 * @return
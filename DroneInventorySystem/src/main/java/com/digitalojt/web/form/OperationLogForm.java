@@ -2,6 +2,8 @@ package com.digitalojt.web.form;
 
 import java.time.LocalDateTime;
 
+import org.springframework.format.annotation.DateTimeFormat;
+
 import com.digitalojt.web.validation.OperationLogFormValidator;
 
 import lombok.Data;
@@ -41,5 +43,30 @@ public class OperationLogForm {
      */
     private LocalDateTime updateDate;
 
+    /**
+     * 件数を表示するかどうか
+     */
+    private boolean withCount;
+
+    /**
+     * カーソル行の操作時刻（ページング）
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime cursorDate;
+
+    /**
+     * カーソル行のログID（ページング）
+     */
+    private Integer cursorLogId;
+
+    /**
+     * ページ送りの方向（prev:前ページ, next:次ページ）
+     */
+    private String direction;
+
+    /**
+     * 1ページあたりの表示件数
+     */
+    private Integer pageSize;
 
 }
@@ -0,0 +1,51 @@
+package com.digitalojt.web.form;
+
+import com.digitalojt.web.validation.StockListFormValidator;
+
+import lombok.Data;
+
+/**
+ * 在庫一覧画面のフォームクラス
+ * 
+ * @author dotlife
+ *
+ */
+@Data
+@StockListFormValidator
+public class StockListForm {
+
+	/**
+	 * 分類（Categoryの列挙名）
+	 */
+	private String category;
+
+	/**
+	 * 在庫センターID
+	 */
+	private Integer centerId;
+
+	/**
+	 * 在庫数(From)
+	 */
+	private Integer quantityFrom;
+
+	/**
+	 * 在庫数(To)
+	 */
+	private Integer quantityTo;
+
+	/**
+	 * 前ページ最終行の在庫数（ページングカーソル）
+	 */
+	private Integer lastQuantity;
+
+	/**
+	 * 前ページ最終行の在庫ID（ページングカーソル）
+	 */
+	private Integer lastStockId;
+
+	/**
+	 * 1ページあたりの表示件数
+	 */
+	private Integer pageSize;
+}
@@ -0,0 +1,62 @@
+package com.digitalojt.web.form;
+
+import java.util.List;
+
+import com.digitalojt.web.consts.ModelAttributeContents;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * 在庫移管APIのリクエストクラス
+ * ※複数明細を1トランザクションで移管する
+ * 
+ * @author dotlife
+ *
+ */
+@Data
+public class StockTransferForm {
+
+	/**
+	 * 移管明細
+	 */
+	@NotEmpty
+	@Size(max = ModelAttributeContents.MAX_STOCK_TRANSFER_LINES)
+	private List<@Valid @NotNull Line> lines;
+
+	/**
+	 * 移管明細
+	 */
+	@Data
+	public static class Line {
+
+		/**
+		 * 移管元の在庫センターID
+		 */
+		@NotNull
+		private Integer fromCenterId;
+
+		/**
+		 * 移管先の在庫センターID
+		 */
+		@NotNull
+		private Integer toCenterId;
+
+		/**
+		 * 部品ID
+		 */
+		@NotNull
+		private Integer partId;
+
+		/**
+		 * 数量
+		 */
+		@NotNull
+		@Min(1)
+		private Integer quantity;
+	}
+}
@@ -1,8 +1,14 @@
 package com.digitalojt.web.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.digitalojt.web.dto.AdminName;
 import com.digitalojt.web.entity.AdminInfo;
 
 /**
@@ -14,4 +20,24 @@ import com.digitalojt.web.entity.AdminInfo;
 @Repository
 public interface AdminInfoRepository extends JpaRepository<AdminInfo, String> {
 
+	/**
+	 * 管理者名の部分一致で管理者IDを取得
+	 * ※管理者情報テーブルは小さいため、操作履歴を検索する前にここで管理者IDへ変換する
+	 * 
+	 * @param adminName 管理者名（部分一致）
+	 * @return 管理者IDのリスト
+	 */
+	@Query("SELECT a.adminId FROM AdminInfo a WHERE a.adminName LIKE %:adminName%")
+	List<String> findAdminIdsByAdminNameContaining(@Param("adminName") String adminName);
+
+	/**
+	 * 指定した管理者IDの管理者名を取得
+	 * ※管理者IDと管理者名のみを取得する（パスワード等は読み込まない）
+	 * 
+	 * @param adminIds 管理者IDのリスト
+	 * @return 管理者IDと管理者名のリスト（存在しない管理者IDは含まれない）
+	 */
+	@Query("SELECT new com.digitalojt.web.dto.AdminName(a.adminId, a.adminName) FROM AdminInfo a WHERE a.adminId IN :adminIds")
+	List<AdminName> findAdminNamesByAdminIdIn(@Param("adminIds") Collection<String> adminIds);
+
 }
@@ -1,12 +1,22 @@
 package com.digitalojt.web.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.digitalojt.web.entity.CenterInfo;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * センター情報テーブルリポジトリー
  *
@@ -16,17 +26,151 @@ import com.digitalojt.web.entity.CenterInfo;
 public interface CenterInfoRepository extends JpaRepository<CenterInfo, Integer> {
 
 	/**
-	 * 引数に合致する在庫センター情報を取得
+	 * 稼働中の在庫センター情報をセンターIDの昇順でキーセット取得
 	 * 
-	 * @param centerName
-	 * @param region
+	 * @param lastCenterId 前ページ最終行のセンターID（先頭ページは0）
+	 * @param pageable 取得件数
+	 * @return lastCenterIdより後ろの在庫センター情報
+	 */
+	@Query("SELECT s FROM CenterInfo s WHERE " +
+			"(s.centerId > :lastCenterId) AND " +
+			"(s.operationalStatus = 0) AND " +
+			"(s.deleteFlag = 0) " +
+			"ORDER BY s.centerId ASC")
+	List<CenterInfo> findActiveCentersAfter(
+			int lastCenterId,
+			Pageable pageable);
+
+	/**
+	 * 稼働中の在庫センター情報をセンターIDの昇順で全件取得（選択肢の表示用）
+	 * 
+	 * @return 稼働中の在庫センター情報
+	 */
+	@Query("SELECT s FROM CenterInfo s WHERE " +
+			"(s.operationalStatus = 0) AND " +
+			"(s.deleteFlag = 0) " +
+			"ORDER BY s.centerId ASC")
+	List<CenterInfo> findAllActiveCenters();
+
+	/**
+	 * 稼働中の在庫センターの件数を取得
+	 * 
+	 * @param centerIds センターID
+	 * @return centerIdsのうち稼働中かつ未削除の件数
+	 */
+	@Query("SELECT COUNT(s) FROM CenterInfo s WHERE " +
+			"(s.centerId IN :centerIds) AND " +
+			"(s.operationalStatus = 0) AND " +
+			"(s.deleteFlag = 0)")
+	long countActiveCenters(Collection<Integer> centerIds);
+
+	/**
+	 * 引数に合致する在庫センター情報をセンターIDの昇順でキーセット取得
+	 * ※センター名の部分一致はセンター名インデックスで解決し、候補のセンターIDとして受け取る
+	 * 
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @param capacityFrom 最大容量の下限（nullの場合は条件なし）
+	 * @param capacityTo 最大容量の上限（nullの場合は条件なし）
+	 * @param filterByIds センターIDで絞り込むかどうか
+	 * @param centerIds 候補のセンターID（filterByIdsがfalseの場合は無視）
+	 * @param lastCenterId 前ページ最終行のセンターID（先頭ページは0）
+	 * @param pageable 取得件数
 	 * @return paramで検索した結果
 	 */
 	@Query("SELECT s FROM CenterInfo s WHERE " +
-			"(:centerName = '' OR s.centerName LIKE %:centerName%) AND " +
-			"(:region = '' OR s.address LIKE %:region%) AND " +
-			"(s.operationalStatus = 0)")
+			"(:prefectureCode IS NULL OR s.prefectureCode = :prefectureCode) AND " +
+			"(:capacityFrom IS NULL OR s.maxStorageCapacity >= :capacityFrom) AND " +
+			"(:capacityTo IS NULL OR s.maxStorageCapacity <= :capacityTo) AND " +
+			"(:filterByIds = false OR s.centerId IN :centerIds) AND " +
+			"(s.centerId > :lastCenterId) AND " +
+			"(s.operationalStatus = 0) AND " +
+			"(s.deleteFlag = 0) " +
+			"ORDER BY s.centerId ASC")
 	List<CenterInfo> findActiveCenters(
-			String centerName,
-			String region);
+			Integer prefectureCode,
+			Integer capacityFrom,
+			Integer capacityTo,
+			boolean filterByIds,
+			Collection<Integer> centerIds,
+			int lastCenterId,
+			Pageable pageable);
+
+	/**
+	 * 引数に合致する在庫センター情報を使用率の降順でキーセット取得
+	 * ※同じ使用率の中はセンターIDの降順とし、(operational_status, utilization_rate, center_id) の
+	 *   インデックスを逆順に読んで並べ替えを行わない
+	 * 
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @param capacityFrom 最大容量の下限（nullの場合は条件なし）
+	 * @param capacityTo 最大容量の上限（nullの場合は条件なし）
+	 * @param filterByIds センターIDで絞り込むかどうか
+	 * @param centerIds 候補のセンターID（filterByIdsがfalseの場合は無視）
+	 * @param lastUtilizationRate 前ページ最終行の使用率（先頭ページはInteger.MAX_VALUE）
+	 * @param lastCenterId 前ページ最終行のセンターID（先頭ページはInteger.MAX_VALUE）
+	 * @param pageable 取得件数
+	 * @return paramで検索した結果
+	 */
+	@Query("SELECT s FROM CenterInfo s WHERE " +
+			"(:prefectureCode IS NULL OR s.prefectureCode = :prefectureCode) AND " +
+			"(:capacityFrom IS NULL OR s.maxStorageCapacity >= :capacityFrom) AND " +
+			"(:capacityTo IS NULL OR s.maxStorageCapacity <= :capacityTo) AND " +
+			"(:filterByIds = false OR s.centerId IN :centerIds) AND " +
+			"(s.utilizationRate < :lastUtilizationRate OR " +
+			" (s.utilizationRate = :lastUtilizationRate AND s.centerId < :lastCenterId)) AND " +
+			"(s.operationalStatus = 0) AND " +
+			"(s.deleteFlag = 0) " +
+			"ORDER BY s.utilizationRate DESC, s.centerId DESC")
+	List<CenterInfo> findActiveCentersByUtilization(
+			Integer prefectureCode,
+			Integer capacityFrom,
+			Integer capacityTo,
+			boolean filterByIds,
+			Collection<Integer> centerIds,
+			int lastUtilizationRate,
+			int lastCenterId,
+			Pageable pageable);
+
+	/**
+	 * CSV出力用：全在庫センター情報をセンターIDの昇順でストリーム取得
+	 * ※MySQLの行単位ストリーミング（フェッチサイズ Integer.MIN_VALUE）で読み込む
+	 *   呼び出し元はトランザクション内でストリームを閉じること
+	 * 
+	 * @return 在庫センター情報のストリーム
+	 */
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("SELECT s FROM CenterInfo s ORDER BY s.centerId ASC")
+	Stream<CenterInfo> streamAll();
+
+	/**
+	 * 在庫センターの行を在庫センターIDの昇順で排他ロック
+	 * ※在庫行の登録（外部キーによりセンター行の共有ロックを取得する）より先に呼び出し、
+	 *   共有ロック → 排他ロックへの昇格で待ち合わせが循環しないようにする
+	 * 
+	 * @param centerIds 在庫センターID
+	 * @return ロックした在庫センターID
+	 */
+	@Query(value = "SELECT center_id FROM center_info WHERE center_id IN (:centerIds) ORDER BY center_id FOR UPDATE",
+			nativeQuery = true)
+	List<Integer> lockCenters(Collection<Integer> centerIds);
+
+	/**
+	 * 現在容量を加減算し、使用率を再計算
+	 * ※MySQLの単一テーブルUPDATEは左から順に代入されるため、使用率は加減算後の現在容量から算出される
+	 *   算出式は CenterInfo#calcUtilizationRate と同じ（千分率・切り捨て）
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param delta 加減算する数量
+	 * @param now 更新日時
+	 * @return 更新件数
+	 */
+	@Modifying
+	@Query(value = "UPDATE center_info SET " +
+			"current_storage_capacity = GREATEST(current_storage_capacity + :delta, 0), " +
+			"utilization_rate = IF(max_storage_capacity > 0, current_storage_capacity * 1000 DIV max_storage_capacity, 0), " +
+			"update_date = :now " +
+			"WHERE center_id = :centerId", nativeQuery = true)
+	int addCurrentStorageCapacity(int centerId, int delta, LocalDateTime now);
 }
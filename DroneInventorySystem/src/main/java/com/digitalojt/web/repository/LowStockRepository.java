@@ -0,0 +1,69 @@
+package com.digitalojt.web.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.DeleteFlagConsts;
+import com.digitalojt.web.dto.LowStockAlert;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫不足検知用の在庫読み込み
+ *
+ * @author dotlife
+ *
+ */
+@Repository
+@RequiredArgsConstructor
+public class LowStockRepository {
+
+	/** 在庫・在庫センター・部品の結合 */
+	private static final String SELECT_SQL = "SELECT s.stock_id, s.center_id, c.center_name, c.prefecture_code, "
+			+ "s.part_id, p.part_code, p.part_name, s.category, s.quantity, s.reorder_point "
+			+ "FROM stock_info s "
+			+ "JOIN center_info c ON c.center_id = s.center_id "
+			+ "JOIN part_info p ON p.part_id = s.part_id ";
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * 未削除の在庫を在庫IDの昇順でキーセット取得
+	 *
+	 * @param lastStockId 前回取得した最後の在庫ID（先頭から取得する場合は0）
+	 * @param limit 取得件数
+	 * @return 在庫のリスト
+	 */
+	public List<LowStockAlert> findBatch(int lastStockId, int limit) {
+		return jdbcTemplate.query(SELECT_SQL + "WHERE s.stock_id > ? AND s.delete_flag = ? "
+				+ "ORDER BY s.stock_id LIMIT ?", this::mapRow, lastStockId, DeleteFlagConsts.ACTIVE, limit);
+	}
+
+	/**
+	 * 在庫を1件取得
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @return 在庫（無い・削除済みの場合はnull）
+	 */
+	public LowStockAlert findOne(int centerId, int partId) {
+		List<LowStockAlert> rows = jdbcTemplate.query(SELECT_SQL + "WHERE s.center_id = ? AND s.part_id = ? "
+				+ "AND s.delete_flag = ?", this::mapRow, centerId, partId, DeleteFlagConsts.ACTIVE);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	/**
+	 * 1行を変換
+	 */
+	private LowStockAlert mapRow(ResultSet rs, int rowNum) throws SQLException {
+		return new LowStockAlert(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getObject(4, Integer.class),
+				rs.getInt(5), rs.getString(6), rs.getString(7), Category.valueOf(rs.getString(8)), rs.getInt(9),
+				rs.getInt(10));
+	}
+}
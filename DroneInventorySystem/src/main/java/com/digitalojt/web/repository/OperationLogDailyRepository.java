@@ -0,0 +1,74 @@
+package com.digitalojt.web.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.digitalojt.web.dto.OperationCount;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 操作履歴の日次集計テーブル リポジトリー
+ * ※主キー（日付・管理者・画面・操作・ステータス）の先頭が日付のため、期間指定の集計は範囲走査で済む
+ *
+ * @author dotlife
+ *
+ */
+@Repository
+@RequiredArgsConstructor
+public class OperationLogDailyRepository {
+
+	/** 加算SQL（行が無ければ登録） */
+	private static final String INCREMENT_SQL = "INSERT INTO operation_log_daily "
+			+ "(log_date, admin_id, table_key, operate_type, status, operation_count) VALUES (?, ?, ?, ?, ?, ?) "
+			+ "ON DUPLICATE KEY UPDATE operation_count = operation_count + VALUES(operation_count)";
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * 件数を加算
+	 *
+	 * @param rows 日付・管理者ID・テーブルキー・操作・ステータス・件数 の配列のリスト
+	 */
+	public void increment(List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(INCREMENT_SQL, rows);
+		}
+	}
+
+	/**
+	 * 日付・操作・ステータスごとの件数を取得（日付の昇順）
+	 *
+	 * @param from 開始日
+	 * @param to 終了日
+	 * @return 件数のリスト（key は日付の文字列 yyyy-MM-dd）
+	 */
+	public List<OperationCount> findDailyCounts(LocalDate from, LocalDate to) {
+		return jdbcTemplate.query("SELECT log_date, operate_type, status, SUM(operation_count) "
+				+ "FROM operation_log_daily WHERE log_date BETWEEN ? AND ? "
+				+ "GROUP BY log_date, operate_type, status ORDER BY log_date",
+				(rs, rowNum) -> new OperationCount(rs.getDate(1).toLocalDate().toString(), rs.getInt(2), rs.getInt(3),
+						rs.getLong(4)),
+				Date.valueOf(from), Date.valueOf(to));
+	}
+
+	/**
+	 * 画面・操作・ステータスごとの件数を取得
+	 *
+	 * @param from 開始日
+	 * @param to 終了日
+	 * @return 件数のリスト（key はテーブルキー）
+	 */
+	public List<OperationCount> findScreenCounts(LocalDate from, LocalDate to) {
+		return jdbcTemplate.query("SELECT table_key, operate_type, status, SUM(operation_count) "
+				+ "FROM operation_log_daily WHERE log_date BETWEEN ? AND ? "
+				+ "GROUP BY table_key, operate_type, status ORDER BY table_key",
+				(rs, rowNum) -> new OperationCount(rs.getString(1), rs.getInt(2), rs.getInt(3), rs.getLong(4)),
+				Date.valueOf(from), Date.valueOf(to));
+	}
+}
@@ -0,0 +1,120 @@
+package com.digitalojt.web.repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 操作履歴テーブルの月別パーティション操作
+ * ※パーティション名は「p + 年月（yyyyMM）」、範囲は当月1日以上・翌月1日未満とする
+ *   末尾の pmax（MAXVALUE）を分割して月別パーティションを追加する
+ *
+ * @author dotlife
+ *
+ */
+@Repository
+public class OperationLogPartitionRepository {
+
+	/** パーティション名の年月部分の形式 */
+	private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+	/** 末尾パーティション名 */
+	private static final String MAX_PARTITION = "pmax";
+
+	/** アーカイブ出力の列（CSVの列順） */
+	private static final String ARCHIVE_COLUMNS = "log_id, admin_id, table_key, operate_type, status, "
+			+ "operation_details, delete_flag, create_date, update_date";
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/** JDBCテンプレート（行単位のストリーミング読み込み用） */
+	private final JdbcTemplate streamingJdbcTemplate;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param jdbcTemplate JDBCテンプレート
+	 * @param dataSource データソース
+	 */
+	public OperationLogPartitionRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+		// MySQL Connector/J は Integer.MIN_VALUE 指定時のみ1行ずつ送受信する
+		this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+	}
+
+	/**
+	 * 月別パーティションの一覧を取得（古い順）
+	 *
+	 * @return パーティションの年月（pmax は含まない）
+	 */
+	public List<YearMonth> findMonthlyPartitions() {
+		List<String> names = jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM INFORMATION_SCHEMA.PARTITIONS "
+				+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'operation_log' AND PARTITION_NAME IS NOT NULL "
+				+ "ORDER BY PARTITION_ORDINAL_POSITION", String.class);
+		List<YearMonth> months = new ArrayList<>();
+		for (String name : names) {
+			if (!MAX_PARTITION.equals(name)) {
+				months.add(YearMonth.parse(name, NAME_FORMAT));
+			}
+		}
+		return months;
+	}
+
+	/**
+	 * 末尾パーティション（pmax）内の最も古い操作時刻を取得
+	 *
+	 * @return 最も古い操作時刻（行が無い場合はnull）
+	 */
+	public LocalDateTime findOldestCreateDateInMaxPartition() {
+		return jdbcTemplate.queryForObject(
+				"SELECT MIN(create_date) FROM operation_log PARTITION (" + MAX_PARTITION + ")", LocalDateTime.class);
+	}
+
+	/**
+	 * pmax を分割して月別パーティションを追加
+	 *
+	 * @param months 追加する年月（古い順・既存パーティションより新しいこと）
+	 */
+	public void addMonthlyPartitions(List<YearMonth> months) {
+		if (months.isEmpty()) {
+			return;
+		}
+		String partitions = months.stream()
+				.map(month -> "PARTITION " + month.format(NAME_FORMAT)
+						+ " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00')")
+				.collect(Collectors.joining(", "));
+		jdbcTemplate.execute("ALTER TABLE operation_log REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+				+ partitions + ", PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+	}
+
+	/**
+	 * 月別パーティションの全行を操作時刻・ログIDの昇順で読み込む
+	 *
+	 * @param month パーティションの年月
+	 * @param handler 1行ごとの処理（列順は ARCHIVE_COLUMNS）
+	 */
+	public void readPartition(YearMonth month, RowCallbackHandler handler) {
+		streamingJdbcTemplate.query("SELECT " + ARCHIVE_COLUMNS + " FROM operation_log PARTITION ("
+				+ month.format(NAME_FORMAT) + ") ORDER BY create_date, log_id", handler);
+	}
+
+	/**
+	 * 月別パーティションを削除（行も削除される）
+	 *
+	 * @param month パーティションの年月
+	 */
+	public void dropPartition(YearMonth month) {
+		jdbcTemplate.execute("ALTER TABLE operation_log DROP PARTITION " + month.format(NAME_FORMAT));
+	}
+}
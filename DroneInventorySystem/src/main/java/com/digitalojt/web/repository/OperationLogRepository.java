@@ -1,15 +1,25 @@
 package com.digitalojt.web.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.digitalojt.web.dto.OperationLogExportRow;
+import com.digitalojt.web.dto.OperationLogView;
 import com.digitalojt.web.entity.OperationLog;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * 操作履歴テーブルリポジトリー
  *
@@ -20,41 +30,149 @@ import com.digitalojt.web.entity.OperationLog;
 public interface OperationLogRepository extends JpaRepository<OperationLog, Integer> {
 
 	/**
-	 * 検索条件：管理者名・操作・ステータス・操作時刻に基づき、操作履歴情報を取得（昇順）
+	 * 画面表示用DTOのコンストラクタ式（表示に必要な列のみを取得）
+	 */
+	String VIEW_COLUMNS = "new com.digitalojt.web.dto.OperationLogView("
+			+ "o.logId, a.adminName, o.tableKey, o.operateType, o.status, o.operationDetails, o.createDate)";
+
+	/**
+	 * 検索条件（管理者ID・操作・ステータス・操作時刻）
+	 * ※管理者名の部分一致は事前に管理者IDの集合へ変換し、インデックス列の IN で絞り込む
+	 */
+	String SEARCH_CONDITIONS = "WHERE (:filterByAdmin = false OR o.adminInfo.adminId IN :adminIds) "
+			+ "AND (:operateType IS NULL OR o.operateType = :operateType) "
+			+ "AND (:status IS NULL OR o.status = :status) "
+			+ "AND ((:createDate IS NULL OR :updateDate IS NULL) OR o.createDate BETWEEN :createDate AND :updateDate) ";
+
+	/**
+	 * 検索条件に基づき、カーソルより後ろの操作履歴情報をキーセット取得（操作時刻・ログIDの昇順）
 	 * 
-	 * @param userId 管理者名（部分一致）
+	 * @param filterByAdmin 管理者IDで絞り込むかどうか
+	 * @param adminIds 管理者ID（絞り込まない場合はダミー値）
 	 * @param operateType 操作の種類
 	 * @param status 操作ステータス
 	 * @param createDate 操作時刻 開始日
 	 * @param updateDate 操作時刻 終了日
+	 * @param cursorDate カーソル行の操作時刻（nullの場合は先頭から）
+	 * @param cursorLogId カーソル行のログID
+	 * @param pageable 取得件数
 	 * @return 条件に一致する操作履歴情報のリスト
 	 */
-	@Query("SELECT o FROM OperationLog o JOIN FETCH o.adminInfo "
-		     + "WHERE (:userId IS NULL OR o.adminInfo.adminName LIKE %:userId%) "
-		     + "AND (:operateType IS NULL OR o.operateType = :operateType) "
-		     + "AND (:status IS NULL OR o.status = :status) "
-		     + "AND ((:createDate IS NULL OR :updateDate IS NULL) OR o.createDate BETWEEN :createDate AND :updateDate)"
-		     + "ORDER BY o.createDate ASC")
-	List<OperationLog> findOperationLogs(
-			@Param("userId") String userId,
+	@Query("SELECT " + VIEW_COLUMNS + " FROM OperationLog o JOIN o.adminInfo a "
+			+ SEARCH_CONDITIONS
+			+ "AND (:cursorDate IS NULL OR o.createDate > :cursorDate "
+			+ "     OR (o.createDate = :cursorDate AND o.logId > :cursorLogId)) "
+			+ "ORDER BY o.createDate ASC, o.logId ASC")
+	List<OperationLogView> findOperationLogsAfter(
+			@Param("filterByAdmin") boolean filterByAdmin,
+			@Param("adminIds") Collection<String> adminIds,
+			@Param("operateType") Integer operateType,
+			@Param("status") Integer status,
+			@Param("createDate") LocalDateTime createDate,
+			@Param("updateDate") LocalDateTime updateDate,
+			@Param("cursorDate") LocalDateTime cursorDate,
+			@Param("cursorLogId") int cursorLogId,
+			Pageable pageable);
+
+	/**
+	 * 検索条件に基づき、カーソルより前の操作履歴情報をキーセット取得（操作時刻・ログIDの降順）
+	 * 
+	 * @param filterByAdmin 管理者IDで絞り込むかどうか
+	 * @param adminIds 管理者ID（絞り込まない場合はダミー値）
+	 * @param operateType 操作の種類
+	 * @param status 操作ステータス
+	 * @param createDate 操作時刻 開始日
+	 * @param updateDate 操作時刻 終了日
+	 * @param cursorDate カーソル行の操作時刻（nullの場合は末尾から）
+	 * @param cursorLogId カーソル行のログID
+	 * @param pageable 取得件数
+	 * @return 条件に一致する操作履歴情報のリスト
+	 */
+	@Query("SELECT " + VIEW_COLUMNS + " FROM OperationLog o JOIN o.adminInfo a "
+			+ SEARCH_CONDITIONS
+			+ "AND (:cursorDate IS NULL OR o.createDate < :cursorDate "
+			+ "     OR (o.createDate = :cursorDate AND o.logId < :cursorLogId)) "
+			+ "ORDER BY o.createDate DESC, o.logId DESC")
+	List<OperationLogView> findOperationLogsBefore(
+			@Param("filterByAdmin") boolean filterByAdmin,
+			@Param("adminIds") Collection<String> adminIds,
+			@Param("operateType") Integer operateType,
+			@Param("status") Integer status,
+			@Param("createDate") LocalDateTime createDate,
+			@Param("updateDate") LocalDateTime updateDate,
+			@Param("cursorDate") LocalDateTime cursorDate,
+			@Param("cursorLogId") int cursorLogId,
+			Pageable pageable);
+
+	/**
+	 * 検索条件に合致する操作履歴の件数を上限付きで取得
+	 * ※上限件数までしか走査しないため、件数が上限を超える場合は limit を返す
+	 * 
+	 * @param filterByAdmin 管理者IDで絞り込むかどうか
+	 * @param adminIds 管理者ID（絞り込まない場合はダミー値）
+	 * @param operateType 操作の種類
+	 * @param status 操作ステータス
+	 * @param createDate 操作時刻 開始日
+	 * @param updateDate 操作時刻 終了日
+	 * @param limit 走査する上限件数
+	 * @return 件数（最大 limit）
+	 */
+	@Query(value = "SELECT COUNT(*) FROM ("
+			+ "SELECT 1 FROM operation_log o JOIN admin_info a ON a.admin_id = o.admin_id "
+			+ "WHERE (:filterByAdmin = false OR o.admin_id IN (:adminIds)) "
+			+ "AND (:operateType IS NULL OR o.operate_type = :operateType) "
+			+ "AND (:status IS NULL OR o.status = :status) "
+			+ "AND ((:createDate IS NULL OR :updateDate IS NULL) OR o.create_date BETWEEN :createDate AND :updateDate) "
+			+ "LIMIT :limit) t", nativeQuery = true)
+	long countOperationLogsUpTo(
+			@Param("filterByAdmin") boolean filterByAdmin,
+			@Param("adminIds") Collection<String> adminIds,
 			@Param("operateType") Integer operateType,
-		    @Param("status") Integer status,
-		    @Param("createDate") LocalDateTime createDate,
-		    @Param("updateDate") LocalDateTime updateDate
-		    );
-	
-	
-	/**
-	 * 初期表示用：直近1ヶ月分の操作履歴情報を取得（降順）
+			@Param("status") Integer status,
+			@Param("createDate") LocalDateTime createDate,
+			@Param("updateDate") LocalDateTime updateDate,
+			@Param("limit") int limit);
+
+	/**
+	 * ライブ表示用：指定したログIDより後に登録された操作履歴情報を取得（ログIDの昇順）
+	 * 
+	 * @param lastLogId 配信済みの最後のログID
+	 * @param pageable 取得件数
+	 * @return 操作履歴情報のリスト
+	 */
+	@Query("SELECT " + VIEW_COLUMNS + " FROM OperationLog o JOIN o.adminInfo a "
+			+ "WHERE o.logId > :lastLogId ORDER BY o.logId ASC")
+	List<OperationLogView> findOperationLogsAfterLogId(@Param("lastLogId") int lastLogId, Pageable pageable);
+
+	/**
+	 * ライブ表示用：最新のログIDを取得
+	 * 
+	 * @return 最新のログID（操作履歴が無い場合は0）
+	 */
+	@Query("SELECT COALESCE(MAX(o.logId), 0) FROM OperationLog o")
+	int findMaxLogId();
+
+	/**
+	 * CSV出力用：操作時刻の範囲に合致する操作履歴情報をストリーム取得（昇順）
+	 * ※MySQLの行単位ストリーミング（フェッチサイズ Integer.MIN_VALUE）で読み込む
+	 *   CSVの列のみをDTOに取得し、管理者情報はIDと名前以外（パスワード等）を読み込まない
+	 *   呼び出し元はトランザクション内でストリームを閉じること
 	 *
-	 * @param createDate 1ヶ月前の日付（開始）
-	 * @param updateDate 現在日時（終了）
-	 * @return 操作履歴情報リスト
-	 */
-	@Query("SELECT o FROM OperationLog o JOIN FETCH o.adminInfo a "
-	     + "WHERE o.createDate BETWEEN :createDate AND :updateDate "
-	     + "ORDER BY o.createDate DESC")
-	List<OperationLog> findOperationLogsForOneMonth(
+	 * @param createDate 操作時刻 開始日（nullの場合は全期間）
+	 * @param updateDate 操作時刻 終了日（nullの場合は全期間）
+	 * @return 操作履歴情報のストリーム
+	 */
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("SELECT new com.digitalojt.web.dto.OperationLogExportRow("
+	     + "o.logId, a.adminId, a.adminName, o.tableKey, o.operateType, o.status, o.operationDetails, "
+	     + "o.deleteFlag, o.createDate, o.updateDate) "
+	     + "FROM OperationLog o JOIN o.adminInfo a "
+	     + "WHERE ((:createDate IS NULL OR :updateDate IS NULL) OR o.createDate BETWEEN :createDate AND :updateDate) "
+	     + "ORDER BY o.createDate ASC, o.logId ASC")
+	Stream<OperationLogExportRow> streamOperationLogs(
 	    @Param("createDate") LocalDateTime createDate,
 	    @Param("updateDate") LocalDateTime updateDate
 	);
@@ -0,0 +1,25 @@
+package com.digitalojt.web.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.digitalojt.web.entity.PartInfo;
+
+/**
+ * 部品情報テーブルリポジトリー
+ *
+ * @author dotlife
+ * 
+ */
+public interface PartInfoRepository extends JpaRepository<PartInfo, Integer> {
+
+	/**
+	 * 部品コードで部品情報を取得
+	 * 
+	 * @param partCode 部品コード
+	 * @param deleteFlag 論理削除フラグ
+	 * @return 部品情報
+	 */
+	Optional<PartInfo> findByPartCodeAndDeleteFlag(String partCode, Integer deleteFlag);
+}
@@ -0,0 +1,197 @@
+package com.digitalojt.web.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.digitalojt.web.consts.DeleteFlagConsts;
+import com.digitalojt.web.consts.StockMovementType;
+
+/**
+ * 補充数の予測 リポジトリー
+ *
+ * @author dotlife
+ *
+ */
+@Repository
+public class ReplenishmentRepository {
+
+	/** 推奨発注数の登録SQL（再実行時は上書き） */
+	private static final String UPSERT_SQL = "INSERT INTO replenishment_suggestion "
+			+ "(forecast_date, center_id, part_id, avg_daily_demand, safety_stock, reorder_point, "
+			+ "current_quantity, suggested_quantity, create_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+			+ "ON DUPLICATE KEY UPDATE avg_daily_demand = VALUES(avg_daily_demand), "
+			+ "safety_stock = VALUES(safety_stock), reorder_point = VALUES(reorder_point), "
+			+ "current_quantity = VALUES(current_quantity), suggested_quantity = VALUES(suggested_quantity), "
+			+ "create_date = VALUES(create_date)";
+
+	/** 在庫センター行のロックSQL（在庫数を更新する処理と同じく、在庫行より先にロックする） */
+	private static final String LOCK_CENTER_SQL = "SELECT center_id FROM center_info WHERE center_id = ? FOR UPDATE";
+
+	/** 在庫情報の発注点の更新SQL（変化が無い在庫行は更新しない） */
+	private static final String UPDATE_REORDER_POINT_SQL = "UPDATE stock_info SET reorder_point = ?, update_date = ? "
+			+ "WHERE center_id = ? AND part_id = ? AND reorder_point <> ?";
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/** JDBCテンプレート（行単位のストリーミング読み込み用） */
+	private final JdbcTemplate streamingJdbcTemplate;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param jdbcTemplate JDBCテンプレート
+	 * @param dataSource データソース
+	 */
+	public ReplenishmentRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+		// MySQL Connector/J は Integer.MIN_VALUE 指定時のみ1行ずつ送受信する
+		this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+	}
+
+	/**
+	 * 未完了の実行のうち最新の予測日を取得
+	 *
+	 * @return 予測日（未完了の実行が無い場合はnull）
+	 */
+	public LocalDate findIncompleteRun() {
+		List<Date> dates = jdbcTemplate.queryForList("SELECT forecast_date FROM replenishment_run "
+				+ "WHERE completed_at IS NULL ORDER BY forecast_date DESC LIMIT 1", Date.class);
+		return dates.isEmpty() ? null : dates.get(0).toLocalDate();
+	}
+
+	/**
+	 * 実行の開始を記録（再開時は何もしない）
+	 *
+	 * @param forecastDate 予測日
+	 * @param now 開始日時
+	 */
+	public void startRun(LocalDate forecastDate, LocalDateTime now) {
+		jdbcTemplate.update("INSERT IGNORE INTO replenishment_run (forecast_date, started_at) VALUES (?, ?)",
+				Date.valueOf(forecastDate), Timestamp.valueOf(now));
+	}
+
+	/**
+	 * 実行の完了を記録
+	 *
+	 * @param forecastDate 予測日
+	 * @param now 完了日時
+	 */
+	public void completeRun(LocalDate forecastDate, LocalDateTime now) {
+		jdbcTemplate.update("UPDATE replenishment_run SET completed_at = ? WHERE forecast_date = ?",
+				Timestamp.valueOf(now), Date.valueOf(forecastDate));
+	}
+
+	/**
+	 * 予測が完了した在庫センターを取得
+	 *
+	 * @param forecastDate 予測日
+	 * @return 在庫センターIDの集合
+	 */
+	public Set<Integer> findCompletedCenterIds(LocalDate forecastDate) {
+		return new HashSet<>(jdbcTemplate.queryForList("SELECT center_id FROM replenishment_checkpoint "
+				+ "WHERE forecast_date = ?", Integer.class, Date.valueOf(forecastDate)));
+	}
+
+	/**
+	 * 在庫センターの予測完了を記録
+	 *
+	 * @param forecastDate 予測日
+	 * @param centerId 在庫センターID
+	 * @param suggestionCount 推奨発注数の件数
+	 * @param now 完了日時
+	 */
+	public void markCompleted(LocalDate forecastDate, int centerId, int suggestionCount, LocalDateTime now) {
+		jdbcTemplate.update("INSERT INTO replenishment_checkpoint "
+				+ "(forecast_date, center_id, suggestion_count, completed_at) VALUES (?, ?, ?, ?)",
+				Date.valueOf(forecastDate), centerId, suggestionCount, Timestamp.valueOf(now));
+	}
+
+	/**
+	 * 在庫のある在庫センターを取得
+	 *
+	 * @return 在庫センターIDのリスト（昇順）
+	 */
+	public List<Integer> findCenterIdsWithStock() {
+		return jdbcTemplate.queryForList("SELECT DISTINCT center_id FROM stock_info WHERE delete_flag = ? "
+				+ "ORDER BY center_id", Integer.class, DeleteFlagConsts.ACTIVE);
+	}
+
+	/**
+	 * 在庫センターの部品ごとの在庫数を取得
+	 *
+	 * @param centerId 在庫センターID
+	 * @return 部品ID → 在庫数
+	 */
+	public Map<Integer, Integer> findQuantities(int centerId) {
+		Map<Integer, Integer> quantities = new HashMap<>();
+		jdbcTemplate.query("SELECT part_id, quantity FROM stock_info WHERE center_id = ? AND delete_flag = ?",
+				rs -> {
+					quantities.put(rs.getInt(1), rs.getInt(2));
+				},
+				centerId, DeleteFlagConsts.ACTIVE);
+		return quantities;
+	}
+
+	/**
+	 * 在庫センターの部品・日ごとの出庫数を部品IDの昇順で読み込む
+	 *
+	 * @param centerId 在庫センターID
+	 * @param from 開始日（含む）
+	 * @param to 終了日（含まない）
+	 * @param handler 1行ごとの処理（部品ID・日付・出庫数）
+	 */
+	public void streamDailyIssues(int centerId, LocalDate from, LocalDate to, RowCallbackHandler handler) {
+		streamingJdbcTemplate.query("SELECT part_id, DATE(create_date), -SUM(quantity) FROM stock_movement "
+				+ "WHERE center_id = ? AND movement_type = ? AND create_date >= ? AND create_date < ? "
+				+ "GROUP BY part_id, DATE(create_date) ORDER BY part_id",
+				handler, centerId, StockMovementType.ISSUE.getTypeCode(), Date.valueOf(from), Date.valueOf(to));
+	}
+
+	/**
+	 * 推奨発注数を登録
+	 *
+	 * @param rows 予測日・在庫センターID・部品ID・平均日次出庫数・安全在庫・発注点・在庫数・推奨発注数・作成日時 の配列のリスト
+	 */
+	public void upsertSuggestions(List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+		}
+	}
+
+	/**
+	 * 推奨発注数の発注点を在庫情報に反映（在庫不足の検知は在庫情報の発注点を使用する）
+	 * ※在庫数を更新する処理と同じく、在庫センター行 → 在庫行の順にロックする
+	 *
+	 * @param centerId 在庫センターID
+	 * @param rows upsertSuggestions() と同じ形式の推奨発注数の行（同じ在庫センター・部品IDの昇順）
+	 * @param now 更新日時
+	 */
+	public void updateReorderPoints(int centerId, List<Object[]> rows, LocalDateTime now) {
+		if (rows.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.queryForList(LOCK_CENTER_SQL, Integer.class, centerId);
+		Timestamp updateDate = Timestamp.valueOf(now);
+		List<Object[]> params = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			params.add(new Object[] { row[5], updateDate, row[1], row[2], row[5] });
+		}
+		jdbcTemplate.batchUpdate(UPDATE_REORDER_POINT_SQL, params);
+	}
+}
@@ -0,0 +1,125 @@
+package com.digitalojt.web.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.digitalojt.web.consts.DeleteFlagConsts;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 論理削除済みの行の物理削除
+ * ※主キーのキーセットで少量ずつ対象を取得し、主キー指定で削除する
+ *   対象の取得はロックを取らない通常のSELECT、削除は主キー指定のため行ロックは削除対象の行に限られる
+ *
+ * @author dotlife
+ *
+ */
+@Repository
+@RequiredArgsConstructor
+public class RetentionPurgeRepository {
+
+	/**
+	 * 削除対象のテーブル
+	 */
+	public enum PurgeTarget {
+
+		/** 操作履歴（保持期間を過ぎた月はパーティション単位でアーカイブ済み） */
+		OPERATION_LOG("operation_log", "log_id", ""),
+
+		/** 在庫情報（在庫移動履歴が無い在庫のみ） */
+		STOCK_INFO("stock_info", "stock_id",
+				"AND NOT EXISTS (SELECT 1 FROM stock_movement m "
+						+ "WHERE m.center_id = stock_info.center_id AND m.part_id = stock_info.part_id) "),
+
+		/** 在庫センター情報（在庫情報から参照されていないセンターのみ） */
+		CENTER_INFO("center_info", "center_id",
+				"AND NOT EXISTS (SELECT 1 FROM stock_info s WHERE s.center_id = center_info.center_id) "),
+
+		/** 部品情報（在庫情報から参照されていない部品のみ） */
+		PART_INFO("part_info", "part_id",
+				"AND NOT EXISTS (SELECT 1 FROM stock_info s WHERE s.part_id = part_info.part_id) "),
+
+		/** 管理者情報（操作履歴から参照されていない管理者のみ） */
+		ADMIN_INFO("admin_info", "admin_id",
+				"AND NOT EXISTS (SELECT 1 FROM operation_log o WHERE o.admin_id = admin_info.admin_id) ");
+
+		/** テーブル名 */
+		private final String table;
+
+		/** キーセットに使う主キー列 */
+		private final String keyColumn;
+
+		/** 追加の削除条件 */
+		private final String extraCondition;
+
+		PurgeTarget(String table, String keyColumn, String extraCondition) {
+			this.table = table;
+			this.keyColumn = keyColumn;
+			this.extraCondition = extraCondition;
+		}
+
+		public String getTable() {
+			return table;
+		}
+
+		/**
+		 * 削除条件（論理削除済み かつ 最終更新が基準日時より前）
+		 */
+		private String purgeCondition() {
+			return "delete_flag = " + DeleteFlagConsts.DELETED + " AND update_date < ? " + extraCondition;
+		}
+	}
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * 削除対象の主キーをキーセットで取得（主キーの昇順）
+	 *
+	 * @param target 削除対象のテーブル
+	 * @param lastKey 前回取得した最後の主キー（先頭から取得する場合はnull）
+	 * @param cutoff この日時より前に論理削除された行を対象とする
+	 * @param limit 取得件数
+	 * @return 主キーのリスト
+	 */
+	public List<Object> findPurgeableKeys(PurgeTarget target, Object lastKey, LocalDateTime cutoff, int limit) {
+		List<Object> args = new ArrayList<>();
+		StringBuilder sql = new StringBuilder("SELECT ").append(target.keyColumn)
+				.append(" FROM ").append(target.table).append(" WHERE ");
+		if (lastKey != null) {
+			sql.append(target.keyColumn).append(" > ? AND ");
+			args.add(lastKey);
+		}
+		sql.append(target.purgeCondition()).append("ORDER BY ").append(target.keyColumn).append(" LIMIT ?");
+		args.add(Timestamp.valueOf(cutoff));
+		args.add(limit);
+		return jdbcTemplate.queryForList(sql.toString(), Object.class, args.toArray());
+	}
+
+	/**
+	 * 主キー指定で削除
+	 * ※取得後に論理削除が取り消された行を消さないよう、削除条件を再度確認する
+	 *
+	 * @param target 削除対象のテーブル
+	 * @param keys 主キーのリスト
+	 * @param cutoff この日時より前に論理削除された行を対象とする
+	 * @return 削除件数
+	 */
+	public int delete(PurgeTarget target, List<Object> keys, LocalDateTime cutoff) {
+		if (keys.isEmpty()) {
+			return 0;
+		}
+		String placeholders = String.join(", ", Collections.nCopies(keys.size(), "?"));
+		List<Object> args = new ArrayList<>(keys);
+		args.add(Timestamp.valueOf(cutoff));
+		return jdbcTemplate.update("DELETE FROM " + target.table + " WHERE " + target.keyColumn + " IN ("
+				+ placeholders + ") AND " + target.purgeCondition(), args.toArray());
+	}
+}
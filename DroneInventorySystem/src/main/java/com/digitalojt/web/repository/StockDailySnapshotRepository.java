@@ -0,0 +1,102 @@
+package com.digitalojt.web.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.digitalojt.web.consts.Category;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 日次在庫スナップショットテーブル リポジトリー
+ *
+ * @author dotlife
+ *
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockDailySnapshotRepository {
+
+	/**
+	 * 前日の在庫数に当日の増減を加えた日次スナップショットを作成するSQL
+	 * ※当日に増減の無い在庫センター・分類の組も前日の在庫数で作成する
+	 */
+	private static final String CREATE_SQL = "INSERT INTO stock_daily_snapshot "
+			+ "(center_id, category, snapshot_date, quantity) "
+			+ "SELECT d.center_id, d.category, ?, SUM(d.quantity) FROM ("
+			+ "  SELECT center_id, category, quantity FROM stock_daily_snapshot WHERE snapshot_date = ? "
+			+ "  UNION ALL "
+			+ "  SELECT center_id, category, quantity FROM stock_movement WHERE create_date >= ? AND create_date < ?"
+			+ ") d GROUP BY d.center_id, d.category";
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * 1日分の在庫数
+	 *
+	 * @param date 日付
+	 * @param quantity その日の終了時点の在庫数
+	 */
+	public record DailyQuantity(LocalDate date, long quantity) {
+	}
+
+	/**
+	 * 作成済みの最後の日付を取得
+	 *
+	 * @return 日付（作成履歴が無い場合はnull）
+	 */
+	public LocalDate findLastSnapshotDate() {
+		Date date = jdbcTemplate.queryForObject("SELECT MAX(snapshot_date) FROM stock_daily_snapshot_run",
+				Date.class);
+		return date == null ? null : date.toLocalDate();
+	}
+
+	/**
+	 * 最も古い在庫移動の日付を取得
+	 *
+	 * @return 日付（在庫移動が無い場合はnull）
+	 */
+	public LocalDate findFirstMovementDate() {
+		LocalDateTime createDate = jdbcTemplate.queryForObject("SELECT MIN(create_date) FROM stock_movement",
+				LocalDateTime.class);
+		return createDate == null ? null : createDate.toLocalDate();
+	}
+
+	/**
+	 * 1日分の日次スナップショットを作成し、作成履歴を記録
+	 *
+	 * @param date 日付
+	 * @param now 作成日時
+	 * @return 作成した件数
+	 */
+	public int create(LocalDate date, LocalDateTime now) {
+		int count = jdbcTemplate.update(CREATE_SQL, Date.valueOf(date), Date.valueOf(date.minusDays(1)),
+				Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+		jdbcTemplate.update("INSERT INTO stock_daily_snapshot_run (snapshot_date, created_at) VALUES (?, ?)",
+				Date.valueOf(date), Timestamp.valueOf(now));
+		return count;
+	}
+
+	/**
+	 * 在庫センター・分類の日ごとの在庫数を取得（日付の昇順）
+	 *
+	 * @param centerId 在庫センターID
+	 * @param category 分類
+	 * @param from 開始日
+	 * @param to 終了日
+	 * @return 日ごとの在庫数
+	 */
+	public List<DailyQuantity> findDailyQuantities(int centerId, Category category, LocalDate from, LocalDate to) {
+		return jdbcTemplate.query("SELECT snapshot_date, quantity FROM stock_daily_snapshot "
+				+ "WHERE center_id = ? AND category = ? AND snapshot_date BETWEEN ? AND ? ORDER BY snapshot_date",
+				(rs, rowNum) -> new DailyQuantity(rs.getDate(1).toLocalDate(), rs.getLong(2)),
+				centerId, category.name(), Date.valueOf(from), Date.valueOf(to));
+	}
+}
@@ -0,0 +1,115 @@
+package com.digitalojt.web.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.entity.StockInfo;
+
+/**
+ * 在庫情報テーブルリポジトリー
+ *
+ * @author dotlife
+ * 
+ */
+public interface StockInfoRepository extends JpaRepository<StockInfo, Integer> {
+
+	/**
+	 * 引数に合致する在庫情報を在庫数・在庫IDの昇順でキーセット取得
+	 * ※部品・在庫センターは1ページ分の行に対してのみ結合して取得する
+	 * 
+	 * @param category 分類（nullの場合は条件なし）
+	 * @param centerId 在庫センターID（nullの場合は条件なし）
+	 * @param quantityFrom 在庫数の下限（nullの場合は条件なし）
+	 * @param quantityTo 在庫数の上限（nullの場合は条件なし）
+	 * @param lastQuantity 前ページ最終行の在庫数（先頭ページはInteger.MIN_VALUE）
+	 * @param lastStockId 前ページ最終行の在庫ID（先頭ページは0）
+	 * @param pageable 取得件数
+	 * @return paramで検索した結果
+	 */
+	@Query("SELECT s FROM StockInfo s JOIN FETCH s.partInfo JOIN FETCH s.centerInfo WHERE " +
+			"(:category IS NULL OR s.category = :category) AND " +
+			"(:centerId IS NULL OR s.centerInfo.centerId = :centerId) AND " +
+			"(:quantityFrom IS NULL OR s.quantity >= :quantityFrom) AND " +
+			"(:quantityTo IS NULL OR s.quantity <= :quantityTo) AND " +
+			"(s.quantity > :lastQuantity OR " +
+			" (s.quantity = :lastQuantity AND s.stockId > :lastStockId)) AND " +
+			"(s.deleteFlag = 0) " +
+			"ORDER BY s.quantity ASC, s.stockId ASC")
+	List<StockInfo> findStocks(
+			Category category,
+			Integer centerId,
+			Integer quantityFrom,
+			Integer quantityTo,
+			int lastQuantity,
+			int lastStockId,
+			Pageable pageable);
+
+	/**
+	 * 在庫数を加減算
+	 * ※加減算後の在庫数が0未満となる場合は更新しない
+	 *   対象行は更新時点の最新値で判定・更新されるため、同時に更新しても更新が失われない
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param delta 加減算する数量（出庫・引当は負数）
+	 * @param now 更新日時
+	 * @return 更新件数（在庫が無い・不足する場合は0）
+	 */
+	@Modifying
+	@Query(value = "UPDATE stock_info SET quantity = quantity + :delta, update_date = :now " +
+			"WHERE center_id = :centerId AND part_id = :partId AND delete_flag = 0 " +
+			"AND quantity + :delta >= 0", nativeQuery = true)
+	int addQuantity(int centerId, int partId, int delta, LocalDateTime now);
+
+	/**
+	 * 在庫の有無を確認
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @return 未削除の在庫がある場合はtrue
+	 */
+	@Query("SELECT COUNT(s) > 0 FROM StockInfo s WHERE " +
+			"s.centerInfo.centerId = :centerId AND " +
+			"s.partInfo.partId = :partId AND " +
+			"s.deleteFlag = 0")
+	boolean existsActiveStock(int centerId, int partId);
+
+	/**
+	 * 在庫の分類を取得
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @return 分類（在庫が無い場合はnull）
+	 */
+	@Query("SELECT s.category FROM StockInfo s WHERE " +
+			"s.centerInfo.centerId = :centerId AND " +
+			"s.partInfo.partId = :partId")
+	Category findCategory(int centerId, int partId);
+
+	/**
+	 * 在庫数を加算（在庫が無い場合は登録）
+	 * ※分類は部品情報から複製する。論理削除済みの在庫は在庫数0から加算して未削除に戻す
+	 *   MySQLの単一テーブルUPDATEは左から順に代入されるため、在庫数は論理削除フラグを戻す前に算出する
+	 *   INSERT ... SELECT の部品情報と列名が重複するため、更新する列は stock_info で修飾する
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param delta 加算する数量（1以上）
+	 * @param now 登録・更新日時
+	 * @return 更新件数（登録は1、加算は2、部品が無い場合は0）
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO stock_info " +
+			"(center_id, part_id, category, quantity, delete_flag, create_date, update_date) " +
+			"SELECT :centerId, p.part_id, p.category, :delta, 0, :now, :now FROM part_info p " +
+			"WHERE p.part_id = :partId AND p.delete_flag = 0 " +
+			"ON DUPLICATE KEY UPDATE stock_info.quantity = IF(stock_info.delete_flag = 0, stock_info.quantity, 0) + VALUES(quantity), " +
+			"stock_info.delete_flag = 0, stock_info.update_date = VALUES(update_date)", nativeQuery = true)
+	int upsertQuantity(int centerId, int partId, int delta, LocalDateTime now);
+}
@@ -0,0 +1,73 @@
+package com.digitalojt.web.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.StockMovementType;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫移動履歴テーブル リポジトリー
+ * ※追記のみ（更新・削除しない）
+ *
+ * @author dotlife
+ *
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockMovementRepository {
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * 在庫移動を記録
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param category 分類
+	 * @param type 移動種別
+	 * @param quantity 増減した数量（出庫は負数）
+	 * @param now 移動日時
+	 */
+	public void insert(int centerId, int partId, Category category, StockMovementType type, int quantity,
+			LocalDateTime now) {
+		jdbcTemplate.update("INSERT INTO stock_movement "
+				+ "(center_id, part_id, category, movement_type, quantity, create_date) VALUES (?, ?, ?, ?, ?, ?)",
+				centerId, partId, category.name(), type.getTypeCode(), quantity, Timestamp.valueOf(now));
+	}
+
+	/**
+	 * 指定の移動IDより後、指定日時以前の増減の合計を取得
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param afterMovementId この移動IDより後の増減を合計する
+	 * @param asOf この日時以前の増減を合計する
+	 * @return 増減の合計
+	 */
+	public long sumQuantity(int centerId, int partId, long afterMovementId, LocalDateTime asOf) {
+		Long sum = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM stock_movement "
+				+ "WHERE center_id = ? AND part_id = ? AND movement_id > ? AND create_date <= ?",
+				Long.class, centerId, partId, afterMovementId, Timestamp.valueOf(asOf));
+		return sum == null ? 0 : sum;
+	}
+
+	/**
+	 * 指定の移動IDより後、指定日時より前に記録された移動IDの最大値を取得
+	 *
+	 * @param afterMovementId この移動IDより後を対象とする
+	 * @param before この日時より前に記録された移動を対象とする
+	 * @return 移動IDの最大値（対象が無い場合はnull）
+	 */
+	public Long findMaxMovementId(long afterMovementId, LocalDateTime before) {
+		return jdbcTemplate.queryForObject("SELECT MAX(movement_id) FROM stock_movement "
+				+ "WHERE movement_id > ? AND create_date < ?",
+				Long.class, afterMovementId, Timestamp.valueOf(before));
+	}
+}
@@ -0,0 +1,88 @@
+package com.digitalojt.web.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫スナップショットテーブル リポジトリー
+ *
+ * @author dotlife
+ *
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockSnapshotRepository {
+
+	/**
+	 * 前回のスナップショットに範囲内の増減を加えたスナップショットを作成するSQL
+	 * ※範囲内に増減があった在庫センター・部品の組のみを書き出す
+	 */
+	private static final String CREATE_SQL = "INSERT INTO stock_snapshot "
+			+ "(center_id, part_id, last_movement_id, snapshot_at, quantity) "
+			+ "SELECT d.center_id, d.part_id, ?, ?, d.delta + COALESCE((SELECT s.quantity FROM stock_snapshot s "
+			+ "  WHERE s.center_id = d.center_id AND s.part_id = d.part_id "
+			+ "  ORDER BY s.last_movement_id DESC LIMIT 1), 0) "
+			+ "FROM (SELECT center_id, part_id, SUM(quantity) AS delta FROM stock_movement "
+			+ "  WHERE movement_id > ? AND movement_id <= ? GROUP BY center_id, part_id) d";
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * 在庫スナップショット
+	 *
+	 * @param lastMovementId 反映済みの最後の移動ID
+	 * @param quantity 在庫数
+	 */
+	public record Snapshot(long lastMovementId, long quantity) {
+	}
+
+	/**
+	 * 前回のスナップショットで反映済みの最後の移動IDを取得
+	 *
+	 * @return 移動ID（スナップショットが無い場合は0）
+	 */
+	public long findLastMovementId() {
+		Long lastMovementId = jdbcTemplate.queryForObject(
+				"SELECT COALESCE(MAX(last_movement_id), 0) FROM stock_snapshot_run", Long.class);
+		return lastMovementId == null ? 0 : lastMovementId;
+	}
+
+	/**
+	 * 範囲内の増減を反映したスナップショットを作成し、作成履歴を記録
+	 *
+	 * @param fromMovementId 前回反映済みの最後の移動ID
+	 * @param toMovementId 今回反映する最後の移動ID
+	 * @param snapshotAt スナップショットの基準日時
+	 * @return 作成したスナップショットの件数
+	 */
+	public int create(long fromMovementId, long toMovementId, LocalDateTime snapshotAt) {
+		int count = jdbcTemplate.update(CREATE_SQL, toMovementId, Timestamp.valueOf(snapshotAt), fromMovementId,
+				toMovementId);
+		jdbcTemplate.update("INSERT INTO stock_snapshot_run (last_movement_id, snapshot_at) VALUES (?, ?)",
+				toMovementId, Timestamp.valueOf(snapshotAt));
+		return count;
+	}
+
+	/**
+	 * 指定日時以前の直近のスナップショットを取得
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param asOf 基準日時
+	 * @return スナップショット（無い場合はnull）
+	 */
+	public Snapshot findLatest(int centerId, int partId, LocalDateTime asOf) {
+		List<Snapshot> snapshots = jdbcTemplate.query("SELECT last_movement_id, quantity FROM stock_snapshot "
+				+ "WHERE center_id = ? AND part_id = ? AND snapshot_at <= ? ORDER BY snapshot_at DESC LIMIT 1",
+				(rs, rowNum) -> new Snapshot(rs.getLong(1), rs.getLong(2)),
+				centerId, partId, Timestamp.valueOf(asOf));
+		return snapshots.isEmpty() ? null : snapshots.get(0);
+	}
+}
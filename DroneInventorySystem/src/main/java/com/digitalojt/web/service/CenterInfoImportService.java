@@ -0,0 +1,260 @@
+package com.digitalojt.web.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalojt.web.audit.Audited;
+import com.digitalojt.web.consts.DeleteFlagConsts;
+import com.digitalojt.web.consts.ErrorMessage;
+import com.digitalojt.web.consts.ModelAttributeContents;
+import com.digitalojt.web.consts.OperationType;
+import com.digitalojt.web.consts.Region;
+import com.digitalojt.web.consts.ScreenTitle;
+import com.digitalojt.web.dto.CsvImportResult;
+import com.digitalojt.web.entity.CenterInfo;
+import com.digitalojt.web.util.CsvReader;
+import com.digitalojt.web.util.InputValidator;
+import com.digitalojt.web.util.MessageManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 在庫センター情報のCSV一括取込サービスクラス
+ * ※1行ずつ読み込み・検証し、JDBCバッチで一定件数ごとに登録・コミットする
+ *   JDBC経由で登録するため、取込後にセンター名インデックスの再構築と検索キャッシュの破棄を行う
+ *
+ * @author dotlife
+ * 
+ */
+@Service
+@Slf4j
+public class CenterInfoImportService {
+
+	/** CSVの列数 */
+	private static final int COLUMN_COUNT = 9;
+
+	/** 郵便番号・電話番号の形式 */
+	private static final Pattern NUMBER_WITH_HYPHEN = Pattern.compile("[0-9][0-9-]*");
+
+	/** 登録SQL */
+	private static final String INSERT_SQL = "INSERT INTO center_info ("
+			+ "center_name, post_code, address, prefecture_code, phone_number, manager_name, "
+			+ "operational_status, max_storage_capacity, current_storage_capacity, utilization_rate, "
+			+ "notes, delete_flag, create_date, update_date"
+			+ ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/** トランザクションテンプレート（バッチ単位でコミット） */
+	private final TransactionTemplate transactionTemplate;
+
+	/** メッセージソース */
+	private final MessageSource messageSource;
+
+	/** センター名インデックス */
+	private final CenterNameIndex centerNameIndex;
+
+	/** 在庫センター情報 検索キャッシュ */
+	private final CenterInfoSearchCache searchCache;
+
+	/** 1バッチあたりの登録件数 */
+	private final int batchSize;
+
+	/**
+	 * コンストラクタ
+	 */
+	public CenterInfoImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			MessageSource messageSource, CenterNameIndex centerNameIndex, CenterInfoSearchCache searchCache,
+			@Value("${app.center-info.import.batch-size:1000}") int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.messageSource = messageSource;
+		this.centerNameIndex = centerNameIndex;
+		this.searchCache = searchCache;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * 在庫センター情報CSVを取込
+	 * ※1行目はヘッダー行として読み飛ばす
+	 * 
+	 * @param inputStream CSVファイル（UTF-8）
+	 * @return 取込結果
+	 * @throws IOException
+	 */
+	@Audited(screen = ScreenTitle.CENTER_INFO, operation = OperationType.CREATE, details = "在庫センター情報CSV取込")
+	public CsvImportResult importCsv(InputStream inputStream) throws IOException {
+		CsvImportResult result = new CsvImportResult();
+		LocalDateTime now = LocalDateTime.now();
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+			CsvReader csv = new CsvReader(reader);
+			csv.readRecord(); // ヘッダー行
+
+			List<Object[]> batch = new ArrayList<>(batchSize);
+			int batchFirstLine = 0;
+			List<String> record;
+			while ((record = csv.readRecord()) != null) {
+				if (record.size() == 1 && record.get(0).isBlank()) {
+					continue; // 空行
+				}
+				result.setTotalCount(result.getTotalCount() + 1);
+
+				String error = validate(record);
+				if (error != null) {
+					result.addError(rowError(csv.getLineNumber(), error), 1);
+					continue;
+				}
+
+				if (batch.isEmpty()) {
+					batchFirstLine = csv.getLineNumber();
+				}
+				batch.add(toParams(record, now));
+				if (batch.size() >= batchSize) {
+					flush(batch, batchFirstLine, csv.getLineNumber(), result);
+				}
+			}
+			flush(batch, batchFirstLine, csv.getLineNumber(), result);
+		} finally {
+			if (result.getImportedCount() > 0) {
+				centerNameIndex.rebuild();
+				searchCache.invalidateAll();
+			}
+		}
+
+		log.info("在庫センター情報CSV取込: 処理 {} 件 / 登録 {} 件 / エラー {} 件",
+				result.getTotalCount(), result.getImportedCount(), result.getErrorCount());
+		return result;
+	}
+
+	/**
+	 * 溜まった行を1トランザクションでバッチ登録
+	 * 
+	 * @param batch 登録パラメータ
+	 * @param firstLine バッチ先頭の行番号
+	 * @param lastLine バッチ末尾の行番号
+	 * @param result 取込結果
+	 */
+	private void flush(List<Object[]> batch, int firstLine, int lastLine, CsvImportResult result) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		int[] argTypes = { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR,
+				Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.INTEGER,
+				Types.TIMESTAMP, Types.TIMESTAMP };
+		try {
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, argTypes));
+			result.setImportedCount(result.getImportedCount() + batch.size());
+		} catch (DataAccessException e) {
+			log.error("在庫センター情報CSV取込: {}〜{} 行目の登録に失敗しました", firstLine, lastLine, e);
+			result.addError(MessageManager.getMessage(messageSource, ErrorMessage.CSV_IMPORT_BATCH_ERROR_MESSAGE,
+					firstLine, lastLine), batch.size());
+		}
+		batch.clear();
+	}
+
+	/**
+	 * 1行分の入力値チェック
+	 * 
+	 * @param record CSVの1行
+	 * @return エラー内容（正常な場合はnull）
+	 */
+	private String validate(List<String> record) {
+		if (record.size() != COLUMN_COUNT) {
+			return MessageManager.getMessage(messageSource, ErrorMessage.CSV_IMPORT_COLUMN_COUNT_ERROR_MESSAGE,
+					COLUMN_COUNT);
+		}
+		// センター名・管理者名・備考はSQLインジェクション・XSSチェック
+		// 住所は番地表記のハイフンを許可したうえでチェック
+		if (!InputValidator.isValid(record.get(0)) || !InputValidator.isValid(record.get(4))
+				|| !InputValidator.isValid(record.get(8))
+				|| !InputValidator.isValid(record.get(2).replace("-", ""))) {
+			return MessageManager.getMessage(messageSource, ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+		}
+		// 郵便番号・電話番号は数字とハイフンのみ
+		if (!NUMBER_WITH_HYPHEN.matcher(record.get(1).strip()).matches()
+				|| !NUMBER_WITH_HYPHEN.matcher(record.get(3).strip()).matches()) {
+			return MessageManager.getMessage(messageSource, ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+		}
+		// センター名・郵便番号・住所・電話番号・管理者名・稼働状況・最大容量・現在容量は必須
+		for (int i = 0; i < COLUMN_COUNT - 1; i++) {
+			if (record.get(i).isBlank()) {
+				return MessageManager.getMessage(messageSource, ErrorMessage.CSV_IMPORT_REQUIRED_ERROR_MESSAGE);
+			}
+		}
+		if (record.get(0).length() > ModelAttributeContents.MAX_CENTER_NAME_LENGTH) {
+			return MessageManager.getMessage(messageSource, ErrorMessage.CENTER_NAME_LENGTH_ERROR_MESSAGE);
+		}
+		if (Region.fromAddress(record.get(2)) == null) {
+			return MessageManager.getMessage(messageSource, ErrorMessage.CSV_IMPORT_ADDRESS_ERROR_MESSAGE);
+		}
+		String status = record.get(5).strip();
+		if (!"0".equals(status) && !"1".equals(status)) {
+			return MessageManager.getMessage(messageSource, ErrorMessage.CSV_IMPORT_STATUS_ERROR_MESSAGE);
+		}
+		if (!InputValidator.isValidNumber(record.get(6).strip())
+				|| !InputValidator.isValidNumber(record.get(7).strip())) {
+			return MessageManager.getMessage(messageSource, ErrorMessage.CSV_IMPORT_CAPACITY_ERROR_MESSAGE);
+		}
+		return null;
+	}
+
+	/**
+	 * 1行分を登録パラメータに変換
+	 * 
+	 * @param record CSVの1行（入力値チェック済み）
+	 * @param now 登録日時
+	 * @return 登録パラメータ
+	 */
+	private Object[] toParams(List<String> record, LocalDateTime now) {
+		String address = record.get(2).strip();
+		int maxCapacity = Integer.parseInt(record.get(6).strip());
+		int currentCapacity = Integer.parseInt(record.get(7).strip());
+		String notes = record.get(8).strip();
+		Timestamp timestamp = Timestamp.valueOf(now);
+		return new Object[] {
+				record.get(0).strip(),
+				record.get(1).strip(),
+				address,
+				Region.fromAddress(address).getCode(),
+				record.get(3).strip(),
+				record.get(4).strip(),
+				Integer.parseInt(record.get(5).strip()),
+				maxCapacity,
+				currentCapacity,
+				CenterInfo.calcUtilizationRate(currentCapacity, maxCapacity),
+				notes.isEmpty() ? null : notes,
+				DeleteFlagConsts.ACTIVE,
+				timestamp,
+				timestamp };
+	}
+
+	/**
+	 * 行番号付きのエラーメッセージを生成
+	 * 
+	 * @param lineNumber 行番号
+	 * @param error エラー内容
+	 * @return エラーメッセージ
+	 */
+	private String rowError(int lineNumber, String error) {
+		return MessageManager.getMessage(messageSource, ErrorMessage.CSV_IMPORT_ROW_ERROR_MESSAGE, lineNumber, error);
+	}
+}
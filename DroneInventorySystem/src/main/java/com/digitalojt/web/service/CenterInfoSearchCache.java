@@ -0,0 +1,84 @@
+package com.digitalojt.web.service;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.digitalojt.web.dto.KeysetPage;
+import com.digitalojt.web.dto.StockMovedEvent;
+import com.digitalojt.web.entity.CenterInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 在庫センター情報の検索結果キャッシュ
+ * ※件数上限と有効期間で追い出し、センター情報の登録・更新・削除時と在庫移動のコミット後に全件破棄する
+ *   ヒット・ミス・追い出し件数は "cache.*{cache=centerInfo}" メトリクスとして公開する
+ *
+ * @author dotlife
+ * 
+ */
+@Component
+public class CenterInfoSearchCache {
+
+	/** メトリクス上のキャッシュ名 */
+	private static final String CACHE_NAME = "centerInfo";
+
+	/** 検索条件 → 1ページ分の検索結果 */
+	private final Cache<String, KeysetPage<CenterInfo>> cache;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param maximumSize 最大保持件数
+	 * @param ttl 有効期間
+	 * @param meterRegistry メトリクスレジストリ
+	 */
+	public CenterInfoSearchCache(
+			@Value("${app.center-info.cache.maximum-size:1000}") long maximumSize,
+			@Value("${app.center-info.cache.ttl:10m}") Duration ttl,
+			MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * キャッシュから取得し、無ければ読み込んで格納
+	 * 
+	 * @param key 正規化済みの検索条件
+	 * @param loader 読み込み処理
+	 * @return 1ページ分の検索結果
+	 */
+	public KeysetPage<CenterInfo> get(String key, Function<String, KeysetPage<CenterInfo>> loader) {
+		return cache.get(key, loader);
+	}
+
+	/**
+	 * 全件破棄
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * 在庫移動の反映（コミット後）
+	 * ※在庫数の増減は現在容量・使用率をUPDATE文で直接更新し、CenterInfoChangeListener を経由しないため、
+	 *   引当・調整・移管で現在容量が変わった時点で検索結果（使用率の絞り込み・並び順を含む）を破棄する
+	 * 
+	 * @param event 在庫移動イベント
+	 */
+	@TransactionalEventListener
+	public void onStockMoved(StockMovedEvent event) {
+		cache.invalidateAll();
+	}
+}
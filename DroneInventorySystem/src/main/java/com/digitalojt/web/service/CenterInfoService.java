@@ -1,11 +1,26 @@
 package com.digitalojt.web.service;
 
+import java.io.OutputStream;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.digitalojt.web.consts.CsvExportConsts;
+import com.digitalojt.web.consts.ModelAttributeContents;
+import com.digitalojt.web.consts.Region;
+import com.digitalojt.web.dto.KeysetPage;
 import com.digitalojt.web.entity.CenterInfo;
+import com.digitalojt.web.form.CenterInfoForm;
 import com.digitalojt.web.repository.CenterInfoRepository;
+import com.digitalojt.web.util.CsvWriter;
+
+import jakarta.persistence.EntityManager;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,23 +37,291 @@ public class CenterInfoService {
 	/** センター情報テーブル リポジトリー */
 	private final CenterInfoRepository repository;
 
+	/** センター名インデックス */
+	private final CenterNameIndex centerNameIndex;
+
+	/** 在庫センター情報 検索キャッシュ */
+	private final CenterInfoSearchCache searchCache;
+
+	/** エンティティマネージャー */
+	private final EntityManager entityManager;
+
+	/** キャッシュキーの区切り文字 */
+	private static final String KEY_SEPARATOR = "\u0000";
+
+	/** センターIDで絞り込まない場合のダミー条件（空のIN句を避けるため） */
+	private static final List<Integer> NO_CENTER_IDS = List.of(0);
+
+	/** センター名の候補IDによる絞り込み（IN句）の最大件数 */
+	private static final int MAX_CANDIDATE_IDS = 1000;
+
+	/**
+	 * 稼働中の在庫センター情報を1ページ分取得
+	 * 
+	 * @param lastCenterId 前ページ最終行のセンターID（先頭ページはnull）
+	 * @param pageSize 1ページあたりの件数（nullの場合は既定値）
+	 * @return 1ページ分の在庫センター情報
+	 */
+	public KeysetPage<CenterInfo> getCenterInfoData(Integer lastCenterId, Integer pageSize) {
+		int size = normalizePageSize(pageSize);
+		int cursor = normalizeCursor(lastCenterId);
+		String key = String.join(KEY_SEPARATOR, "list", String.valueOf(cursor), String.valueOf(size));
+		return searchCache.get(key, k -> KeysetPage.of(
+				repository.findActiveCentersAfter(cursor, PageRequest.ofSize(size + 1)), size));
+	}
+
+	/**
+	 * 引数に合致する在庫センター情報を1ページ分取得
+	 * 
+	 * @param form 検索条件・ページングカーソル
+	 * @return 1ページ分の在庫センター情報
+	 */
+	public KeysetPage<CenterInfo> getCenterInfoData(CenterInfoForm form) {
+		// 表記揺れ（全角・半角、前後の空白）は同一の検索として扱う
+		form.setCenterName(normalizeKeyword(form.getCenterName()));
+		form.setRegion(normalizeKeyword(form.getRegion()));
+		return searchCache.get(searchKey(form), key -> searchCenterInfoData(form));
+	}
+
+	/**
+	 * 引数に合致する在庫センター情報をDBから1ページ分取得
+	 * 
+	 * @param form 検索条件・ページングカーソル
+	 * @return 1ページ分の在庫センター情報
+	 */
+	private KeysetPage<CenterInfo> searchCenterInfoData(CenterInfoForm form) {
+		int size = normalizePageSize(form.getPageSize());
+		String centerName = form.getCenterName();
+		String region = form.getRegion();
+
+		// 都道府県は住所の部分一致ではなく、都道府県コードの一致で検索する
+		Integer prefectureCode = null;
+		if (region != null && !region.isEmpty()) {
+			Region target = Region.fromName(region);
+			if (target == null) {
+				return KeysetPage.of(Collections.emptyList(), size);
+			}
+			prefectureCode = target.getCode();
+		}
+
+		// 容量(From)は容量(To)のみ入力された場合に初期値を補完する
+		Integer capacityFrom = form.init();
+		Integer capacityTo = form.getStorageCapacityTo();
+		boolean byUtilization = ModelAttributeContents.SORT_UTILIZATION.equals(form.getSortKey());
+
+		List<CenterInfo> rows;
+		if (centerName == null || centerName.isEmpty()) {
+			rows = byUtilization
+					? findByUtilization(form, prefectureCode, capacityFrom, capacityTo, false, NO_CENTER_IDS, size + 1)
+					: repository.findActiveCenters(prefectureCode, capacityFrom, capacityTo, false, NO_CENTER_IDS,
+							normalizeCursor(form.getLastCenterId()), PageRequest.ofSize(size + 1));
+		} else if (byUtilization) {
+			rows = searchByNameAndUtilization(form, centerName, prefectureCode, capacityFrom, capacityTo, size + 1);
+		} else {
+			rows = searchByName(form, centerName, prefectureCode, capacityFrom, capacityTo, size + 1);
+		}
+		return KeysetPage.of(rows, size);
+	}
+
+	/**
+	 * センター名の部分一致で、センターIDの昇順に1ページ分取得
+	 * ※センター名インデックスからカーソル以降の候補IDを一定件数ずつ取り出し、容量の条件はDBで判定する
+	 *   容量の条件が無い場合は、1回目の候補IDがそのまま1ページ分となる
+	 * 
+	 * @param form 検索条件・ページングカーソル
+	 * @param centerName 正規化済みのセンター名
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @param capacityFrom 最大容量の下限（nullの場合は条件なし）
+	 * @param capacityTo 最大容量の上限（nullの場合は条件なし）
+	 * @param limit 取得件数
+	 * @return 在庫センター情報（最大limit件）
+	 */
+	private List<CenterInfo> searchByName(CenterInfoForm form, String centerName, Integer prefectureCode,
+			Integer capacityFrom, Integer capacityTo, int limit) {
+		boolean byCapacity = capacityFrom != null || capacityTo != null;
+		int chunkSize = byCapacity ? Math.max(limit, MAX_CANDIDATE_IDS) : limit;
+		int cursor = normalizeCursor(form.getLastCenterId());
+
+		List<CenterInfo> rows = new ArrayList<>();
+		while (rows.size() < limit) {
+			List<Integer> centerIds = centerNameIndex.search(centerName, prefectureCode, cursor, chunkSize);
+			if (centerIds.isEmpty()) {
+				break;
+			}
+			rows.addAll(repository.findActiveCenters(prefectureCode, capacityFrom, capacityTo, true, centerIds,
+					cursor, PageRequest.ofSize(limit - rows.size())));
+			if (centerIds.size() < chunkSize) {
+				break;
+			}
+			cursor = centerIds.get(centerIds.size() - 1);
+		}
+		return rows;
+	}
+
+	/**
+	 * センター名の部分一致で、使用率の降順に1ページ分取得
+	 * ※候補が MAX_CANDIDATE_IDS 件以下の場合は候補IDで絞り込む
+	 *   それより多い場合は使用率の順にDBから一定件数ずつ読み、センター名インデックスで判定する
+	 *   （候補が多いほど一致する行の割合が高く、少ない読み込みで1ページ分がそろう）
+	 * 
+	 * @param form 検索条件・ページングカーソル
+	 * @param centerName 正規化済みのセンター名
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @param capacityFrom 最大容量の下限（nullの場合は条件なし）
+	 * @param capacityTo 最大容量の上限（nullの場合は条件なし）
+	 * @param limit 取得件数
+	 * @return 在庫センター情報（最大limit件）
+	 */
+	private List<CenterInfo> searchByNameAndUtilization(CenterInfoForm form, String centerName,
+			Integer prefectureCode, Integer capacityFrom, Integer capacityTo, int limit) {
+		List<Integer> centerIds = centerNameIndex.search(centerName, prefectureCode, 0, MAX_CANDIDATE_IDS + 1);
+		if (centerIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		if (centerIds.size() <= MAX_CANDIDATE_IDS) {
+			return findByUtilization(form, prefectureCode, capacityFrom, capacityTo, true, centerIds, limit);
+		}
+
+		int lastUtilizationRate = normalizeUtilizationCursor(form.getLastUtilizationRate());
+		int lastCenterId = normalizeUtilizationCenterCursor(form.getLastCenterId());
+		List<CenterInfo> rows = new ArrayList<>();
+		while (rows.size() < limit) {
+			List<CenterInfo> scanned = repository.findActiveCentersByUtilization(prefectureCode, capacityFrom,
+					capacityTo, false, NO_CENTER_IDS, lastUtilizationRate, lastCenterId,
+					PageRequest.ofSize(MAX_CANDIDATE_IDS));
+			for (CenterInfo row : scanned) {
+				if (rows.size() < limit && centerNameIndex.matches(row.getCenterId(), centerName, prefectureCode)) {
+					rows.add(row);
+				}
+			}
+			if (scanned.size() < MAX_CANDIDATE_IDS) {
+				break;
+			}
+			CenterInfo last = scanned.get(scanned.size() - 1);
+			lastUtilizationRate = last.getUtilizationRate();
+			lastCenterId = last.getCenterId();
+		}
+		return rows;
+	}
+
+	/**
+	 * 使用率の降順に1ページ分取得
+	 * 
+	 * @param form 検索条件・ページングカーソル
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @param capacityFrom 最大容量の下限（nullの場合は条件なし）
+	 * @param capacityTo 最大容量の上限（nullの場合は条件なし）
+	 * @param filterByIds センターIDで絞り込むかどうか
+	 * @param centerIds 候補のセンターID
+	 * @param limit 取得件数
+	 * @return 在庫センター情報（最大limit件）
+	 */
+	private List<CenterInfo> findByUtilization(CenterInfoForm form, Integer prefectureCode, Integer capacityFrom,
+			Integer capacityTo, boolean filterByIds, List<Integer> centerIds, int limit) {
+		return repository.findActiveCentersByUtilization(prefectureCode, capacityFrom, capacityTo, filterByIds,
+				centerIds, normalizeUtilizationCursor(form.getLastUtilizationRate()),
+				normalizeUtilizationCenterCursor(form.getLastCenterId()), PageRequest.ofSize(limit));
+	}
+
+	/**
+	 * 全在庫センター情報をCSV出力
+	 * ※行単位で読み込み、一定行数ごとに永続化コンテキストをクリアして一定メモリで出力する
+	 * 
+	 * @param outputStream 出力先
+	 */
+	@Transactional(readOnly = true)
+	public void exportCsv(OutputStream outputStream) {
+		CsvWriter csv = new CsvWriter(outputStream);
+		csv.writeRow((Object[]) CsvExportConsts.CENTER_INFO_HEADER);
+
+		try (Stream<CenterInfo> rows = repository.streamAll()) {
+			int count = 0;
+			for (CenterInfo row : (Iterable<CenterInfo>) rows::iterator) {
+				csv.writeRow(row.getCenterId(), row.getCenterName(), row.getPostCode(), row.getAddress(),
+						row.getPhoneNumber(), row.getManagerName(), row.getOperationalStatus(),
+						row.getMaxStorageCapacity(), row.getCurrentStorageCapacity(), row.getNotes(),
+						row.getDeleteFlag(), row.getCreateDate(), row.getUpdateDate());
+				if (++count % CsvExportConsts.CLEAR_INTERVAL == 0) {
+					entityManager.clear();
+					csv.flush();
+				}
+			}
+		}
+		csv.flush();
+	}
+
+	/**
+	 * 検索条件からキャッシュキーを生成
+	 * 
+	 * @param form 正規化済みの検索条件・ページングカーソル
+	 * @return キャッシュキー
+	 */
+	private String searchKey(CenterInfoForm form) {
+		return String.join(KEY_SEPARATOR,
+				"search",
+				form.getCenterName(),
+				form.getRegion(),
+				String.valueOf(form.init()),
+				String.valueOf(form.getStorageCapacityTo()),
+				ModelAttributeContents.SORT_UTILIZATION.equals(form.getSortKey()) ? form.getSortKey() : "",
+				String.valueOf(form.getLastUtilizationRate()),
+				String.valueOf(form.getLastCenterId()),
+				String.valueOf(normalizePageSize(form.getPageSize())));
+	}
+
+	/**
+	 * 検索文字列の表記揺れを吸収
+	 * 
+	 * @param keyword
+	 * @return 正規化済み文字列
+	 */
+	private String normalizeKeyword(String keyword) {
+		if (keyword == null) {
+			return "";
+		}
+		return Normalizer.normalize(keyword, Normalizer.Form.NFKC).strip();
+	}
+
+	/**
+	 * ページサイズを上限・下限の範囲に丸める
+	 * 
+	 * @param pageSize
+	 * @return 丸めたページサイズ
+	 */
+	private int normalizePageSize(Integer pageSize) {
+		if (pageSize == null || pageSize <= 0) {
+			return ModelAttributeContents.CENTER_INFO_PAGE_SIZE;
+		}
+		return Math.min(pageSize, ModelAttributeContents.MAX_CENTER_INFO_PAGE_SIZE);
+	}
+
+	/**
+	 * 使用率順のカーソル未指定の場合は先頭ページとして扱う
+	 * 
+	 * @param lastUtilizationRate
+	 * @return カーソル値
+	 */
+	private int normalizeUtilizationCursor(Integer lastUtilizationRate) {
+		return lastUtilizationRate == null ? Integer.MAX_VALUE : lastUtilizationRate;
+	}
+
 	/**
-	 * 在庫センター情報を全建検索で取得
+	 * 使用率順のセンターIDカーソル（センターIDの降順）未指定の場合は先頭ページとして扱う
 	 * 
-	 * @return
+	 * @param lastCenterId
+	 * @return カーソル値
 	 */
-	public List<CenterInfo> getCenterInfoData() {
-		return repository.findAll();
+	private int normalizeUtilizationCenterCursor(Integer lastCenterId) {
+		return lastCenterId == null ? Integer.MAX_VALUE : lastCenterId;
 	}
 
 	/**
-	 * 引数に合致する在庫センター情報を取得
+	 * カーソル未指定の場合は先頭ページとして扱う
 	 * 
-	 * @param centerName
-	 * @param region 
-	 * @return
+	 * @param lastCenterId
+	 * @return カーソル値
 	 */
-	public List<CenterInfo> getCenterInfoData(String centerName, String region) {
-		return repository.findActiveCenters(centerName, region);
+	private int normalizeCursor(Integer lastCenterId) {
+		return lastCenterId == null || lastCenterId < 0 ? 0 : lastCenterId;
 	}
 }
@@ -0,0 +1,288 @@
+package com.digitalojt.web.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.digitalojt.web.consts.DeleteFlagConsts;
+import com.digitalojt.web.entity.CenterInfo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * センター名の部分一致検索用 N-gram 転置インデックス
+ * ※稼働中かつ未削除のセンターのみを保持する
+ *   起動時にセンター情報テーブルから再構築し、登録・更新・削除の都度差分を反映する
+ *
+ * @author dotlife
+ * 
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CenterNameIndex {
+
+	/** 稼働状況ステータス：稼働中 */
+	private static final int OPERATIONAL = 0;
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/** 読み書きロック */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** センターID → 索引済みセンター */
+	private final Map<Integer, IndexedCenter> centers = new HashMap<>();
+
+	/** N-gram → センターIDの集合 */
+	private final Map<String, Set<Integer>> postings = new HashMap<>();
+
+	/**
+	 * 索引済みセンター
+	 * 
+	 * @param centerId センターID
+	 * @param normalizedName 正規化済みセンター名
+	 * @param prefectureCode 都道府県コード
+	 */
+	private record IndexedCenter(int centerId, String normalizedName, Integer prefectureCode) {
+	}
+
+	/**
+	 * 起動時にセンター情報テーブルからインデックスを再構築
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		Map<Integer, IndexedCenter> loaded = new HashMap<>();
+		jdbcTemplate.query(
+				"SELECT center_id, center_name, prefecture_code FROM center_info "
+						+ "WHERE operational_status = ? AND delete_flag = ?",
+				rs -> {
+					int centerId = rs.getInt("center_id");
+					Integer prefectureCode = rs.getObject("prefecture_code", Integer.class);
+					loaded.put(centerId, new IndexedCenter(centerId, normalize(rs.getString("center_name")),
+							prefectureCode));
+				},
+				OPERATIONAL, DeleteFlagConsts.ACTIVE);
+
+		lock.writeLock().lock();
+		try {
+			centers.clear();
+			postings.clear();
+			loaded.values().forEach(this::addPostings);
+			centers.putAll(loaded);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("センター名インデックス再構築: {} 件", loaded.size());
+	}
+
+	/**
+	 * センター情報の登録・更新を反映
+	 * ※稼働停止・削除済みとなったセンターはインデックスから除外する
+	 * 
+	 * @param centerInfo センター情報
+	 */
+	public void put(CenterInfo centerInfo) {
+		boolean active = Integer.valueOf(OPERATIONAL).equals(centerInfo.getOperationalStatus())
+				&& Integer.valueOf(DeleteFlagConsts.ACTIVE).equals(centerInfo.getDeleteFlag());
+
+		lock.writeLock().lock();
+		try {
+			removePostings(centers.remove(centerInfo.getCenterId()));
+			if (active) {
+				IndexedCenter center = new IndexedCenter(centerInfo.getCenterId(),
+						normalize(centerInfo.getCenterName()), centerInfo.getPrefectureCode());
+				centers.put(center.centerId(), center);
+				addPostings(center);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * センター情報の削除を反映
+	 * 
+	 * @param centerId センターID
+	 */
+	public void remove(int centerId) {
+		lock.writeLock().lock();
+		try {
+			removePostings(centers.remove(centerId));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * センター名の部分一致でセンターIDを検索
+	 * 
+	 * @param centerName センター名（部分一致）
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @param lastCenterId このセンターIDより後ろを対象とする（先頭は0）
+	 * @param limit 最大件数
+	 * @return 条件に一致するセンターID（昇順・最大limit件）
+	 */
+	public List<Integer> search(String centerName, Integer prefectureCode, int lastCenterId, int limit) {
+		String keyword = normalize(centerName);
+		if (keyword.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		List<Integer> matched = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			// 最も件数の少ない N-gram の転置リストを候補とする
+			Set<Integer> candidates = null;
+			for (String gram : ngrams(keyword)) {
+				Set<Integer> posting = postings.get(gram);
+				if (posting == null) {
+					return Collections.emptyList();
+				}
+				if (candidates == null || posting.size() < candidates.size()) {
+					candidates = posting;
+				}
+			}
+
+			// 候補をセンター名・都道府県で確定
+			for (Integer centerId : candidates) {
+				if (centerId <= lastCenterId) {
+					continue;
+				}
+				if (matches(centers.get(centerId), keyword, prefectureCode)) {
+					matched.add(centerId);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		Collections.sort(matched);
+		return matched.size() > limit ? matched.subList(0, limit) : matched;
+	}
+
+	/**
+	 * センターがセンター名の部分一致・都道府県の条件に一致するかどうか
+	 * 
+	 * @param centerId センターID
+	 * @param centerName センター名（部分一致）
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @return 一致する場合はtrue（インデックスに無いセンターはfalse）
+	 */
+	public boolean matches(int centerId, String centerName, Integer prefectureCode) {
+		String keyword = normalize(centerName);
+		lock.readLock().lock();
+		try {
+			return !keyword.isEmpty() && matches(centers.get(centerId), keyword, prefectureCode);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 索引済みセンターが条件に一致するかどうか
+	 * 
+	 * @param center 索引済みセンター（nullの場合は不一致）
+	 * @param keyword 正規化済み検索語
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @return 一致する場合はtrue
+	 */
+	private static boolean matches(IndexedCenter center, String keyword, Integer prefectureCode) {
+		return center != null && center.normalizedName().contains(keyword)
+				&& (prefectureCode == null || prefectureCode.equals(center.prefectureCode()));
+	}
+
+	/**
+	 * 転置リストへ追加
+	 * 
+	 * @param center
+	 */
+	private void addPostings(IndexedCenter center) {
+		for (String gram : indexGrams(center.normalizedName())) {
+			postings.computeIfAbsent(gram, key -> new HashSet<>()).add(center.centerId());
+		}
+	}
+
+	/**
+	 * 転置リストから除外
+	 * 
+	 * @param center
+	 */
+	private void removePostings(IndexedCenter center) {
+		if (center == null) {
+			return;
+		}
+		for (String gram : indexGrams(center.normalizedName())) {
+			Set<Integer> posting = postings.get(gram);
+			if (posting != null) {
+				posting.remove(center.centerId());
+				if (posting.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 索引語（1文字 + 2文字）を生成
+	 * ※1文字の検索語にも対応するため、ユニグラムも索引する
+	 * 
+	 * @param text 正規化済み文字列
+	 * @return 索引語の集合
+	 */
+	private static Set<String> indexGrams(String text) {
+		Set<String> grams = new LinkedHashSet<>();
+		int[] codePoints = text.codePoints().toArray();
+		for (int i = 0; i < codePoints.length; i++) {
+			grams.add(new String(codePoints, i, 1));
+			if (i + 1 < codePoints.length) {
+				grams.add(new String(codePoints, i, 2));
+			}
+		}
+		return grams;
+	}
+
+	/**
+	 * 検索語の N-gram を生成（2文字以上はバイグラム、1文字はユニグラム）
+	 * 
+	 * @param keyword 正規化済み検索語
+	 * @return N-gram の集合
+	 */
+	private static Set<String> ngrams(String keyword) {
+		int[] codePoints = keyword.codePoints().toArray();
+		if (codePoints.length == 1) {
+			return Set.of(keyword);
+		}
+		Set<String> grams = new LinkedHashSet<>();
+		for (int i = 0; i + 1 < codePoints.length; i++) {
+			grams.add(new String(codePoints, i, 2));
+		}
+		return grams;
+	}
+
+	/**
+	 * 全角・半角、大文字・小文字の揺れを吸収
+	 * 
+	 * @param text
+	 * @return 正規化済み文字列
+	 */
+	private static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase();
+	}
+}
@@ -0,0 +1,252 @@
+package com.digitalojt.web.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.dto.LowStockAlert;
+import com.digitalojt.web.dto.StockMovedEvent;
+import com.digitalojt.web.repository.LowStockRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 在庫不足の検知
+ * ※発注点付近（在庫数 - 発注点 <= watchMargin）の在庫を、発注点との差の昇順に並べて保持する
+ *   差が負の在庫が在庫不足。在庫移動イベントのコミット後にその在庫だけを読み直して反映し、
+ *   発注点の変更（補充数の予測バッチが在庫情報に反映する）など移動を伴わない変化は、
+ *   定期的な在庫情報の全件照合（キーセットで少量ずつ）で反映する
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@Slf4j
+public class LowStockDetector {
+
+	/** 保持順序（発注点との差の昇順） */
+	private static final Comparator<Tracked> MARGIN_ORDER = Comparator
+			.comparingLong((Tracked tracked) -> tracked.alert().getMargin())
+			.thenComparingInt(tracked -> tracked.alert().getStockId());
+
+	/** 在庫読み込み */
+	private final LowStockRepository lowStockRepository;
+
+	/** 発注点を超えていても保持する差の上限 */
+	private final int watchMargin;
+
+	/** 在庫不足でない在庫を含めた保持件数の上限 */
+	private final int capacity;
+
+	/** 全件照合の1回あたりの読み込み件数 */
+	private final int batchSize;
+
+	/** 在庫ID → 保持中の在庫 */
+	private final Map<Integer, Tracked> trackedByStockId = new HashMap<>();
+
+	/** （在庫センターID, 部品ID） → 在庫ID */
+	private final Map<Long, Integer> stockIdByKey = new HashMap<>();
+
+	/** 発注点との差の昇順 */
+	private final TreeSet<Tracked> byMargin = new TreeSet<>(MARGIN_ORDER);
+
+	/** 全件照合の世代（照合で読み込めなかった在庫の除外に使う） */
+	private long generation;
+
+	/** 在庫不足の件数 */
+	private int belowCount;
+
+	/**
+	 * 保持中の在庫
+	 *
+	 * @param alert 在庫
+	 * @param generation 最後に反映した全件照合の世代
+	 */
+	private record Tracked(LowStockAlert alert, long generation) {
+	}
+
+	/**
+	 * コンストラクタ
+	 */
+	public LowStockDetector(LowStockRepository lowStockRepository, MeterRegistry meterRegistry,
+			@Value("${app.stock.low-stock.watch-margin:10}") int watchMargin,
+			@Value("${app.stock.low-stock.capacity:10000}") int capacity,
+			@Value("${app.stock.low-stock.batch-size:1000}") int batchSize) {
+		this.lowStockRepository = lowStockRepository;
+		this.watchMargin = watchMargin;
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+
+		Gauge.builder("stock.low_stock.alerts", this, LowStockDetector::getBelowCount)
+				.description("在庫数が発注点を下回っている在庫の件数")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 在庫移動の反映（コミット後）
+	 * ※在庫が減った場合と、保持中の在庫が増えた場合のみ読み直す
+	 *
+	 * @param event 在庫移動イベント
+	 */
+	@TransactionalEventListener
+	public void onStockMoved(StockMovedEvent event) {
+		if (event.getQuantity() >= 0 && !isTracked(event.getCenterId(), event.getPartId())) {
+			return;
+		}
+		try {
+			LowStockAlert row = lowStockRepository.findOne(event.getCenterId(), event.getPartId());
+			synchronized (this) {
+				if (row == null) {
+					Integer stockId = stockIdByKey.get(key(event.getCenterId(), event.getPartId()));
+					if (stockId != null) {
+						remove(stockId);
+					}
+				} else {
+					evaluate(row, generation);
+				}
+			}
+		} catch (DataAccessException e) {
+			// 次回の全件照合で反映される
+			log.warn("在庫不足の検知: 在庫の読み込みに失敗しました center={} part={}", event.getCenterId(),
+					event.getPartId(), e);
+		}
+	}
+
+	/**
+	 * 全件照合
+	 * ※在庫IDのキーセットで少量ずつ読み込み、照合で読み込めなかった在庫（削除済み）は最後に除外する
+	 */
+	@Scheduled(fixedDelayString = "${app.stock.low-stock.sweep-interval-ms:600000}")
+	public void sweep() {
+		long current;
+		synchronized (this) {
+			current = ++generation;
+		}
+		try {
+			int lastStockId = 0;
+			while (true) {
+				List<LowStockAlert> rows = lowStockRepository.findBatch(lastStockId, batchSize);
+				synchronized (this) {
+					rows.forEach(row -> evaluate(row, current));
+				}
+				if (rows.size() < batchSize) {
+					break;
+				}
+				lastStockId = rows.get(rows.size() - 1).getStockId();
+			}
+		} catch (DataAccessException e) {
+			log.error("在庫不足の検知: 全件照合に失敗しました", e);
+			return;
+		}
+		synchronized (this) {
+			List<Integer> stale = new ArrayList<>();
+			trackedByStockId.forEach((stockId, tracked) -> {
+				if (tracked.generation() < current) {
+					stale.add(stockId);
+				}
+			});
+			stale.forEach(this::remove);
+			log.info("在庫不足の検知: 全件照合 在庫不足 {} 件 / 保持 {} 件", belowCount, trackedByStockId.size());
+		}
+	}
+
+	/**
+	 * 在庫不足の一覧を取得（不足の大きい順）
+	 *
+	 * @param category 分類（nullの場合は条件なし）
+	 * @param prefectureCode 都道府県コード（nullの場合は条件なし）
+	 * @param limit 取得件数の上限
+	 * @return 在庫不足の一覧
+	 */
+	public synchronized List<LowStockAlert> getAlerts(Category category, Integer prefectureCode, int limit) {
+		List<LowStockAlert> alerts = new ArrayList<>();
+		for (Tracked tracked : byMargin) {
+			LowStockAlert alert = tracked.alert();
+			if (!alert.isBelowReorderPoint() || alerts.size() >= limit) {
+				break;
+			}
+			if ((category == null || category == alert.getCategory())
+					&& (prefectureCode == null || prefectureCode.equals(alert.getPrefectureCode()))) {
+				alerts.add(alert);
+			}
+		}
+		return alerts;
+	}
+
+	/**
+	 * 在庫不足の件数を取得
+	 *
+	 * @return 在庫不足の件数
+	 */
+	public synchronized int getBelowCount() {
+		return belowCount;
+	}
+
+	/**
+	 * 保持中かどうか
+	 */
+	private synchronized boolean isTracked(int centerId, int partId) {
+		return stockIdByKey.containsKey(key(centerId, partId));
+	}
+
+	/**
+	 * 在庫を評価し、発注点付近であれば保持・そうでなければ除外（同期化済みで呼び出すこと）
+	 *
+	 * @param row 在庫
+	 * @param rowGeneration 反映する世代
+	 */
+	private void evaluate(LowStockAlert row, long rowGeneration) {
+		remove(row.getStockId());
+		if (row.getReorderPoint() <= 0 || row.getMargin() > watchMargin) {
+			return;
+		}
+		Tracked tracked = new Tracked(row, rowGeneration);
+		trackedByStockId.put(row.getStockId(), tracked);
+		stockIdByKey.put(key(row.getCenterId(), row.getPartId()), row.getStockId());
+		byMargin.add(tracked);
+		if (row.isBelowReorderPoint()) {
+			belowCount++;
+		}
+
+		// 上限を超えた場合は、発注点から最も遠い在庫不足でない在庫から除外する
+		while (trackedByStockId.size() > capacity && !byMargin.last().alert().isBelowReorderPoint()) {
+			remove(byMargin.last().alert().getStockId());
+		}
+	}
+
+	/**
+	 * 保持中の在庫を除外（同期化済みで呼び出すこと）
+	 *
+	 * @param stockId 在庫ID
+	 */
+	private void remove(int stockId) {
+		Tracked tracked = trackedByStockId.remove(stockId);
+		if (tracked == null) {
+			return;
+		}
+		byMargin.remove(tracked);
+		stockIdByKey.remove(key(tracked.alert().getCenterId(), tracked.alert().getPartId()));
+		if (tracked.alert().isBelowReorderPoint()) {
+			belowCount--;
+		}
+	}
+
+	/**
+	 * （在庫センターID, 部品ID） のキー
+	 */
+	private static long key(int centerId, int partId) {
+		return ((long) centerId << 32) | (partId & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,414 @@
+package com.digitalojt.web.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.digitalojt.web.dto.AdminName;
+import com.digitalojt.web.dto.OperationLogExportRow;
+import com.digitalojt.web.dto.OperationLogView;
+import com.digitalojt.web.repository.AdminInfoRepository;
+import com.digitalojt.web.util.CsvReader;
+import com.digitalojt.web.util.CsvWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 操作履歴のアーカイブファイル（月別・gzip圧縮CSV）の読み書き
+ * ※保持期間を過ぎてDBから削除した月の操作履歴を、ローカルディスク上の1ヶ月1ファイルに保存する
+ *   ファイル内の行は操作時刻・ログIDの昇順
+ *
+ * @author dotlife
+ *
+ */
+@Component
+@Slf4j
+public class OperationLogArchive {
+
+	/** ファイル名の形式 */
+	private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("'operation_log_'yyyyMM'.csv.gz'");
+
+	/** ヘッダー行 */
+	private static final String[] HEADER = { "log_id", "admin_id", "table_key", "operate_type", "status",
+			"operation_details", "delete_flag", "create_date", "update_date" };
+
+	/** 列番号 */
+	private static final int COL_LOG_ID = 0;
+	private static final int COL_ADMIN_ID = 1;
+	private static final int COL_TABLE_KEY = 2;
+	private static final int COL_OPERATE_TYPE = 3;
+	private static final int COL_STATUS = 4;
+	private static final int COL_OPERATION_DETAILS = 5;
+	private static final int COL_DELETE_FLAG = 6;
+	private static final int COL_CREATE_DATE = 7;
+	private static final int COL_UPDATE_DATE = 8;
+
+	/** 保存先ディレクトリ */
+	private final Path directory;
+
+	/** 管理者情報テーブル リポジトリー（管理者名の解決用） */
+	private final AdminInfoRepository adminInfoRepository;
+
+	/** この年月より前の操作履歴はDBに無く、アーカイブファイルにのみ存在する */
+	private volatile YearMonth archivedBefore;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param directory 保存先ディレクトリ
+	 * @param adminInfoRepository 管理者情報テーブル リポジトリー
+	 */
+	public OperationLogArchive(@Value("${app.operation-log.archive.dir:./archive/operation_log}") String directory,
+			AdminInfoRepository adminInfoRepository) {
+		this.directory = Paths.get(directory);
+		this.adminInfoRepository = adminInfoRepository;
+	}
+
+	/**
+	 * DBに残っている最も古い年月を設定
+	 *
+	 * @param archivedBefore この年月より前はアーカイブファイルから読み込む
+	 */
+	public void setArchivedBefore(YearMonth archivedBefore) {
+		this.archivedBefore = archivedBefore;
+	}
+
+	/**
+	 * アーカイブの境界日時を取得
+	 *
+	 * @return この日時より前の操作履歴はアーカイブファイルにのみ存在する（未設定の場合はnull）
+	 */
+	public LocalDateTime getBoundary() {
+		YearMonth before = archivedBefore;
+		return before == null ? null : before.atDay(1).atStartOfDay();
+	}
+
+	/**
+	 * 検索条件の操作時刻の範囲がアーカイブ済みの期間を含むかどうか
+	 * ※操作時刻の範囲が指定されていない検索はDBのみを対象とする
+	 *
+	 * @param createDate 操作時刻 開始日
+	 * @param updateDate 操作時刻 終了日
+	 * @return アーカイブファイルの読み込みが必要な場合はtrue
+	 */
+	public boolean covers(LocalDateTime createDate, LocalDateTime updateDate) {
+		LocalDateTime boundary = getBoundary();
+		return boundary != null && createDate != null && updateDate != null && createDate.isBefore(boundary);
+	}
+
+	/**
+	 * 1ヶ月分の操作履歴をアーカイブファイルに書き込む
+	 * ※一時ファイルに書き込んでから置き換えるため、書き込み途中のファイルが読まれることはない
+	 *
+	 * @param month 年月
+	 * @param body 行の書き込み処理（ヘッダー行は書き込み済み）
+	 * @return 書き込んだファイル
+	 */
+	public Path write(YearMonth month, Consumer<CsvWriter> body) {
+		Path file = directory.resolve(month.format(FILE_NAME_FORMAT));
+		try {
+			Files.createDirectories(directory);
+			Path temp = Files.createTempFile(directory, month.format(FILE_NAME_FORMAT), ".tmp");
+			try {
+				try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+					CsvWriter csv = new CsvWriter(out);
+					csv.writeRow((Object[]) HEADER);
+					body.accept(csv);
+					csv.flush();
+				}
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return file;
+	}
+
+	/**
+	 * アーカイブ済みの操作履歴を操作時刻・ログIDのキーセットで取得
+	 * ※gzipファイルは途中から読めないため、前ページ（after=false）は月ファイルの先頭からカーソル行までを
+	 *   毎回読み直す（カーソル行以降は読まない）。1ページあたり最大で1ヶ月分の展開・走査が発生する
+	 *
+	 * @param adminIds 管理者ID（nullの場合は絞り込まない）
+	 * @param operateType 操作の種類
+	 * @param status 操作ステータス
+	 * @param createDate 操作時刻 開始日
+	 * @param updateDate 操作時刻 終了日
+	 * @param cursorDate カーソル行の操作時刻（nullの場合は先頭・末尾から）
+	 * @param cursorLogId カーソル行のログID
+	 * @param after true:カーソルより後ろを昇順で取得, false:カーソルより前を降順で取得
+	 * @param limit 取得件数
+	 * @return 条件に一致する操作履歴情報のリスト
+	 */
+	public List<OperationLogView> find(Collection<String> adminIds, Integer operateType, Integer status,
+			LocalDateTime createDate, LocalDateTime updateDate,
+			LocalDateTime cursorDate, int cursorLogId, boolean after, int limit) {
+		List<OperationLogView> rows = new ArrayList<>();
+		List<YearMonth> months = findMonths(createDate, updateDate);
+		if (months.isEmpty()) {
+			return rows;
+		}
+		Map<String, Optional<String>> adminNames = preloadAdminNames(adminIds);
+		if (!after) {
+			Collections.reverse(months);
+		}
+
+		for (YearMonth month : months) {
+			int needed = limit - rows.size();
+			if (needed <= 0) {
+				break;
+			}
+			if (after) {
+				scan(month, record -> {
+					if (matches(record, adminNames, adminIds, operateType, status, createDate, updateDate)
+							&& (cursorDate == null || compareToCursor(record, cursorDate, cursorLogId) > 0)) {
+						rows.add(toView(record, adminNames));
+					}
+					return rows.size() < limit;
+				});
+			} else {
+				// ファイル内は昇順のため、カーソルより前の末尾 needed 件を残す
+				Deque<OperationLogView> tail = new ArrayDeque<>(needed + 1);
+				scan(month, record -> {
+					if (cursorDate != null && compareToCursor(record, cursorDate, cursorLogId) >= 0) {
+						return false; // ファイル内は昇順のため、カーソル行以降は読まない
+					}
+					if (matches(record, adminNames, adminIds, operateType, status, createDate, updateDate)) {
+						tail.addLast(toView(record, adminNames));
+						if (tail.size() > needed) {
+							tail.removeFirst();
+						}
+					}
+					return true;
+				});
+				for (Iterator<OperationLogView> it = tail.descendingIterator(); it.hasNext();) {
+					rows.add(it.next());
+				}
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * アーカイブ済みの操作履歴の件数を上限付きで取得
+	 *
+	 * @param adminIds 管理者ID（nullの場合は絞り込まない）
+	 * @param operateType 操作の種類
+	 * @param status 操作ステータス
+	 * @param createDate 操作時刻 開始日
+	 * @param updateDate 操作時刻 終了日
+	 * @param limit 数える上限件数
+	 * @return 件数（最大 limit）
+	 */
+	public long count(Collection<String> adminIds, Integer operateType, Integer status,
+			LocalDateTime createDate, LocalDateTime updateDate, long limit) {
+		List<YearMonth> months = findMonths(createDate, updateDate);
+		if (months.isEmpty()) {
+			return 0;
+		}
+		Map<String, Optional<String>> adminNames = preloadAdminNames(adminIds);
+		long[] count = { 0 };
+		for (YearMonth month : months) {
+			if (count[0] >= limit) {
+				break;
+			}
+			scan(month, record -> {
+				if (matches(record, adminNames, adminIds, operateType, status, createDate, updateDate)) {
+					count[0]++;
+				}
+				return count[0] < limit;
+			});
+		}
+		return count[0];
+	}
+
+	/**
+	 * CSV出力用：操作時刻の範囲に合致するアーカイブ済みの操作履歴を古い順に1行ずつ渡す
+	 * ※DBの CSV出力と同じく、管理者情報が存在しない操作履歴は出力しない
+	 *
+	 * @param createDate 操作時刻 開始日
+	 * @param updateDate 操作時刻 終了日
+	 * @param handler 1行ごとの処理
+	 */
+	public void export(LocalDateTime createDate, LocalDateTime updateDate, Consumer<OperationLogExportRow> handler) {
+		List<YearMonth> months = findMonths(createDate, updateDate);
+		if (months.isEmpty()) {
+			return;
+		}
+		Map<String, Optional<String>> adminNames = new HashMap<>();
+		for (YearMonth month : months) {
+			scan(month, record -> {
+				if (matches(record, adminNames, null, null, null, createDate, updateDate)) {
+					handler.accept(toExportRow(record, adminNames));
+				}
+				return true;
+			});
+		}
+	}
+
+	/**
+	 * 操作時刻の範囲に含まれるアーカイブ済みの年月を取得（古い順）
+	 *
+	 * @param createDate 操作時刻 開始日
+	 * @param updateDate 操作時刻 終了日
+	 * @return ファイルが存在する年月
+	 */
+	private List<YearMonth> findMonths(LocalDateTime createDate, LocalDateTime updateDate) {
+		List<YearMonth> months = new ArrayList<>();
+		if (!covers(createDate, updateDate)) {
+			return months;
+		}
+		YearMonth last = YearMonth.from(updateDate);
+		YearMonth before = archivedBefore;
+		for (YearMonth month = YearMonth.from(createDate); !month.isAfter(last) && month.isBefore(before);
+				month = month.plusMonths(1)) {
+			if (Files.exists(directory.resolve(month.format(FILE_NAME_FORMAT)))) {
+				months.add(month);
+			}
+		}
+		return months;
+	}
+
+	/**
+	 * 1ヶ月分のアーカイブファイルを先頭から1行ずつ読み込む
+	 *
+	 * @param month 年月
+	 * @param handler 1行ごとの処理（falseを返すと読み込みを終了する）
+	 */
+	private void scan(YearMonth month, Predicate<List<String>> handler) {
+		Path file = directory.resolve(month.format(FILE_NAME_FORMAT));
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+			CsvReader csv = new CsvReader(reader);
+			csv.readRecord(); // ヘッダー行
+			List<String> record;
+			while ((record = csv.readRecord()) != null) {
+				if (!handler.test(record)) {
+					return;
+				}
+			}
+		} catch (IOException e) {
+			log.error("操作履歴アーカイブの読み込みに失敗しました: {}", file, e);
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 検索条件に一致するかどうか（OperationLogRepository の検索条件と同じ判定）
+	 */
+	private boolean matches(List<String> record, Map<String, Optional<String>> adminNames, Collection<String> adminIds,
+			Integer operateType, Integer status, LocalDateTime createDate, LocalDateTime updateDate) {
+		String adminId = record.get(COL_ADMIN_ID);
+		if (adminIds != null && !adminIds.contains(adminId)) {
+			return false;
+		}
+		if (operateType != null && operateType != Integer.parseInt(record.get(COL_OPERATE_TYPE))) {
+			return false;
+		}
+		if (status != null && status != Integer.parseInt(record.get(COL_STATUS))) {
+			return false;
+		}
+		LocalDateTime date = LocalDateTime.parse(record.get(COL_CREATE_DATE));
+		if (date.isBefore(createDate) || date.isAfter(updateDate)) {
+			return false;
+		}
+		return resolveAdminName(adminNames, adminId).isPresent(); // 管理者情報との内部結合
+	}
+
+	/**
+	 * カーソル行との比較（操作時刻 → ログID）
+	 *
+	 * @return 正:カーソルより後ろ, 負:カーソルより前
+	 */
+	private static int compareToCursor(List<String> record, LocalDateTime cursorDate, int cursorLogId) {
+		int compared = LocalDateTime.parse(record.get(COL_CREATE_DATE)).compareTo(cursorDate);
+		return compared != 0 ? compared : Integer.compare(Integer.parseInt(record.get(COL_LOG_ID)), cursorLogId);
+	}
+
+	/**
+	 * 画面表示用DTOに変換
+	 */
+	private static OperationLogView toView(List<String> record, Map<String, Optional<String>> adminNames) {
+		String details = record.get(COL_OPERATION_DETAILS);
+		return new OperationLogView(Integer.parseInt(record.get(COL_LOG_ID)),
+				adminNames.get(record.get(COL_ADMIN_ID)).orElse(null),
+				record.get(COL_TABLE_KEY), Integer.valueOf(record.get(COL_OPERATE_TYPE)),
+				Integer.valueOf(record.get(COL_STATUS)), details.isEmpty() ? null : details,
+				LocalDateTime.parse(record.get(COL_CREATE_DATE)));
+	}
+
+	/**
+	 * CSV出力用DTOに変換
+	 */
+	private static OperationLogExportRow toExportRow(List<String> record, Map<String, Optional<String>> adminNames) {
+		String adminId = record.get(COL_ADMIN_ID);
+		String details = record.get(COL_OPERATION_DETAILS);
+		return new OperationLogExportRow(Integer.parseInt(record.get(COL_LOG_ID)), adminId,
+				adminNames.get(adminId).orElse(null), record.get(COL_TABLE_KEY),
+				Integer.valueOf(record.get(COL_OPERATE_TYPE)), Integer.valueOf(record.get(COL_STATUS)),
+				details.isEmpty() ? null : details, Integer.valueOf(record.get(COL_DELETE_FLAG)),
+				LocalDateTime.parse(record.get(COL_CREATE_DATE)), LocalDateTime.parse(record.get(COL_UPDATE_DATE)));
+	}
+
+	/**
+	 * 管理者ID → 管理者名（存在しない管理者はOptional.empty()）
+	 * ※管理者IDで絞り込む場合は、その管理者IDの管理者名のみを1回で取得する
+	 *
+	 * @param adminIds 管理者ID（nullの場合は読み込み中に出現した管理者IDごとに取得する）
+	 * @return 管理者名のキャッシュ
+	 */
+	private Map<String, Optional<String>> preloadAdminNames(Collection<String> adminIds) {
+		Map<String, Optional<String>> adminNames = new HashMap<>();
+		if (adminIds == null || adminIds.isEmpty()) {
+			return adminNames;
+		}
+		for (String adminId : adminIds) {
+			adminNames.put(adminId, Optional.empty());
+		}
+		for (AdminName admin : adminInfoRepository.findAdminNamesByAdminIdIn(adminIds)) {
+			adminNames.put(admin.getAdminId(), Optional.ofNullable(admin.getAdminName()));
+		}
+		return adminNames;
+	}
+
+	/**
+	 * 管理者名を解決（未取得の管理者IDのみDBから取得する）
+	 *
+	 * @param adminNames 管理者名のキャッシュ
+	 * @param adminId 管理者ID
+	 * @return 管理者名（管理者情報が存在しない場合はOptional.empty()）
+	 */
+	private Optional<String> resolveAdminName(Map<String, Optional<String>> adminNames, String adminId) {
+		return adminNames.computeIfAbsent(adminId, id -> adminInfoRepository.findAdminNamesByAdminIdIn(List.of(id))
+				.stream().findFirst().map(AdminName::getAdminName));
+	}
+}
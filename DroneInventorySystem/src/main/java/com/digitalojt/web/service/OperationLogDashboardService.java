@@ -0,0 +1,66 @@
+package com.digitalojt.web.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.digitalojt.web.consts.ScreenTitle;
+import com.digitalojt.web.dto.OperationCount;
+import com.digitalojt.web.dto.OperationSummary;
+import com.digitalojt.web.repository.OperationLogDailyRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 操作履歴ダッシュボードのサービスクラス
+ * ※操作履歴テーブルは参照せず、日次集計テーブルのみから集計する
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@RequiredArgsConstructor
+public class OperationLogDashboardService {
+
+	/** 操作履歴の日次集計テーブル リポジトリー */
+	private final OperationLogDailyRepository dailyRepository;
+
+	/**
+	 * 日別の操作件数を取得
+	 * ※操作の無い日も0件として含める
+	 *
+	 * @param from 開始日
+	 * @param to 終了日
+	 * @return 日付の昇順の操作件数
+	 */
+	public List<OperationSummary> getDailySummary(LocalDate from, LocalDate to) {
+		Map<String, OperationSummary> summaries = new LinkedHashMap<>();
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			summaries.put(date.toString(), new OperationSummary(date.toString()));
+		}
+		for (OperationCount count : dailyRepository.findDailyCounts(from, to)) {
+			summaries.get(count.getKey()).add(count);
+		}
+		return new ArrayList<>(summaries.values());
+	}
+
+	/**
+	 * 画面別の操作件数を取得
+	 *
+	 * @param from 開始日
+	 * @param to 終了日
+	 * @return 画面ごとの操作件数
+	 */
+	public List<OperationSummary> getScreenSummary(LocalDate from, LocalDate to) {
+		Map<String, OperationSummary> summaries = new LinkedHashMap<>();
+		for (OperationCount count : dailyRepository.findScreenCounts(from, to)) {
+			summaries.computeIfAbsent(count.getKey(), key -> new OperationSummary(ScreenTitle.fromTableKey(key)))
+					.add(count);
+		}
+		return new ArrayList<>(summaries.values());
+	}
+}
@@ -0,0 +1,142 @@
+package com.digitalojt.web.service;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.digitalojt.web.repository.OperationLogPartitionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 操作履歴テーブルの月別パーティション管理
+ * ※起動時と毎月1回、以下を行う
+ *   1. 当月から先 aheadMonths ヶ月分の月別パーティションを用意する
+ *   2. 保持期間を過ぎた月のパーティションを圧縮アーカイブファイルに書き出し、パーティションごと削除する
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@Slf4j
+public class OperationLogPartitionService {
+
+	/** 操作履歴画面の初期表示（直近1ヶ月）をDBのみで表示するための最小保持月数 */
+	private static final int MIN_RETENTION_MONTHS = 2;
+
+	/** 月別パーティション操作 */
+	private final OperationLogPartitionRepository partitionRepository;
+
+	/** 操作履歴アーカイブ */
+	private final OperationLogArchive archive;
+
+	/** DBに保持する月数（当月を含む） */
+	private final int retentionMonths;
+
+	/** 先行して用意するパーティションの月数 */
+	private final int aheadMonths;
+
+	/**
+	 * コンストラクタ
+	 */
+	public OperationLogPartitionService(OperationLogPartitionRepository partitionRepository,
+			OperationLogArchive archive,
+			@Value("${app.operation-log.archive.retention-months:12}") int retentionMonths,
+			@Value("${app.operation-log.partition.ahead-months:2}") int aheadMonths) {
+		this.partitionRepository = partitionRepository;
+		this.archive = archive;
+		this.retentionMonths = Math.max(retentionMonths, MIN_RETENTION_MONTHS);
+		this.aheadMonths = aheadMonths;
+	}
+
+	/**
+	 * 起動時のパーティション管理
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		maintain();
+	}
+
+	/**
+	 * 月次のパーティション管理
+	 */
+	@Scheduled(cron = "${app.operation-log.partition.cron:0 0 1 1 * *}")
+	public synchronized void maintain() {
+		try {
+			List<YearMonth> partitions = addPartitions(YearMonth.now());
+			archiveExpired(partitions, YearMonth.now().minusMonths(retentionMonths - 1));
+		} catch (DataAccessException | UncheckedIOException e) {
+			log.error("操作履歴パーティション管理に失敗しました", e);
+		}
+	}
+
+	/**
+	 * 当月から先 aheadMonths ヶ月分までの月別パーティションを追加
+	 * ※月別パーティションが無い場合（移行直後）は、既存行の最も古い月から作成する
+	 *
+	 * @param current 当月
+	 * @return 追加後の月別パーティション（古い順）
+	 */
+	private List<YearMonth> addPartitions(YearMonth current) {
+		List<YearMonth> partitions = partitionRepository.findMonthlyPartitions();
+
+		YearMonth from;
+		if (partitions.isEmpty()) {
+			LocalDateTime oldest = partitionRepository.findOldestCreateDateInMaxPartition();
+			from = oldest == null ? current : YearMonth.from(oldest);
+		} else {
+			from = partitions.get(partitions.size() - 1).plusMonths(1);
+		}
+
+		List<YearMonth> added = new ArrayList<>();
+		for (YearMonth month = from; !month.isAfter(current.plusMonths(aheadMonths)); month = month.plusMonths(1)) {
+			added.add(month);
+		}
+		if (!added.isEmpty()) {
+			partitionRepository.addMonthlyPartitions(added);
+			log.info("操作履歴パーティション追加: {} 〜 {}", added.get(0), added.get(added.size() - 1));
+		}
+
+		List<YearMonth> all = new ArrayList<>(partitions);
+		all.addAll(added);
+		return all;
+	}
+
+	/**
+	 * 保持期間を過ぎた月別パーティションをアーカイブして削除
+	 * ※ファイルの書き込みが完了してからパーティションを削除する
+	 *
+	 * @param partitions 月別パーティション（古い順）
+	 * @param keepFrom この年月以降はDBに保持する
+	 */
+	private void archiveExpired(List<YearMonth> partitions, YearMonth keepFrom) {
+		YearMonth oldestKept = keepFrom;
+		for (YearMonth month : partitions) {
+			if (!month.isBefore(keepFrom)) {
+				oldestKept = month;
+				break;
+			}
+			long[] count = { 0 };
+			Path file = archive.write(month, csv -> partitionRepository.readPartition(month, rs -> {
+				csv.writeRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getInt(5),
+						rs.getString(6), rs.getInt(7), rs.getObject(8, LocalDateTime.class).toString(),
+						rs.getObject(9, LocalDateTime.class).toString());
+				count[0]++;
+			}));
+			partitionRepository.dropPartition(month);
+			archive.setArchivedBefore(month.plusMonths(1));
+			log.info("操作履歴アーカイブ: {} を {} 件書き出しました {}", month, count[0], file);
+		}
+		archive.setArchivedBefore(oldestKept);
+	}
+}
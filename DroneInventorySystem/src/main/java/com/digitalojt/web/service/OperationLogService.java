@@ -1,18 +1,30 @@
 package com.digitalojt.web.service;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.digitalojt.web.consts.OperationStatus;
-import com.digitalojt.web.consts.OperationType;
-import com.digitalojt.web.consts.ScreenTitle;
-import com.digitalojt.web.entity.OperationLog;
+import com.digitalojt.web.consts.CsvExportConsts;
+import com.digitalojt.web.consts.ModelAttributeContents;
+import com.digitalojt.web.dto.KeysetPage;
+import com.digitalojt.web.dto.OperationLogExportRow;
+import com.digitalojt.web.dto.OperationLogView;
+import com.digitalojt.web.repository.AdminInfoRepository;
 import com.digitalojt.web.repository.OperationLogRepository;
+import com.digitalojt.web.util.CsvWriter;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * 操作履歴画面のサービスクラス
@@ -22,93 +34,227 @@ import lombok.RequiredArgsConstructor;
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class OperationLogService {
 
+	/** 管理者IDで絞り込まない場合のIN句のダミー値 */
+	private static final List<String> NO_ADMIN_IDS = List.of("");
+
 	/** 操作履歴テーブル リポジトリー */
 	private final OperationLogRepository repository;
 
+	/** 管理者情報テーブル リポジトリー */
+	private final AdminInfoRepository adminInfoRepository;
+
+	/** 操作履歴アーカイブ（保持期間を過ぎた月） */
+	private final OperationLogArchive archive;
+
 	/**
-	 * 操作履歴情報を全件検索で取得
+	 * 直近1ヶ月分の操作履歴情報を1ページ分取得（操作時刻の降順）
 	 * 
-	 * @return
+	 * @param cursorDate カーソル行の操作時刻（先頭ページはnull）
+	 * @param cursorLogId カーソル行のログID
+	 * @param direction ページ送りの方向（prev:前ページ, それ以外:次ページ）
+	 * @param pageSize 1ページあたりの件数（nullの場合は既定値）
+	 * @return 1ページ分の操作履歴情報
 	 */
-	public List<OperationLog> getOperationLogList() {
+	public KeysetPage<OperationLogView> getOperationLogList(LocalDateTime cursorDate, Integer cursorLogId,
+			String direction, Integer pageSize) {
 
 		// 1ヶ月前の開始日時を取得
 		LocalDateTime now = LocalDateTime.now();
 	    LocalDateTime oneMonth = now.minusMonths(1);
 	    
-		// 操作履歴情報の取得
-		List<OperationLog> operationLogList = repository.findOperationLogsForOneMonth(oneMonth, now);
-		
-		// 画面表示用にデータ加工した結果を返却
-		return convertOperationLogList(operationLogList);
+		// 操作履歴情報の取得（画面表示用DTOとして取得）
+		return findPage(false, null, null, null, oneMonth, now, cursorDate, cursorLogId, direction, pageSize);
 	}
 	
 	/**
-	 * 引数に合致する操作履歴情報を取得
+	 * 引数に合致する操作履歴情報を1ページ分取得（操作時刻の昇順）
 	 * 
 	 * @param userId
 	 * @param operateType
 	 * @param status
-	 * @param operationStart
-	 * @param operationEnd 
+	 * @param createDate
+	 * @param updateDate 
+	 * @param cursorDate カーソル行の操作時刻（先頭ページはnull）
+	 * @param cursorLogId カーソル行のログID
+	 * @param direction ページ送りの方向（prev:前ページ, それ以外:次ページ）
+	 * @param pageSize 1ページあたりの件数（nullの場合は既定値）
 	 * @return 引数と一致する値を取得した結果
 	 */
-    public List<OperationLog> getOperationLogData(String userId, Integer operateType, Integer status, LocalDateTime createDate, LocalDateTime updateDate) {
-    	List<OperationLog> operationLogList = repository.findOperationLogs(userId, operateType, status, createDate, updateDate);
-        return convertOperationLogList(operationLogList);
+    public KeysetPage<OperationLogView> getOperationLogData(String userId, Integer operateType, Integer status,
+    		LocalDateTime createDate, LocalDateTime updateDate,
+    		LocalDateTime cursorDate, Integer cursorLogId, String direction, Integer pageSize) {
+    	Set<String> adminIds = resolveAdminIds(userId);
+    	if (adminIds != null && adminIds.isEmpty()) {
+    		return KeysetPage.forward(List.of(), normalizePageSize(pageSize), false);
+    	}
+    	return findPage(true, adminIds, operateType, status, createDate, updateDate,
+    			cursorDate, cursorLogId, direction, pageSize);
     }
 
 	/**
-	 * 画面表示用にデータ加工
+	 * 引数に合致する操作履歴の件数を取得
+	 * ※上限件数 + 1 件までしか数えないため、戻り値が上限件数を超える場合は「上限件数以上」として扱う
+	 *   操作時刻の範囲がアーカイブ済みの期間を含む場合は、アーカイブファイルの件数も合算する
+	 * 
+	 * @param userId
+	 * @param operateType
+	 * @param status
+	 * @param createDate
+	 * @param updateDate
+	 * @return 件数（最大 上限件数 + 1）
+	 */
+	public long countOperationLogData(String userId, Integer operateType, Integer status,
+			LocalDateTime createDate, LocalDateTime updateDate) {
+		Set<String> adminIds = resolveAdminIds(userId);
+		if (adminIds != null && adminIds.isEmpty()) {
+			return 0;
+		}
+		int limit = ModelAttributeContents.MAX_OPERATION_LOG_RESULT_COUNT + 1;
+		long count = repository.countOperationLogsUpTo(adminIds != null, orDummy(adminIds), operateType, status,
+				createDate, updateDate, limit);
+		if (count < limit && archive.covers(createDate, updateDate)) {
+			count += archive.count(adminIds, operateType, status, createDate, updateDate, limit - count);
+		}
+		return count;
+	}
+
+	/**
+	 * 操作時刻・ログIDのキーセットで1ページ分取得
+	 * ※表示順とページ送りの方向から、カーソルより後ろ・前のどちらを取得するかを決定する
 	 * 
-	 * @param operationLogList
-	 * @return
+	 * @param ascending 表示順が昇順かどうか
+	 * @return 1ページ分の操作履歴情報（表示順）
 	 */
-	private List<OperationLog> convertOperationLogList(List<OperationLog> operationLogList) {
-		return operationLogList.stream()
-				.map(log -> {
-					String screenName = convertTableKey(log.getTableKey());
-					String operateType = convertOperateType(log.getOperateType());
-					String operationStatus = convertOperationStatus(log.getStatus());
-
-					log.setTableKey(screenName);
-					log.setOperateTypeStr(operateType);
-					log.setStatusStr(operationStatus);
-
-					return log;
-				})
-				.collect(Collectors.toList());
+	private KeysetPage<OperationLogView> findPage(boolean ascending, Set<String> adminIds, Integer operateType,
+			Integer status, LocalDateTime createDate, LocalDateTime updateDate,
+			LocalDateTime cursorDate, Integer cursorLogId, String direction, Integer pageSize) {
+		int size = normalizePageSize(pageSize);
+		int logId = cursorLogId == null ? 0 : cursorLogId;
+		boolean backward = cursorDate != null && ModelAttributeContents.PAGE_DIRECTION_PREV.equals(direction);
+
+		// 昇順表示の「次ページ」と降順表示の「前ページ」はカーソルより後ろを取得する
+		List<OperationLogView> rows = ascending != backward
+				? findAfter(adminIds, operateType, status, createDate, updateDate, cursorDate, logId, size + 1)
+				: findBefore(adminIds, operateType, status, createDate, updateDate, cursorDate, logId, size + 1);
+
+		return backward ? KeysetPage.backward(rows, size) : KeysetPage.forward(rows, size, cursorDate != null);
 	}
 
 	/**
-	 * テーブルキーを画面表示用にデータ加工
+	 * カーソルより後ろを昇順で取得
+	 * ※アーカイブ済みの行はすべてDBの行より古いため、アーカイブ → DB の順に不足分を補う
 	 * 
-	 * @param tableKey
-	 * @return
+	 * @return 操作時刻・ログIDの昇順のリスト（最大 limit 件）
 	 */
-	private String convertTableKey(String tableKey) {
-		return ScreenTitle.fromTableKey(tableKey);
+	private List<OperationLogView> findAfter(Set<String> adminIds, Integer operateType, Integer status,
+			LocalDateTime createDate, LocalDateTime updateDate, LocalDateTime cursorDate, int cursorLogId, int limit) {
+		List<OperationLogView> rows = new ArrayList<>();
+		if (archive.covers(createDate, updateDate)
+				&& (cursorDate == null || cursorDate.isBefore(archive.getBoundary()))) {
+			rows.addAll(archive.find(adminIds, operateType, status, createDate, updateDate,
+					cursorDate, cursorLogId, true, limit));
+		}
+		if (rows.size() < limit) {
+			rows.addAll(repository.findOperationLogsAfter(adminIds != null, orDummy(adminIds), operateType, status,
+					createDate, updateDate, cursorDate, cursorLogId, PageRequest.ofSize(limit - rows.size())));
+		}
+		return rows;
 	}
 
 	/**
-	 * 操作種類を画面表示用にデータ加工
+	 * カーソルより前を降順で取得
+	 * ※DB → アーカイブ の順に不足分を補う
 	 * 
-	 * @param operateType
-	 * @return
+	 * @return 操作時刻・ログIDの降順のリスト（最大 limit 件）
 	 */
-	private String convertOperateType(Integer operateType) {
-		return OperationType.fromTypeCode(operateType);
+	private List<OperationLogView> findBefore(Set<String> adminIds, Integer operateType, Integer status,
+			LocalDateTime createDate, LocalDateTime updateDate, LocalDateTime cursorDate, int cursorLogId, int limit) {
+		List<OperationLogView> rows = new ArrayList<>(repository.findOperationLogsBefore(adminIds != null,
+				orDummy(adminIds), operateType, status, createDate, updateDate, cursorDate, cursorLogId,
+				PageRequest.ofSize(limit)));
+		if (rows.size() < limit && archive.covers(createDate, updateDate)) {
+			rows.addAll(archive.find(adminIds, operateType, status, createDate, updateDate,
+					cursorDate, cursorLogId, false, limit - rows.size()));
+		}
+		return rows;
 	}
 
 	/**
-	 * 操作ステータスを画面表示用にデータ加工
+	 * 管理者名（部分一致）を管理者IDの集合に変換
 	 * 
-	 * @param operateStatus
-	 * @return
+	 * @param userId 管理者名（部分一致）
+	 * @return 管理者IDの集合（管理者名が未入力の場合はnull、該当者がいない場合は空）
 	 */
-	private String convertOperationStatus(Integer operateStatus) {
-		return OperationStatus.fromStatusCode(operateStatus);
+	private Set<String> resolveAdminIds(String userId) {
+		if (userId == null || userId.isEmpty()) {
+			return null;
+		}
+		return new HashSet<>(adminInfoRepository.findAdminIdsByAdminNameContaining(userId));
+	}
+
+	/**
+	 * IN句に渡す管理者ID（絞り込まない場合は空のIN句を避けるためダミー値）
+	 * 
+	 * @param adminIds 管理者IDの集合
+	 * @return IN句のパラメーター
+	 */
+	private static Collection<String> orDummy(Set<String> adminIds) {
+		return adminIds != null ? adminIds : NO_ADMIN_IDS;
+	}
+
+	/**
+	 * ページサイズを上限・下限の範囲に丸める
+	 * 
+	 * @param pageSize
+	 * @return 丸めたページサイズ
+	 */
+	private int normalizePageSize(Integer pageSize) {
+		if (pageSize == null || pageSize <= 0) {
+			return ModelAttributeContents.OPERATION_LOG_PAGE_SIZE;
+		}
+		return Math.min(pageSize, ModelAttributeContents.MAX_OPERATION_LOG_PAGE_SIZE);
+	}
+
+	/**
+	 * 操作時刻の範囲に合致する操作履歴情報をCSV出力
+	 * ※行単位でCSVの列のみを読み込み（エンティティは生成しない）、一定行数ごとに出力先へ書き出す
+	 *   操作時刻の範囲がアーカイブ済みの期間を含む場合は、アーカイブファイルの行をDBの行より先に出力する
+	 *   （アーカイブ済みの行はすべてDBの行より古いため、全体で操作時刻・ログIDの昇順になる）
+	 *   範囲を指定しない（全期間の）出力は検索と同じくDBのみを対象とし、アーカイブ済みの月は含まない
+	 * 
+	 * @param createDate 操作時刻 開始日（nullの場合は全期間）
+	 * @param updateDate 操作時刻 終了日（nullの場合は全期間）
+	 * @param outputStream 出力先
+	 */
+	@Transactional(readOnly = true)
+	public void exportCsv(LocalDateTime createDate, LocalDateTime updateDate, OutputStream outputStream) {
+		CsvWriter csv = new CsvWriter(outputStream);
+		csv.writeRow((Object[]) CsvExportConsts.OPERATION_LOG_HEADER);
+
+		int[] count = { 0 };
+		Consumer<OperationLogExportRow> writeRow = row -> {
+			csv.writeRow(row.getLogId(), row.getAdminId(), row.getAdminName(), row.getTableKey(),
+					row.getOperateType(), row.getStatus(), row.getOperationDetails(), row.getDeleteFlag(),
+					row.getCreateDate(), row.getUpdateDate());
+			if (++count[0] % CsvExportConsts.CLEAR_INTERVAL == 0) {
+				csv.flush();
+			}
+		};
+
+		if (archive.covers(createDate, updateDate)) {
+			archive.export(createDate, updateDate, writeRow);
+		} else if (createDate == null || updateDate == null) {
+			LocalDateTime boundary = archive.getBoundary();
+			if (boundary != null) {
+				log.info("操作履歴CSV出力: 全期間の出力のため {} より前のアーカイブ済みの操作履歴は含みません", boundary);
+			}
+		}
+		try (Stream<OperationLogExportRow> rows = repository.streamOperationLogs(createDate, updateDate)) {
+			rows.forEach(writeRow);
+		}
+		csv.flush();
 	}
 }
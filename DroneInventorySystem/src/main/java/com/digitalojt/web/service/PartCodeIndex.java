@@ -0,0 +1,205 @@
+package com.digitalojt.web.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.digitalojt.web.consts.DeleteFlagConsts;
+import com.digitalojt.web.util.BloomFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 部品コードのブルームフィルタ
+ * ※未削除の全部品コードを保持し、登録されていない部品コードをDBを参照せずに判定する
+ *   起動時と毎日1回作り直し、その間は前回の読み込み開始から commitMargin 前以降に登録された部品を定期的に追加する
+ *   （登録日時はコミットより前に決まるため、前回の読み込み中・読み込み後にコミットされた部品も取りこぼさない）
+ *   起動時の構築後、最初の定期追加が終わるまでは判定せず、すべての部品コードをDBで照会させる
+ *   定期追加の間隔の間に登録された部品は、次の定期追加までは「含まれない」と判定される
+ *   ブルームフィルタからは削除できないため、削除された部品は次の作り直しまで「含まれるかもしれない」と判定する
+ *   DBの照合順序（utf8mb4_general_ci）は大文字・小文字と末尾の空白を区別しないため、
+ *   追加・判定の前に部品コードを正規化し、DBで一致する部品コードを「含まれない」と誤判定しないようにする
+ *
+ * @author dotlife
+ * 
+ */
+@Component
+@Slf4j
+public class PartCodeIndex {
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/** 想定件数の下限 */
+	private final int expectedParts;
+
+	/** 誤検知率 */
+	private final double fpp;
+
+	/** 1回あたりの読み込み件数 */
+	private final int batchSize;
+
+	/** 未コミットの部品を待つ時間（登録日時からコミットまでの最大時間） */
+	private final Duration commitMargin;
+
+	/** ブルームフィルタ（作り直し時に差し替える） */
+	private volatile BloomFilter filter;
+
+	/** 前回の読み込みの開始日時 */
+	private volatile LocalDateTime lastLoadStart;
+
+	/** 起動後の最初の定期追加が完了したかどうか（完了までは判定しない） */
+	private volatile boolean ready;
+
+	/**
+	 * コンストラクタ
+	 */
+	public PartCodeIndex(JdbcTemplate jdbcTemplate,
+			@Value("${app.part.bloom.expected-parts:100000}") int expectedParts,
+			@Value("${app.part.bloom.fpp:0.01}") double fpp,
+			@Value("${app.part.bloom.batch-size:5000}") int batchSize,
+			@Value("${app.stock.snapshot.commit-margin:2m}") Duration commitMargin) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.expectedParts = expectedParts;
+		this.fpp = fpp;
+		this.batchSize = batchSize;
+		this.commitMargin = commitMargin;
+	}
+
+	/**
+	 * 作り直し（起動時・毎日1回）
+	 * ※容量は想定件数と現在の部品数の2倍の大きい方とする
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(cron = "${app.part.bloom.rebuild-cron:0 45 3 * * *}")
+	public synchronized void rebuild() {
+		try {
+			LocalDateTime started = LocalDateTime.now();
+			Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM part_info WHERE delete_flag = ?",
+					Integer.class, DeleteFlagConsts.ACTIVE);
+			BloomFilter rebuilt = new BloomFilter(Math.max(expectedParts, count * 2), fpp);
+			loadAll(rebuilt);
+			filter = rebuilt;
+			lastLoadStart = started;
+			log.info("部品コードのブルームフィルタ再構築: {} 件", rebuilt.getInsertions());
+		} catch (DataAccessException e) {
+			log.error("部品コードのブルームフィルタの再構築に失敗しました", e);
+		}
+	}
+
+	/**
+	 * 前回の読み込み開始の commitMargin 前以降に登録された部品を追加（定期実行）
+	 * ※読み直した部品は既にビットが立っているため追加件数に数えない。想定件数を超えた場合は作り直す
+	 */
+	@Scheduled(fixedDelayString = "${app.part.bloom.refresh-interval-ms:10000}")
+	public synchronized void refresh() {
+		BloomFilter current = filter;
+		if (current == null) {
+			rebuild();
+			return;
+		}
+		try {
+			LocalDateTime started = LocalDateTime.now();
+			loadCreatedSince(current, lastLoadStart.minus(commitMargin));
+			lastLoadStart = started;
+			ready = true;
+		} catch (DataAccessException e) {
+			log.error("部品コードのブルームフィルタの更新に失敗しました", e);
+			return;
+		}
+		if (current.isSaturated()) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * 部品コードが登録されているかもしれないかどうか
+	 * ※構築前（起動直後・DBエラー時）と、起動後の最初の定期追加の完了前は判定できないため true を返す
+	 * 
+	 * @param partCode 部品コード
+	 * @return false の場合は登録されていない
+	 */
+	public boolean mightContain(String partCode) {
+		BloomFilter current = filter;
+		return current == null || !ready || current.mightContain(normalize(partCode));
+	}
+
+	/**
+	 * 部品コードを正規化（末尾の空白を除き、大文字に変換）
+	 * ※英数字・記号の部品コードを前提とする（アクセント記号などの照合順序上の同一視は扱わない）
+	 * 
+	 * @param partCode 部品コード
+	 * @return 正規化した部品コード
+	 */
+	static String normalize(String partCode) {
+		int end = partCode.length();
+		while (end > 0 && partCode.charAt(end - 1) == ' ') {
+			end--;
+		}
+		return partCode.substring(0, end).toUpperCase(Locale.ROOT);
+	}
+
+	/**
+	 * 部品IDの昇順に全部品の部品コードを読み込んで追加
+	 * 
+	 * @param target 追加先
+	 */
+	private void loadAll(BloomFilter target) {
+		int last = 0;
+		while (true) {
+			int[] loaded = { 0, last };
+			jdbcTemplate.query("SELECT part_id, part_code FROM part_info WHERE part_id > ? AND delete_flag = ? "
+					+ "ORDER BY part_id LIMIT ?",
+					rs -> {
+						target.put(normalize(rs.getString(2)));
+						loaded[0]++;
+						loaded[1] = rs.getInt(1);
+					},
+					last, DeleteFlagConsts.ACTIVE, batchSize);
+			last = loaded[1];
+			if (loaded[0] < batchSize) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 登録日時以降に登録された部品の部品コードを、登録日時・部品IDの昇順に読み込んで追加
+	 * ※登録日時のインデックスを範囲走査する（インデックスは部品IDを含むため、キーセットの並び順もインデックス順となる）
+	 * 
+	 * @param target 追加先
+	 * @param createdFrom この登録日時以降の部品を読み込む
+	 */
+	private void loadCreatedSince(BloomFilter target, LocalDateTime createdFrom) {
+		Timestamp lastDate = Timestamp.valueOf(createdFrom);
+		int lastPartId = 0;
+		while (true) {
+			int[] loaded = { 0, lastPartId };
+			Timestamp[] loadedDate = { lastDate };
+			jdbcTemplate.query("SELECT part_id, part_code, create_date FROM part_info "
+					+ "WHERE (create_date > ? OR (create_date = ? AND part_id > ?)) AND delete_flag = ? "
+					+ "ORDER BY create_date, part_id LIMIT ?",
+					rs -> {
+						target.put(normalize(rs.getString(2)));
+						loaded[0]++;
+						loaded[1] = rs.getInt(1);
+						loadedDate[0] = rs.getTimestamp(3);
+					},
+					lastDate, lastDate, lastPartId, DeleteFlagConsts.ACTIVE, batchSize);
+			lastDate = loadedDate[0];
+			lastPartId = loaded[1];
+			if (loaded[0] < batchSize) {
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.digitalojt.web.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.digitalojt.web.consts.DeleteFlagConsts;
+import com.digitalojt.web.consts.ErrorMessage;
+import com.digitalojt.web.dto.PartView;
+import com.digitalojt.web.exception.PartNotFoundException;
+import com.digitalojt.web.repository.PartInfoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 部品コードによる部品照会
+ * ※1. 部品コードのブルームフィルタで未登録と判定した場合は、DBを参照せずに未登録とする
+ *   2. 照会の多い部品は件数上限・有効期間付きのキャッシュから返す
+ *   3. キャッシュに無い場合のみDBを参照する
+ *   キャッシュのヒット・ミスは "cache.*{cache=partLookup}"、
+ *   ブルームフィルタで未登録と判定した件数は "part.lookup.rejected" メトリクスとして公開する
+ *
+ * @author dotlife
+ *
+ */
+@Service
+public class PartLookupService {
+
+	/** メトリクス上のキャッシュ名 */
+	private static final String CACHE_NAME = "partLookup";
+
+	/** 部品情報テーブルリポジトリー */
+	private final PartInfoRepository partInfoRepository;
+
+	/** 部品コードのブルームフィルタ */
+	private final PartCodeIndex partCodeIndex;
+
+	/** 部品コード → 部品情報 */
+	private final Cache<String, PartView> cache;
+
+	/** ブルームフィルタで未登録と判定した件数 */
+	private final Counter rejectedCounter;
+
+	/**
+	 * コンストラクタ
+	 */
+	public PartLookupService(PartInfoRepository partInfoRepository, PartCodeIndex partCodeIndex,
+			@Value("${app.part.lookup.cache.maximum-size:10000}") long maximumSize,
+			@Value("${app.part.lookup.cache.ttl:10m}") Duration ttl,
+			MeterRegistry meterRegistry) {
+		this.partInfoRepository = partInfoRepository;
+		this.partCodeIndex = partCodeIndex;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+		this.rejectedCounter = Counter.builder("part.lookup.rejected")
+				.description("部品コードのブルームフィルタで未登録と判定した照会件数")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 部品コードで部品情報を取得
+	 * 
+	 * @param partCode 部品コード
+	 * @return 部品情報
+	 * @throws PartNotFoundException 未登録・削除済みの場合
+	 */
+	public PartView getPart(String partCode) {
+		if (!partCodeIndex.mightContain(partCode)) {
+			rejectedCounter.increment();
+			throw new PartNotFoundException(ErrorMessage.PART_NOT_FOUND_ERROR_MESSAGE);
+		}
+		// 未登録の場合はキャッシュに格納しない
+		PartView part = cache.get(partCode, code -> partInfoRepository
+				.findByPartCodeAndDeleteFlag(code, DeleteFlagConsts.ACTIVE)
+				.map(PartView::from)
+				.orElse(null));
+		if (part == null) {
+			throw new PartNotFoundException(ErrorMessage.PART_NOT_FOUND_ERROR_MESSAGE);
+		}
+		return part;
+	}
+}
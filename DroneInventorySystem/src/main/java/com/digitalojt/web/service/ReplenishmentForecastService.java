@@ -0,0 +1,369 @@
+package com.digitalojt.web.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalojt.web.repository.ReplenishmentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 補充数の予測バッチ
+ * ※在庫センター・部品ごとに、直近 windowDays 日の出庫数の移動平均とばらつきから
+ *   安全在庫・発注点・推奨発注数を算出して推奨発注数テーブルに書き出す
+ *   算出した発注点は同じトランザクションで在庫情報にも反映し、在庫不足の検知（LowStockDetector）の全件照合で取り込む
+ *   在庫センター単位に分割して Fork/Join で並列に処理し、完了した在庫センターをチェックポイントとして記録する
+ *   中断した場合は、次回の実行（起動時を含む）で未完了の在庫センターから再開する
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@Slf4j
+public class ReplenishmentForecastService {
+
+	/** 補充数の予測 リポジトリー */
+	private final ReplenishmentRepository replenishmentRepository;
+
+	/** トランザクションテンプレート（1バッチ単位でコミット） */
+	private final TransactionTemplate transactionTemplate;
+
+	/** スケジューラー（起動時の再開を起動処理と切り離して実行する） */
+	private final TaskScheduler taskScheduler;
+
+	/** 移動平均を取る日数 */
+	private final int windowDays;
+
+	/** 調達リードタイム（日） */
+	private final int leadTimeDays;
+
+	/** 発注間隔（日） */
+	private final int reviewDays;
+
+	/** 安全係数（サービス率に対応する標準正規分布の値） */
+	private final double safetyFactor;
+
+	/** 並列度 */
+	private final int parallelism;
+
+	/** 1バッチあたりの書き込み件数 */
+	private final int batchSize;
+
+	/** 実行中かどうか */
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	/** 推奨発注数の書き込み件数 */
+	private final Counter suggestionCounter;
+
+	/** 予測に失敗した在庫センター数 */
+	private final Counter failedCenterCounter;
+
+	/** 1在庫センターの予測の所要時間 */
+	private final Timer centerTimer;
+
+	/**
+	 * コンストラクタ
+	 */
+	public ReplenishmentForecastService(ReplenishmentRepository replenishmentRepository,
+			PlatformTransactionManager transactionManager, TaskScheduler taskScheduler, MeterRegistry meterRegistry,
+			@Value("${app.stock.forecast.window-days:28}") int windowDays,
+			@Value("${app.stock.forecast.lead-time-days:7}") int leadTimeDays,
+			@Value("${app.stock.forecast.review-days:7}") int reviewDays,
+			@Value("${app.stock.forecast.safety-factor:1.65}") double safetyFactor,
+			@Value("${app.stock.forecast.parallelism:4}") int parallelism,
+			@Value("${app.stock.forecast.batch-size:500}") int batchSize) {
+		this.replenishmentRepository = replenishmentRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.taskScheduler = taskScheduler;
+		this.windowDays = Math.max(windowDays, 1);
+		this.leadTimeDays = leadTimeDays;
+		this.reviewDays = reviewDays;
+		this.safetyFactor = safetyFactor;
+		this.parallelism = Math.max(parallelism, 1);
+		this.batchSize = batchSize;
+
+		Gauge.builder("replenishment.running", running, flag -> flag.get() ? 1 : 0)
+				.description("補充数の予測バッチが実行中かどうか")
+				.register(meterRegistry);
+		this.suggestionCounter = Counter.builder("replenishment.suggestions")
+				.description("推奨発注数の書き込み件数")
+				.register(meterRegistry);
+		this.failedCenterCounter = Counter.builder("replenishment.failed.centers")
+				.description("補充数の予測に失敗した在庫センター数")
+				.register(meterRegistry);
+		this.centerTimer = Timer.builder("replenishment.center")
+				.description("1在庫センターの補充数の予測の所要時間")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 起動時に未完了の実行を再開
+	 * ※予測は長時間かかる場合があるため、起動イベントのスレッドでは実行せずスケジューラーに登録する
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		taskScheduler.schedule(this::resumeIncompleteRun, Instant.now());
+	}
+
+	/**
+	 * 未完了の実行を再開
+	 */
+	void resumeIncompleteRun() {
+		try {
+			LocalDate incomplete = replenishmentRepository.findIncompleteRun();
+			if (incomplete != null) {
+				log.info("補充数の予測: {} の未完了の実行を再開します", incomplete);
+				forecast(incomplete);
+			}
+		} catch (DataAccessException e) {
+			log.error("補充数の予測: 未完了の実行の確認に失敗しました", e);
+		}
+	}
+
+	/**
+	 * 定期実行（当日分の予測）
+	 */
+	@Scheduled(cron = "${app.stock.forecast.cron:0 0 3 * * *}")
+	public void forecastToday() {
+		forecast(LocalDate.now());
+	}
+
+	/**
+	 * 予測日の補充数を予測
+	 * ※前日までの出庫履歴を使用する。チェックポイント済みの在庫センターは処理しない
+	 *   前回の実行が終わっていない場合は何もしない
+	 *
+	 * @param forecastDate 予測日
+	 */
+	public void forecast(LocalDate forecastDate) {
+		if (!running.compareAndSet(false, true)) {
+			log.warn("補充数の予測: 前回の処理が実行中のためスキップします");
+			return;
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			replenishmentRepository.startRun(forecastDate, LocalDateTime.now());
+			Set<Integer> completed = replenishmentRepository.findCompletedCenterIds(forecastDate);
+			int[] centerIds = replenishmentRepository.findCenterIdsWithStock().stream()
+					.filter(centerId -> !completed.contains(centerId))
+					.mapToInt(Integer::intValue)
+					.toArray();
+
+			long startedAt = System.nanoTime();
+			AtomicInteger failures = new AtomicInteger();
+			long suggestions = pool.invoke(new CenterTask(forecastDate, centerIds, 0, centerIds.length, failures));
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+			if (failures.get() == 0) {
+				replenishmentRepository.completeRun(forecastDate, LocalDateTime.now());
+			}
+			log.info("補充数の予測: {} 在庫センター {} 件（チェックポイント済み {} 件・失敗 {} 件） 推奨発注数 {} 件 {} ms（{} 件/秒）",
+					forecastDate, centerIds.length, completed.size(), failures.get(), suggestions, elapsed.toMillis(),
+					suggestions * 1000 / Math.max(elapsed.toMillis(), 1));
+		} catch (DataAccessException e) {
+			log.error("補充数の予測: {} の実行に失敗しました", forecastDate, e);
+		} finally {
+			pool.shutdown();
+			running.set(false);
+		}
+	}
+
+	/**
+	 * 在庫センター単位の分割タスク
+	 * ※範囲が1在庫センターになるまで二分割する
+	 */
+	private final class CenterTask extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		/** 予測日 */
+		private final LocalDate forecastDate;
+
+		/** 在庫センターID */
+		private final int[] centerIds;
+
+		/** 処理範囲の開始位置（含む） */
+		private final int from;
+
+		/** 処理範囲の終了位置（含まない） */
+		private final int to;
+
+		/** 失敗した在庫センター数 */
+		private final AtomicInteger failures;
+
+		CenterTask(LocalDate forecastDate, int[] centerIds, int from, int to, AtomicInteger failures) {
+			this.forecastDate = forecastDate;
+			this.centerIds = centerIds;
+			this.from = from;
+			this.to = to;
+			this.failures = failures;
+		}
+
+		@Override
+		protected Long compute() {
+			if (to - from == 0) {
+				return 0L;
+			}
+			if (to - from == 1) {
+				return (long) forecastCenter(forecastDate, centerIds[from], failures);
+			}
+			int middle = (from + to) >>> 1;
+			CenterTask left = new CenterTask(forecastDate, centerIds, from, middle, failures);
+			CenterTask right = new CenterTask(forecastDate, centerIds, middle, to, failures);
+			left.fork();
+			return right.compute() + left.join();
+		}
+	}
+
+	/**
+	 * 1在庫センター分の予測
+	 * ※出庫履歴を部品IDの順に読み込み、部品ごとに予測値を算出する
+	 *   推奨発注数と在庫情報の発注点はバッチ単位でコミットし（再実行時は上書き）、すべて書き込んでからチェックポイントを記録する
+	 *   出庫履歴の無い部品は推奨発注数を作成せず、在庫情報の発注点も変更しない
+	 *   失敗した在庫センターはチェックポイントを記録せず、次回の実行で再試行する
+	 *
+	 * @param forecastDate 予測日
+	 * @param centerId 在庫センターID
+	 * @param failures 失敗した在庫センター数
+	 * @return 推奨発注数の件数
+	 */
+	private int forecastCenter(LocalDate forecastDate, int centerId, AtomicInteger failures) {
+		Timer.Sample sample = Timer.start();
+		try {
+			Map<Integer, Integer> quantities = replenishmentRepository.findQuantities(centerId);
+			LocalDate from = forecastDate.minusDays(windowDays);
+			LocalDateTime now = LocalDateTime.now();
+
+			List<Object[]> rows = new ArrayList<>();
+			DemandSeries series = new DemandSeries(windowDays);
+			replenishmentRepository.streamDailyIssues(centerId, from, forecastDate, rs -> {
+				int partId = rs.getInt(1);
+				if (partId != series.partId) {
+					addSuggestion(rows, series, forecastDate, centerId, quantities, now);
+					series.reset(partId);
+				}
+				series.add((int) ChronoUnit.DAYS.between(from, rs.getDate(2).toLocalDate()), rs.getLong(3));
+			});
+			addSuggestion(rows, series, forecastDate, centerId, quantities, now);
+
+			for (int i = 0; i < rows.size(); i += batchSize) {
+				List<Object[]> batch = rows.subList(i, Math.min(i + batchSize, rows.size()));
+				transactionTemplate.executeWithoutResult(status -> {
+					replenishmentRepository.upsertSuggestions(batch);
+					replenishmentRepository.updateReorderPoints(centerId, batch, now);
+				});
+				suggestionCounter.increment(batch.size());
+			}
+			replenishmentRepository.markCompleted(forecastDate, centerId, rows.size(), LocalDateTime.now());
+			return rows.size();
+		} catch (DataAccessException | TransactionException e) {
+			failures.incrementAndGet();
+			failedCenterCounter.increment();
+			log.error("補充数の予測: 在庫センター {} の予測に失敗しました", centerId, e);
+			return 0;
+		} finally {
+			sample.stop(centerTimer);
+		}
+	}
+
+	/**
+	 * 1部品分の出庫数の推移から推奨発注数の行を追加
+	 * ※発注点 = 平均日次出庫数 × リードタイム + 安全在庫
+	 *   安全在庫 = 安全係数 × 日次出庫数の標準偏差 × √リードタイム
+	 *   推奨発注数 = 発注点 + 平均日次出庫数 × 発注間隔 - 在庫数（0未満は0）
+	 *
+	 * @param rows 追加先
+	 * @param series 出庫数の推移（部品未設定の場合は何もしない）
+	 * @param forecastDate 予測日
+	 * @param centerId 在庫センターID
+	 * @param quantities 部品ID → 在庫数
+	 * @param now 作成日時
+	 */
+	void addSuggestion(List<Object[]> rows, DemandSeries series, LocalDate forecastDate, int centerId,
+			Map<Integer, Integer> quantities, LocalDateTime now) {
+		if (series.partId == DemandSeries.NO_PART) {
+			return;
+		}
+		double mean = series.mean();
+		int safetyStock = (int) Math.ceil(safetyFactor * series.standardDeviation() * Math.sqrt(leadTimeDays));
+		int reorderPoint = (int) Math.ceil(mean * leadTimeDays) + safetyStock;
+		int quantity = quantities.getOrDefault(series.partId, 0);
+		int suggested = Math.max(reorderPoint + (int) Math.ceil(mean * reviewDays) - quantity, 0);
+		rows.add(new Object[] { forecastDate, centerId, series.partId, Math.round(mean * 1000) / 1000.0,
+				safetyStock, reorderPoint, quantity, suggested, now });
+	}
+
+	/**
+	 * 1部品分の日次出庫数の推移（出庫の無い日は0）
+	 */
+	static final class DemandSeries {
+
+		/** 部品未設定 */
+		static final int NO_PART = -1;
+
+		/** 日ごとの出庫数 */
+		private final long[] daily;
+
+		/** 部品ID */
+		int partId = NO_PART;
+
+		DemandSeries(int days) {
+			this.daily = new long[days];
+		}
+
+		void reset(int partId) {
+			this.partId = partId;
+			Arrays.fill(daily, 0);
+		}
+
+		void add(int day, long quantity) {
+			if (day >= 0 && day < daily.length) {
+				daily[day] += quantity;
+			}
+		}
+
+		double mean() {
+			long sum = 0;
+			for (long quantity : daily) {
+				sum += quantity;
+			}
+			return (double) sum / daily.length;
+		}
+
+		double standardDeviation() {
+			double mean = mean();
+			double squares = 0;
+			for (long quantity : daily) {
+				squares += (quantity - mean) * (quantity - mean);
+			}
+			return Math.sqrt(squares / daily.length);
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.digitalojt.web.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalojt.web.repository.RetentionPurgeRepository;
+import com.digitalojt.web.repository.RetentionPurgeRepository.PurgeTarget;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 論理削除済みの行の定期削除
+ * ※保持期間を過ぎた論理削除済みの行を、テーブルごとに少量ずつ短いトランザクションで物理削除する
+ *   バッチの間に待ち時間を入れ、画面からの参照・更新を妨げないようにする
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@Slf4j
+public class RetentionPurgeService {
+
+	/** 論理削除済みの行の物理削除 */
+	private final RetentionPurgeRepository purgeRepository;
+
+	/** トランザクションテンプレート（1バッチ単位でコミット） */
+	private final TransactionTemplate transactionTemplate;
+
+	/** 論理削除後の保持期間 */
+	private final Duration retention;
+
+	/** 1バッチあたりの削除件数 */
+	private final int batchSize;
+
+	/** バッチ間の待ち時間 */
+	private final Duration throttle;
+
+	/** 実行中かどうか */
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	/** テーブルごとの削除件数 */
+	private final Map<PurgeTarget, Counter> deletedCounters = new EnumMap<>(PurgeTarget.class);
+
+	/** テーブルごとの1バッチの所要時間 */
+	private final Map<PurgeTarget, Timer> batchTimers = new EnumMap<>(PurgeTarget.class);
+
+	/**
+	 * コンストラクタ
+	 */
+	public RetentionPurgeService(RetentionPurgeRepository purgeRepository,
+			PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+			@Value("${app.purge.retention:90d}") Duration retention,
+			@Value("${app.purge.batch-size:500}") int batchSize,
+			@Value("${app.purge.throttle:200ms}") Duration throttle) {
+		this.purgeRepository = purgeRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.retention = retention;
+		this.batchSize = batchSize;
+		this.throttle = throttle;
+
+		Gauge.builder("purge.running", running, flag -> flag.get() ? 1 : 0)
+				.description("論理削除済みの行の削除処理が実行中かどうか")
+				.register(meterRegistry);
+		for (PurgeTarget target : PurgeTarget.values()) {
+			deletedCounters.put(target, Counter.builder("purge.deleted")
+					.description("論理削除済みの行の削除件数")
+					.tag("table", target.getTable())
+					.register(meterRegistry));
+			batchTimers.put(target, Timer.builder("purge.batch")
+					.description("論理削除済みの行の削除の1バッチの所要時間")
+					.tag("table", target.getTable())
+					.register(meterRegistry));
+		}
+	}
+
+	/**
+	 * 定期削除
+	 * ※前回の実行が終わっていない場合は何もしない
+	 */
+	@Scheduled(cron = "${app.purge.cron:0 30 2 * * *}")
+	public void purge() {
+		if (!running.compareAndSet(false, true)) {
+			log.warn("論理削除済みの行の削除: 前回の処理が実行中のためスキップします");
+			return;
+		}
+		try {
+			LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+			// 参照元（操作履歴・在庫情報）を先に処理し、参照されなくなった管理者・センター・部品を削除する
+			for (PurgeTarget target : PurgeTarget.values()) {
+				purge(target, cutoff);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("論理削除済みの行の削除: 中断しました");
+		} finally {
+			running.set(false);
+		}
+	}
+
+	/**
+	 * 1テーブル分の削除
+	 * ※1バッチの失敗ではテーブルの処理を打ち切り、次回の実行で続きから再試行する
+	 *
+	 * @param target 削除対象のテーブル
+	 * @param cutoff この日時より前に論理削除された行を対象とする
+	 * @throws InterruptedException 待機中の割り込み
+	 */
+	private void purge(PurgeTarget target, LocalDateTime cutoff) throws InterruptedException {
+		long total = 0;
+		Object lastKey = null;
+		while (true) {
+			List<Object> keys;
+			try {
+				keys = purgeRepository.findPurgeableKeys(target, lastKey, cutoff, batchSize);
+				if (keys.isEmpty()) {
+					break;
+				}
+				Timer.Sample sample = Timer.start();
+				Integer deleted = transactionTemplate.execute(status -> purgeRepository.delete(target, keys, cutoff));
+				sample.stop(batchTimers.get(target));
+				deletedCounters.get(target).increment(deleted);
+				total += deleted;
+			} catch (DataAccessException | TransactionException e) {
+				log.error("論理削除済みの行の削除: {} の削除に失敗しました（削除済み {} 件）", target.getTable(), total, e);
+				return;
+			}
+			lastKey = keys.get(keys.size() - 1);
+			if (keys.size() < batchSize) {
+				break;
+			}
+			Thread.sleep(throttle.toMillis());
+		}
+		log.info("論理削除済みの行の削除: {} {} 件", target.getTable(), total);
+	}
+}
@@ -0,0 +1,232 @@
+package com.digitalojt.web.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.DeleteFlagConsts;
+import com.digitalojt.web.dto.StockMovedEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分類 × 在庫センターの在庫数集計
+ * ※在庫数の合計を long の1次元配列（添字 = センターの連番 × 分類数 + 分類の序数）で保持する
+ *   センターIDからセンターの連番への変換も int 配列で行い、参照・加算時にオブジェクトを生成しない
+ *   起動時（リクエストの受付開始前）に在庫情報テーブルから再構築し、以降は在庫移動イベントのコミット後に差分を加算する
+ *   イベントはこのJVM内で発行されたものしか届かないため（他インスタンスの在庫移動・在庫の論理削除など）、
+ *   定期的に在庫情報テーブルから再構築し、集計のずれが再構築間隔を超えて残らないようにする
+ *
+ * @author dotlife
+ * 
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockAggregateService implements SmartInitializingSingleton {
+
+	/** 分類の数 */
+	public static final int CATEGORY_COUNT = Category.values().length;
+
+	/** センターIDに連番が未割り当てであることを示す値 */
+	private static final int NO_SLOT = -1;
+
+	/** JDBCテンプレート */
+	private final JdbcTemplate jdbcTemplate;
+
+	/** 集計表の差し替え（再構築）・センター追加と、参照・加算の排他 */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** 集計表 */
+	private Matrix matrix = new Matrix();
+
+	/**
+	 * 起動時に在庫情報テーブルから再構築
+	 * ※全Beanの生成後・Webサーバーの起動前に呼ばれるため、再構築中に在庫移動が確定することはない
+	 *   （ApplicationReadyEvent ではリクエストの受付後となり、再構築と並行した在庫移動が集計から漏れる）
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		rebuild();
+	}
+
+	/**
+	 * 定期的な再構築
+	 * ※再構築中に確定した在庫移動は集計から漏れる・二重に加算される場合があるが、次回の再構築で解消する
+	 */
+	@Scheduled(fixedDelayString = "${app.stock.aggregate.rebuild-interval-ms:300000}",
+			initialDelayString = "${app.stock.aggregate.rebuild-interval-ms:300000}")
+	public void scheduledRebuild() {
+		try {
+			rebuild();
+		} catch (DataAccessException e) {
+			log.error("在庫数集計の再構築に失敗しました", e);
+		}
+	}
+
+	/**
+	 * 在庫情報テーブルから再構築
+	 * ※在庫移動と並行して呼び出すと、再構築中に確定した在庫移動が集計から漏れる場合がある
+	 */
+	public synchronized void rebuild() {
+		Matrix loaded = new Matrix();
+		jdbcTemplate.query("SELECT center_id, category, SUM(quantity) FROM stock_info "
+				+ "WHERE delete_flag = ? GROUP BY center_id, category",
+				rs -> {
+					int slot = loaded.assignSlot(rs.getInt(1));
+					loaded.totals.addAndGet(slot * CATEGORY_COUNT + Category.valueOf(rs.getString(2)).ordinal(),
+							rs.getLong(3));
+				},
+				DeleteFlagConsts.ACTIVE);
+
+		lock.writeLock().lock();
+		try {
+			matrix = loaded;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		log.info("在庫数集計再構築: センター {} 件", loaded.centerCount);
+	}
+
+	/**
+	 * 在庫移動の反映（コミット後）
+	 * 
+	 * @param event 在庫移動イベント
+	 */
+	@TransactionalEventListener
+	public void onStockMoved(StockMovedEvent event) {
+		if (event.getCategory() == null) {
+			return;
+		}
+		int offset = event.getCategory().ordinal();
+		lock.readLock().lock();
+		try {
+			int slot = matrix.slotOf(event.getCenterId());
+			if (slot != NO_SLOT) {
+				matrix.totals.addAndGet(slot * CATEGORY_COUNT + offset, event.getQuantity());
+				return;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		// 新しいセンターは連番を割り当ててから加算する
+		lock.writeLock().lock();
+		try {
+			matrix.totals.addAndGet(matrix.assignSlot(event.getCenterId()) * CATEGORY_COUNT + offset,
+					event.getQuantity());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 分類ごとの在庫数の合計を取得
+	 * 
+	 * @param centerId 在庫センターID（nullの場合は全センターの合計）
+	 * @param out 分類ごとの合計の格納先（添字 = 分類の序数、長さ CATEGORY_COUNT 以上）
+	 */
+	public void copyCategoryTotals(Integer centerId, long[] out) {
+		Arrays.fill(out, 0, CATEGORY_COUNT, 0L);
+		lock.readLock().lock();
+		try {
+			Matrix current = matrix;
+			if (centerId != null) {
+				int slot = current.slotOf(centerId);
+				if (slot != NO_SLOT) {
+					for (int i = 0; i < CATEGORY_COUNT; i++) {
+						out[i] = current.totals.get(slot * CATEGORY_COUNT + i);
+					}
+				}
+				return;
+			}
+			for (int slot = 0; slot < current.centerCount; slot++) {
+				for (int i = 0; i < CATEGORY_COUNT; i++) {
+					out[i] += current.totals.get(slot * CATEGORY_COUNT + i);
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 在庫センター・分類の在庫数の合計を取得
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param category 分類
+	 * @return 在庫数の合計
+	 */
+	public long getTotal(int centerId, Category category) {
+		lock.readLock().lock();
+		try {
+			int slot = matrix.slotOf(centerId);
+			return slot == NO_SLOT ? 0 : matrix.totals.get(slot * CATEGORY_COUNT + category.ordinal());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 集計表
+	 * ※参照・加算は読み込みロック、センターの追加は書き込みロックを取得して行う
+	 */
+	private static class Matrix {
+
+		/** センターID → センターの連番（未割り当ては NO_SLOT） */
+		private int[] slotByCenterId = new int[0];
+
+		/** 連番を割り当て済みのセンター数 */
+		private int centerCount;
+
+		/** 在庫数の合計（添字 = センターの連番 × 分類数 + 分類の序数） */
+		private AtomicLongArray totals = new AtomicLongArray(0);
+
+		/**
+		 * センターIDからセンターの連番を取得
+		 * 
+		 * @param centerId 在庫センターID
+		 * @return センターの連番（未割り当ては NO_SLOT）
+		 */
+		private int slotOf(int centerId) {
+			return centerId >= 0 && centerId < slotByCenterId.length ? slotByCenterId[centerId] : NO_SLOT;
+		}
+
+		/**
+		 * センターに連番を割り当て、必要に応じて配列を拡張
+		 * 
+		 * @param centerId 在庫センターID
+		 * @return センターの連番
+		 */
+		private int assignSlot(int centerId) {
+			int slot = slotOf(centerId);
+			if (slot != NO_SLOT) {
+				return slot;
+			}
+			if (centerId >= slotByCenterId.length) {
+				int from = slotByCenterId.length;
+				slotByCenterId = Arrays.copyOf(slotByCenterId, Math.max(centerId + 1, from * 2));
+				Arrays.fill(slotByCenterId, from, slotByCenterId.length, NO_SLOT);
+			}
+			slot = centerCount++;
+			slotByCenterId[centerId] = slot;
+			if (centerCount * CATEGORY_COUNT > totals.length()) {
+				long[] grown = new long[Math.max(CATEGORY_COUNT, totals.length() * 2)];
+				for (int i = 0; i < totals.length(); i++) {
+					grown[i] = totals.get(i);
+				}
+				totals = new AtomicLongArray(grown);
+			}
+			return slot;
+		}
+	}
+}
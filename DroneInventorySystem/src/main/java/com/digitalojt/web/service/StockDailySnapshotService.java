@@ -0,0 +1,90 @@
+package com.digitalojt.web.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalojt.web.repository.StockDailySnapshotRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 日次在庫スナップショットの定期作成
+ * ※前回作成した日の翌日から、終了した日（翌日0時 + commitMargin を過ぎた日）までを1日ずつ作成する
+ *   1日分を1トランザクションで作成し、途中で失敗した場合は次回の実行でその日から再開する
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@Slf4j
+public class StockDailySnapshotService {
+
+	/** 日次在庫スナップショット */
+	private final StockDailySnapshotRepository dailySnapshotRepository;
+
+	/** トランザクションテンプレート（1日単位でコミット） */
+	private final TransactionTemplate transactionTemplate;
+
+	/** スケジューラー（起動時の作成を起動処理と切り離して実行する） */
+	private final TaskScheduler taskScheduler;
+
+	/** 未コミットの移動を待つ時間 */
+	private final Duration commitMargin;
+
+	/**
+	 * コンストラクタ
+	 */
+	public StockDailySnapshotService(StockDailySnapshotRepository dailySnapshotRepository,
+			PlatformTransactionManager transactionManager, TaskScheduler taskScheduler,
+			@Value("${app.stock.snapshot.commit-margin:2m}") Duration commitMargin) {
+		this.dailySnapshotRepository = dailySnapshotRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.taskScheduler = taskScheduler;
+		this.commitMargin = commitMargin;
+	}
+
+	/**
+	 * 起動時に未作成の日を作成
+	 * ※停止期間が長いと複数日分の作成に時間がかかるため、起動イベントのスレッドでは実行せずスケジューラーに登録する
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		taskScheduler.schedule(this::createSnapshots, Instant.now());
+	}
+
+	/**
+	 * 定期作成
+	 */
+	@Scheduled(cron = "${app.stock.daily-snapshot.cron:0 15 0 * * *}")
+	public synchronized void createSnapshots() {
+		try {
+			LocalDate last = dailySnapshotRepository.findLastSnapshotDate();
+			LocalDate date = last != null ? last.plusDays(1) : dailySnapshotRepository.findFirstMovementDate();
+			if (date == null) {
+				return;
+			}
+			LocalDate until = LocalDateTime.now().minus(commitMargin).toLocalDate();
+			for (; date.isBefore(until); date = date.plusDays(1)) {
+				LocalDate target = date;
+				Integer count = transactionTemplate
+						.execute(status -> dailySnapshotRepository.create(target, LocalDateTime.now()));
+				log.info("日次在庫スナップショット作成: {} {} 件", target, count);
+			}
+		} catch (DataAccessException | TransactionException e) {
+			log.error("日次在庫スナップショットの作成に失敗しました", e);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.digitalojt.web.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.StockHistoryInterval;
+import com.digitalojt.web.dto.StockHistoryPoint;
+import com.digitalojt.web.repository.StockDailySnapshotRepository;
+import com.digitalojt.web.repository.StockDailySnapshotRepository.DailyQuantity;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫推移の取得
+ * ※日次在庫スナップショットのみを読み込み、集計単位（日次・週次・月次）ごとにまとめる
+ *   （在庫移動履歴は読まない）
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@RequiredArgsConstructor
+public class StockHistoryService {
+
+	/** 日次在庫スナップショット */
+	private final StockDailySnapshotRepository dailySnapshotRepository;
+
+	/**
+	 * 在庫センター・分類の在庫推移を取得
+	 * ※スナップショットの無い日（作成前の日・当日）は含まない
+	 *
+	 * @param centerId 在庫センターID
+	 * @param category 分類
+	 * @param interval 集計単位
+	 * @param from 開始日
+	 * @param to 終了日
+	 * @return 集計期間の開始日の昇順の在庫推移
+	 */
+	public List<StockHistoryPoint> getHistory(int centerId, Category category, StockHistoryInterval interval,
+			LocalDate from, LocalDate to) {
+		List<DailyQuantity> days = dailySnapshotRepository.findDailyQuantities(centerId, category, from, to);
+
+		List<StockHistoryPoint> points = new ArrayList<>();
+		LocalDate bucket = null;
+		long quantity = 0;
+		long min = 0;
+		long max = 0;
+		for (DailyQuantity day : days) {
+			LocalDate dayBucket = interval.bucketStart(day.date());
+			if (!dayBucket.equals(bucket)) {
+				if (bucket != null) {
+					points.add(new StockHistoryPoint(bucket, quantity, min, max));
+				}
+				bucket = dayBucket;
+				min = day.quantity();
+				max = day.quantity();
+			}
+			quantity = day.quantity();
+			min = Math.min(min, quantity);
+			max = Math.max(max, quantity);
+		}
+		if (bucket != null) {
+			points.add(new StockHistoryPoint(bucket, quantity, min, max));
+		}
+		return points;
+	}
+}
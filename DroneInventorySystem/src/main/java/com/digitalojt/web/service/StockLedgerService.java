@@ -0,0 +1,48 @@
+package com.digitalojt.web.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalojt.web.repository.StockMovementRepository;
+import com.digitalojt.web.repository.StockSnapshotRepository;
+import com.digitalojt.web.repository.StockSnapshotRepository.Snapshot;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫移動履歴からの在庫数の算出
+ * ※直前のスナップショットの在庫数に、スナップショット以降の移動のみを加えて求める
+ *   （移動履歴を先頭から走査しない）
+ *   スナップショットと以降の移動は同一トランザクション（同一の読み取りビュー）で読み込む
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@RequiredArgsConstructor
+public class StockLedgerService {
+
+	/** 在庫移動履歴 */
+	private final StockMovementRepository movementRepository;
+
+	/** 在庫スナップショット */
+	private final StockSnapshotRepository snapshotRepository;
+
+	/**
+	 * 指定日時時点の在庫数を取得
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param asOf 基準日時
+	 * @return 在庫数
+	 */
+	@Transactional(readOnly = true)
+	public long getQuantityAsOf(int centerId, int partId, LocalDateTime asOf) {
+		Snapshot snapshot = snapshotRepository.findLatest(centerId, partId, asOf);
+		long base = snapshot == null ? 0 : snapshot.quantity();
+		long after = snapshot == null ? 0 : snapshot.lastMovementId();
+		return base + movementRepository.sumQuantity(centerId, partId, after, asOf);
+	}
+}
@@ -0,0 +1,52 @@
+package com.digitalojt.web.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.StockMovementType;
+import com.digitalojt.web.dto.StockMovedEvent;
+import com.digitalojt.web.repository.StockInfoRepository;
+import com.digitalojt.web.repository.StockMovementRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫移動の記録
+ * ※在庫数を更新した処理は、同じトランザクション内で必ずここから在庫移動を記録する
+ *   記録と同時に在庫移動イベントを発行し、集計・在庫不足検知などはコミット後に差分を反映する
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@RequiredArgsConstructor
+public class StockMovementService {
+
+	/** 在庫情報テーブル リポジトリー */
+	private final StockInfoRepository stockInfoRepository;
+
+	/** 在庫移動履歴 リポジトリー */
+	private final StockMovementRepository stockMovementRepository;
+
+	/** イベント発行 */
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * 在庫移動を記録
+	 * ※分類は在庫情報から取得する（在庫情報の行ロックを取得済みのトランザクション内で呼び出すこと）
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param type 移動種別
+	 * @param quantity 増減した数量（出庫は負数）
+	 * @param now 移動日時
+	 */
+	public void record(int centerId, int partId, StockMovementType type, int quantity, LocalDateTime now) {
+		Category category = stockInfoRepository.findCategory(centerId, partId);
+		stockMovementRepository.insert(centerId, partId, category, type, quantity, now);
+		eventPublisher.publishEvent(new StockMovedEvent(centerId, partId, category, type, quantity));
+	}
+}
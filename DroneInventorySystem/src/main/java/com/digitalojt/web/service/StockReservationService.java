@@ -0,0 +1,123 @@
+package com.digitalojt.web.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalojt.web.audit.Audited;
+import com.digitalojt.web.consts.ErrorMessage;
+import com.digitalojt.web.consts.OperationType;
+import com.digitalojt.web.consts.ScreenTitle;
+import com.digitalojt.web.consts.StockMovementType;
+import com.digitalojt.web.exception.InsufficientStockException;
+import com.digitalojt.web.exception.InvalidInputException;
+import com.digitalojt.web.repository.CenterInfoRepository;
+import com.digitalojt.web.repository.StockInfoRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫数の引当・調整サービス
+ * ※在庫数は読み込んでから書き戻さず、条件付きのUPDATE（在庫数 + 増減 >= 0）で加減算する
+ *   同じ在庫への同時更新はDBの行ロックで直列化されるため、アプリケーションを複数台で動かしても更新が失われない
+ *   在庫数の増減は在庫移動履歴への記録・在庫センターの現在容量への反映と同じトランザクションで行う
+ *
+ * @author dotlife
+ * 
+ */
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+	/** 在庫情報テーブル リポジトリー */
+	private final StockInfoRepository stockInfoRepository;
+
+	/** センター情報テーブル リポジトリー */
+	private final CenterInfoRepository centerInfoRepository;
+
+	/** 在庫移動の記録 */
+	private final StockMovementService stockMovementService;
+
+	/**
+	 * 在庫を引き当てる
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param quantity 引当数（1以上）
+	 * @throws InsufficientStockException 在庫が無い・不足する場合
+	 */
+	@Transactional
+	public void reserve(int centerId, int partId, int quantity) {
+		apply(centerId, partId, StockMovementType.ISSUE, -requirePositive(quantity));
+	}
+
+	/**
+	 * 引き当てた在庫を戻す
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param quantity 戻す数量（1以上）
+	 * @throws InsufficientStockException 在庫が無い場合
+	 */
+	@Transactional
+	public void release(int centerId, int partId, int quantity) {
+		apply(centerId, partId, StockMovementType.RECEIPT, requirePositive(quantity));
+	}
+
+	/**
+	 * 在庫数を調整する（棚卸差異の反映など）
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param delta 増減する数量（0以外）
+	 * @throws InsufficientStockException 在庫が無い・調整後の在庫数が0未満となる場合
+	 */
+	@Transactional
+	@Audited(screen = ScreenTitle.STOCK_LIST, operation = OperationType.UPDATE, details = "在庫数調整")
+	public void adjust(int centerId, int partId, int delta) {
+		if (delta == 0) {
+			throw new InvalidInputException(ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+		}
+		apply(centerId, partId, StockMovementType.ADJUSTMENT, delta);
+	}
+
+	/**
+	 * 在庫数と在庫センターの現在容量を加減算し、在庫移動を記録
+	 * ※センター行 → 在庫行の順にロックする（複数行を更新する処理もこの順序に従うこと）
+	 *   センター行は在庫移管（StockTransferService）と同じく先に排他ロックし、後の現在容量の更新で待ち合わせない
+	 *   在庫移動の記録日時はセンター行のロック取得後に決める（ロック待ちの間に記録日時が古くなり、
+	 *   記録日時の順序と移動IDの順序が食い違わないようにする）。在庫数を更新する処理はすべて
+	 *   センター行を先にロックするため、以降の在庫行の更新でロック待ちは発生しない
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param type 移動種別
+	 * @param delta 増減する数量
+	 */
+	private void apply(int centerId, int partId, StockMovementType type, int delta) {
+		centerInfoRepository.lockCenters(List.of(centerId));
+		LocalDateTime now = LocalDateTime.now();
+		if (stockInfoRepository.addQuantity(centerId, partId, delta, now) == 0) {
+			throw new InsufficientStockException(stockInfoRepository.existsActiveStock(centerId, partId)
+					? ErrorMessage.STOCK_INSUFFICIENT_ERROR_MESSAGE
+					: ErrorMessage.STOCK_NOT_FOUND_ERROR_MESSAGE);
+		}
+		stockMovementService.record(centerId, partId, type, delta, now);
+		centerInfoRepository.addCurrentStorageCapacity(centerId, delta, now);
+	}
+
+	/**
+	 * 数量が1以上であることを確認
+	 * 
+	 * @param quantity 数量
+	 * @return 数量
+	 */
+	private int requirePositive(int quantity) {
+		if (quantity <= 0) {
+			throw new InvalidInputException(ErrorMessage.INVALID_INPUT_ERROR_MESSAGE);
+		}
+		return quantity;
+	}
+}
@@ -0,0 +1,80 @@
+package com.digitalojt.web.service;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.ModelAttributeContents;
+import com.digitalojt.web.dto.KeysetPage;
+import com.digitalojt.web.entity.CenterInfo;
+import com.digitalojt.web.entity.StockInfo;
+import com.digitalojt.web.form.StockListForm;
+import com.digitalojt.web.repository.CenterInfoRepository;
+import com.digitalojt.web.repository.StockInfoRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫一覧画面のサービスクラス
+ * ※件数は数えず、在庫数・在庫IDのキーセットで1ページ分のみを取得する
+ *
+ * @author dotlife
+ * 
+ */
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+	/** 在庫情報テーブル リポジトリー */
+	private final StockInfoRepository repository;
+
+	/** センター情報テーブル リポジトリー */
+	private final CenterInfoRepository centerInfoRepository;
+
+	/**
+	 * 引数に合致する在庫情報を1ページ分取得
+	 * 
+	 * @param form 検索条件・ページングカーソル（条件なしの場合は全在庫が対象）
+	 * @return 1ページ分の在庫情報
+	 */
+	public KeysetPage<StockInfo> getStockData(StockListForm form) {
+		int size = normalizePageSize(form.getPageSize());
+		Category category = form.getCategory() == null || form.getCategory().isEmpty()
+				? null
+				: Category.valueOf(form.getCategory());
+
+		// 先頭ページは在庫数の最小値より前から取得する
+		boolean firstPage = form.getLastQuantity() == null || form.getLastStockId() == null;
+		int lastQuantity = firstPage ? Integer.MIN_VALUE : form.getLastQuantity();
+		int lastStockId = firstPage ? 0 : form.getLastStockId();
+
+		List<StockInfo> rows = repository.findStocks(category, form.getCenterId(),
+				form.getQuantityFrom(), form.getQuantityTo(), lastQuantity, lastStockId,
+				PageRequest.ofSize(size + 1));
+		return KeysetPage.of(rows, size);
+	}
+
+	/**
+	 * 在庫センターの選択肢を取得
+	 * 
+	 * @return 稼働中の在庫センター情報（センターIDの昇順）
+	 */
+	public List<CenterInfo> getCenters() {
+		return centerInfoRepository.findAllActiveCenters();
+	}
+
+	/**
+	 * ページサイズを上限・下限の範囲に丸める
+	 * 
+	 * @param pageSize
+	 * @return 丸めたページサイズ
+	 */
+	private int normalizePageSize(Integer pageSize) {
+		if (pageSize == null || pageSize <= 0) {
+			return ModelAttributeContents.STOCK_LIST_PAGE_SIZE;
+		}
+		return Math.min(pageSize, ModelAttributeContents.MAX_STOCK_LIST_PAGE_SIZE);
+	}
+}
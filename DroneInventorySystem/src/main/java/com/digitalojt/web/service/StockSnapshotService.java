@@ -0,0 +1,77 @@
+package com.digitalojt.web.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalojt.web.repository.StockMovementRepository;
+import com.digitalojt.web.repository.StockSnapshotRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 在庫スナップショットの定期作成
+ * ※前回のスナップショット以降の在庫移動を在庫センター・部品ごとに合計し、前回の在庫数に加えて書き出す
+ *   実行中のトランザクションが後からコミットする移動を取りこぼさないよう、
+ *   基準日時は現在時刻から commitMargin 前とし、それより前に記録された移動までを反映する
+ *   移動の記録日時は在庫センター行のロック取得後に決まるため（StockReservationService・StockTransferService）、
+ *   commitMargin は「ロック取得後のトランザクションの処理時間」より長くすること
+ *   （短いと、基準日時より前の日時で後からコミットされた移動がスナップショットから漏れ、以降も反映されない）
+ *
+ * @author dotlife
+ *
+ */
+@Service
+@Slf4j
+public class StockSnapshotService {
+
+	/** 在庫移動履歴 */
+	private final StockMovementRepository movementRepository;
+
+	/** 在庫スナップショット */
+	private final StockSnapshotRepository snapshotRepository;
+
+	/** トランザクションテンプレート */
+	private final TransactionTemplate transactionTemplate;
+
+	/** 未コミットの移動を待つ時間 */
+	private final Duration commitMargin;
+
+	/**
+	 * コンストラクタ
+	 */
+	public StockSnapshotService(StockMovementRepository movementRepository,
+			StockSnapshotRepository snapshotRepository, PlatformTransactionManager transactionManager,
+			@Value("${app.stock.snapshot.commit-margin:2m}") Duration commitMargin) {
+		this.movementRepository = movementRepository;
+		this.snapshotRepository = snapshotRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.commitMargin = commitMargin;
+	}
+
+	/**
+	 * 定期作成
+	 */
+	@Scheduled(cron = "${app.stock.snapshot.cron:0 5 * * * *}")
+	public synchronized void createSnapshot() {
+		try {
+			LocalDateTime snapshotAt = LocalDateTime.now().minus(commitMargin);
+			long from = snapshotRepository.findLastMovementId();
+			Long to = movementRepository.findMaxMovementId(from, snapshotAt);
+			if (to == null) {
+				return;
+			}
+			Integer count = transactionTemplate.execute(status -> snapshotRepository.create(from, to, snapshotAt));
+			log.info("在庫スナップショット作成: 移動ID {} 〜 {} を {} 件に反映しました", from + 1, to, count);
+		} catch (DataAccessException | TransactionException e) {
+			log.error("在庫スナップショットの作成に失敗しました", e);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.digitalojt.web.service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalojt.web.audit.Audited;
+import com.digitalojt.web.consts.ErrorMessage;
+import com.digitalojt.web.consts.OperationType;
+import com.digitalojt.web.consts.ScreenTitle;
+import com.digitalojt.web.consts.StockMovementType;
+import com.digitalojt.web.exception.InsufficientStockException;
+import com.digitalojt.web.exception.InvalidInputException;
+import com.digitalojt.web.form.StockTransferForm;
+import com.digitalojt.web.repository.CenterInfoRepository;
+import com.digitalojt.web.repository.StockInfoRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 在庫センター間の在庫移管サービス
+ * ※デッドロックを避けるため、明細の順序によらず以下の順でロックする
+ *   1. センター行：在庫センターIDの昇順（SELECT ... FOR UPDATE で排他ロック）
+ *   2. 在庫行：（在庫センターID, 部品ID）の昇順
+ *   在庫行の登録は外部キーによりセンター行の共有ロックを取得するため、センター行を後から更新すると
+ *   共有ロック → 排他ロックの昇格で待ち合わせが循環する。センター行の排他ロックを先に取得してこれを避ける
+ *   在庫数の引当・調整（StockReservationService）も センター行 → 在庫行 の順にロックするため、
+ *   どの組み合わせで同時に実行しても待ち合わせが循環しない
+ *
+ * @author dotlife
+ * 
+ */
+@Service
+@RequiredArgsConstructor
+public class StockTransferService {
+
+	/** 在庫行のロック順序 */
+	private static final Comparator<StockKey> LOCK_ORDER = Comparator.comparingInt(StockKey::centerId)
+			.thenComparingInt(StockKey::partId);
+
+	/** 在庫情報テーブル リポジトリー */
+	private final StockInfoRepository stockInfoRepository;
+
+	/** センター情報テーブル リポジトリー */
+	private final CenterInfoRepository centerInfoRepository;
+
+	/** 在庫移動の記録 */
+	private final StockMovementService stockMovementService;
+
+	/**
+	 * 在庫行のキー
+	 * 
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 */
+	private record StockKey(int centerId, int partId) {
+	}
+
+	/**
+	 * 在庫を移管する
+	 * ※全明細を1トランザクションで反映し、いずれかの明細で在庫が不足する場合は全明細を取り消す
+	 *   同じ在庫への複数明細は増減を合算し、移管後の在庫数が0以上であれば途中経過は問わない
+	 * 
+	 * @param lines 移管明細
+	 * @throws InvalidInputException 移管元・移管先が同じ、または稼働中でない在庫センターを含む場合
+	 * @throws InsufficientStockException 移管元の在庫が無い・不足する場合
+	 */
+	@Transactional
+	@Audited(screen = ScreenTitle.STOCK_LIST, operation = OperationType.UPDATE, details = "在庫移管")
+	public void transfer(List<StockTransferForm.Line> lines) {
+		validate(lines);
+
+		// 在庫行・センター行ごとの増減を、ロック順に並べて合算する
+		Map<StockKey, Integer> stockDeltas = new TreeMap<>(LOCK_ORDER);
+		Map<Integer, Integer> centerDeltas = new TreeMap<>();
+		for (StockTransferForm.Line line : lines) {
+			int quantity = line.getQuantity();
+			stockDeltas.merge(new StockKey(line.getFromCenterId(), line.getPartId()), -quantity, Integer::sum);
+			stockDeltas.merge(new StockKey(line.getToCenterId(), line.getPartId()), quantity, Integer::sum);
+			centerDeltas.merge(line.getFromCenterId(), -quantity, Integer::sum);
+			centerDeltas.merge(line.getToCenterId(), quantity, Integer::sum);
+		}
+
+		// 1. センター行（在庫行より先に排他ロックを取得する）
+		centerInfoRepository.lockCenters(centerDeltas.keySet());
+
+		// 在庫移動の記録日時はロック取得後に決める（ロック待ちの分だけ記録日時が移動IDの順序より古くならないように）
+		LocalDateTime now = LocalDateTime.now();
+
+		// 2. 在庫行（更新と同時に行ロックを取得する）
+		stockDeltas.forEach((key, delta) -> applyStock(key, delta, now));
+
+		// 在庫移動は明細ごとに記録する（ロック済みの在庫行から分類を複製する）
+		for (StockTransferForm.Line line : lines) {
+			stockMovementService.record(line.getFromCenterId(), line.getPartId(),
+					StockMovementType.TRANSFER_OUT, -line.getQuantity(), now);
+			stockMovementService.record(line.getToCenterId(), line.getPartId(),
+					StockMovementType.TRANSFER_IN, line.getQuantity(), now);
+		}
+
+		// センター行の現在容量（ロック済み）
+		centerDeltas.forEach((centerId, delta) -> {
+			if (delta != 0) {
+				centerInfoRepository.addCurrentStorageCapacity(centerId, delta, now);
+			}
+		});
+	}
+
+	/**
+	 * 1在庫行分の増減を反映
+	 * 
+	 * @param key 在庫行のキー
+	 * @param delta 増減（合算後）
+	 * @param now 更新日時
+	 */
+	private void applyStock(StockKey key, int delta, LocalDateTime now) {
+		if (delta > 0) {
+			// 移管先に在庫が無い場合は登録する
+			if (stockInfoRepository.upsertQuantity(key.centerId(), key.partId(), delta, now) == 0) {
+				throw new InsufficientStockException(ErrorMessage.STOCK_NOT_FOUND_ERROR_MESSAGE);
+			}
+		} else if (stockInfoRepository.addQuantity(key.centerId(), key.partId(), delta, now) == 0) {
+			// 合算して増減が0の在庫も、在庫の有無はここで確認する
+			throw new InsufficientStockException(stockInfoRepository.existsActiveStock(key.centerId(), key.partId())
+					? ErrorMessage.STOCK_INSUFFICIENT_ERROR_MESSAGE
+					: ErrorMessage.STOCK_NOT_FOUND_ERROR_MESSAGE);
+		}
+	}
+
+	/**
+	 * 明細の妥当性を確認
+	 * 
+	 * @param lines 移管明細
+	 */
+	private void validate(List<StockTransferForm.Line> lines) {
+		TreeSet<Integer> centerIds = new TreeSet<>();
+		for (StockTransferForm.Line line : lines) {
+			if (line.getFromCenterId().equals(line.getToCenterId())) {
+				throw new InvalidInputException(ErrorMessage.STOCK_TRANSFER_SAME_CENTER_ERROR_MESSAGE);
+			}
+			centerIds.add(line.getFromCenterId());
+			centerIds.add(line.getToCenterId());
+		}
+		if (centerInfoRepository.countActiveCenters(centerIds) != centerIds.size()) {
+			throw new InvalidInputException(ErrorMessage.STOCK_TRANSFER_CENTER_ERROR_MESSAGE);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.digitalojt.web.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 文字列のブルームフィルタ 共通クラス
+ * ※「含まれない」判定は確実で、「含まれるかもしれない」判定は誤検知率 fpp 程度で誤る
+ *   ビット列は AtomicLongArray で保持するため、追加と判定をロックなしで並行に行える
+ *   想定件数を超えて追加すると誤検知率が上がるため、作り直して容量を広げること
+ * 
+ * @author dotlife
+ */
+public class BloomFilter {
+
+	/** ビット列 */
+	private final AtomicLongArray bits;
+
+	/** ビット数 */
+	private final long bitCount;
+
+	/** ハッシュ関数の数 */
+	private final int hashCount;
+
+	/** 想定件数 */
+	private final int expectedInsertions;
+
+	/** 追加件数 */
+	private final AtomicInteger insertions = new AtomicInteger();
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param expectedInsertions 想定件数
+	 * @param fpp 誤検知率（0より大きく1未満）
+	 */
+	public BloomFilter(int expectedInsertions, double fpp) {
+		this.expectedInsertions = Math.max(expectedInsertions, 1);
+		long optimalBits = (long) Math.ceil(-this.expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.max((optimalBits + Long.SIZE - 1) / Long.SIZE, 1);
+		this.bits = new AtomicLongArray(words);
+		this.bitCount = (long) words * Long.SIZE;
+		this.hashCount = Math.max((int) Math.round((double) bitCount / this.expectedInsertions * Math.log(2)), 1);
+	}
+
+	/**
+	 * 追加
+	 * ※すべてのビットが立っていた（追加済み、または誤検知となる）値は追加件数に数えない
+	 * 
+	 * @param value 値
+	 * @return ビットが変化した場合はtrue
+	 */
+	public boolean put(String value) {
+		long hash = hash(value);
+		int hash1 = (int) hash;
+		int hash2 = (int) (hash >>> 32);
+		boolean changed = false;
+		for (int i = 1; i <= hashCount; i++) {
+			long index = index(hash1, hash2, i);
+			long mask = 1L << index;
+			int word = (int) (index >>> 6);
+			long current;
+			while (((current = bits.get(word)) & mask) == 0) {
+				if (bits.compareAndSet(word, current, current | mask)) {
+					changed = true;
+					break;
+				}
+				// 他スレッドが同じ語を更新した場合は再試行
+			}
+		}
+		if (changed) {
+			insertions.incrementAndGet();
+		}
+		return changed;
+	}
+
+	/**
+	 * 含まれるかもしれないかどうか
+	 * 
+	 * @param value 値
+	 * @return false の場合は確実に含まれない
+	 */
+	public boolean mightContain(String value) {
+		long hash = hash(value);
+		int hash1 = (int) hash;
+		int hash2 = (int) (hash >>> 32);
+		for (int i = 1; i <= hashCount; i++) {
+			long index = index(hash1, hash2, i);
+			if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 想定件数を超えて追加されたかどうか
+	 * 
+	 * @return 超えた場合はtrue
+	 */
+	public boolean isSaturated() {
+		return insertions.get() > expectedInsertions;
+	}
+
+	/**
+	 * 追加件数
+	 * 
+	 * @return ビットが変化した追加の件数（追加済みの値の再追加は含まない）
+	 */
+	public int getInsertions() {
+		return insertions.get();
+	}
+
+	/**
+	 * i番目のハッシュ関数のビット位置（ダブルハッシュ法）
+	 */
+	private long index(int hash1, int hash2, int i) {
+		int combined = hash1 + i * hash2;
+		if (combined < 0) {
+			combined = ~combined;
+		}
+		return combined % bitCount;
+	}
+
+	/**
+	 * 64ビットハッシュ（FNV-1a の結果を MurmurHash3 の最終処理で撹拌）
+	 */
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,117 @@
+package com.digitalojt.web.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV読み込み 共通クラス
+ * ※1レコードずつ読み込むため、ファイルサイズに関わらず一定メモリで処理できる
+ *   ダブルクォートで囲まれた項目（カンマ・改行・"" を含む）に対応する
+ * 
+ * @author dotlife
+ */
+public class CsvReader {
+
+	/** BOM */
+	private static final char BOM = '\uFEFF';
+
+	/** 読み込み元 */
+	private final BufferedReader reader;
+
+	/** 直近に読み込んだレコードの開始行番号 */
+	private int lineNumber;
+
+	/** 読み込み済みの行数 */
+	private int linesRead;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param reader 読み込み元
+	 */
+	public CsvReader(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * 1レコード読み込み
+	 * 
+	 * @return 項目のリスト（終端に達した場合はnull）
+	 */
+	public List<String> readRecord() {
+		String line = readLine();
+		if (line == null) {
+			return null;
+		}
+		if (linesRead == 1 && !line.isEmpty() && line.charAt(0) == BOM) {
+			line = line.substring(1);
+		}
+		lineNumber = linesRead;
+
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		while (true) {
+			for (int i = 0; i < line.length(); i++) {
+				char c = line.charAt(i);
+				if (quoted) {
+					if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+						field.append('"');
+						i++;
+					} else if (c == '"') {
+						quoted = false;
+					} else {
+						field.append(c);
+					}
+				} else if (c == '"') {
+					quoted = true;
+				} else if (c == ',') {
+					fields.add(field.toString());
+					field.setLength(0);
+				} else {
+					field.append(c);
+				}
+			}
+			if (!quoted) {
+				break;
+			}
+			// ダブルクォート内の改行は項目の一部として次の行を読み込む
+			line = readLine();
+			if (line == null) {
+				break;
+			}
+			field.append('\n');
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	/**
+	 * 直近に読み込んだレコードの開始行番号を取得
+	 * 
+	 * @return 行番号（1始まり）
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * 1行読み込み
+	 * 
+	 * @return 行（終端に達した場合はnull）
+	 */
+	private String readLine() {
+		try {
+			String line = reader.readLine();
+			if (line != null) {
+				linesRead++;
+			}
+			return line;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.digitalojt.web.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CSV出力 共通クラス
+ * ※Excelで文字化けしないよう、UTF-8(BOM付き)で出力する
+ * 
+ * @author dotlife
+ */
+public class CsvWriter {
+
+	/** 日時の出力形式 */
+	private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+
+	/** 出力先 */
+	private final BufferedWriter writer;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param outputStream 出力先ストリーム
+	 */
+	public CsvWriter(OutputStream outputStream) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		write("\uFEFF");
+	}
+
+	/**
+	 * 1行出力
+	 * 
+	 * @param values 列の値
+	 */
+	public void writeRow(Object... values) {
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				line.append(',');
+			}
+			line.append(escape(values[i]));
+		}
+		line.append("\r\n");
+		write(line.toString());
+	}
+
+	/**
+	 * バッファの内容を出力先へ送出
+	 */
+	public void flush() {
+		try {
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 値をCSVの1項目に変換
+	 * ※カンマ・ダブルクォート・改行を含む場合はダブルクォートで囲む
+	 * 
+	 * @param value
+	 * @return CSVの1項目
+	 */
+	private static String escape(Object value) {
+		if (value == null) {
+			return "";
+		}
+		String text = value instanceof LocalDateTime dateTime ? dateTime.format(DATE_TIME_FORMAT) : value.toString();
+		if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+			return text;
+		}
+		return '"' + text.replace("\"", "\"\"") + '"';
+	}
+
+	/**
+	 * 文字列を出力
+	 * 
+	 * @param text
+	 */
+	private void write(String text) {
+		try {
+			writer.write(text);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -33,7 +33,7 @@ public class CenterInfoFormValidatorImpl implements ConstraintValidator<CenterIn
         }
         
         // センター名が不正文字に含まれる場合にエラー処理
-        if (isValidCenterName(form.getCenterName())) {
+        if (form.getCenterName() != null && isValidCenterName(form.getCenterName())) {
             context.disableDefaultConstraintViolation();
             context.buildConstraintViolationWithTemplate(ErrorMessageHelper.getMessage(ErrorMessage.ALL_FIELDS_EMPTY_ERROR_MESSAGE))
                    .addConstraintViolation();
@@ -41,7 +41,7 @@ public class CenterInfoFormValidatorImpl implements ConstraintValidator<CenterIn
         }
 
         // 都道府県のバリデーション
-        if (!isValidRegion(form.getRegion())) {
+        if (form.getRegion() != null && !isValidRegion(form.getRegion())) {
             // 都道府県が無効な場合、エラーメッセージをスロー
             context.disableDefaultConstraintViolation();
             context.buildConstraintViolationWithTemplate(ErrorMessageHelper.getMessage(ErrorMessage.ALL_FIELDS_EMPTY_ERROR_MESSAGE))
@@ -49,9 +49,30 @@ public class CenterInfoFormValidatorImpl implements ConstraintValidator<CenterIn
             return false;
         }
 
+        // 容量の範囲が不正な場合にエラー処理（容量(From)は初期値を補完した後の値で判定する）
+        if (!isValidCapacityRange(form.init(), form.getStorageCapacityTo())) {
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(ErrorMessageHelper.getMessage(ErrorMessage.STORAGE_CAPACITY_RANGE_ERROR_MESSAGE))
+                   .addConstraintViolation();
+            return false;
+        }
+
         // バリデーションが成功した場合はtrueを返す
         return true;
     }
+
+    /**
+     * 容量の範囲が有効かどうかを確認
+     * @param from 容量(From)
+     * @param to 容量(To)
+     * @return 0以上かつ From <= To の場合はtrue
+     */
+    private boolean isValidCapacityRange(Integer from, Integer to) {
+        if ((from != null && from < 0) || (to != null && to < 0)) {
+            return false;
+        }
+        return from == null || to == null || from <= to;
+    }
     
     /**
      * 文字列の不正文字チェックを実施する
@@ -113,7 +134,10 @@ public class CenterInfoFormValidatorImpl implements ConstraintValidator<CenterIn
      * @return すべてのフィールドがnullまたは空の場合はtrue、それ以外はfalse
      */
     private boolean isAllFieldsEmpty(CenterInfoForm form) {
-        // センター名または都道府県がnullまたは空の場合にtrueを返す
-        return form.getCenterName().isEmpty() && form.getRegion().isEmpty();
+        // センター名・都道府県・容量がすべてnullまたは空の場合にtrueを返す
+        return (form.getCenterName() == null || form.getCenterName().isEmpty())
+                && (form.getRegion() == null || form.getRegion().isEmpty())
+                && form.getStorageCapacityFrom() == null
+                && form.getStorageCapacityTo() == null;
     }
 }
@@ -0,0 +1,28 @@
+package com.digitalojt.web.validation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.digitalojt.web.consts.ErrorMessage;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import jakarta.validation.ReportAsSingleViolation;
+
+/**
+ * 在庫一覧画面のバリデーションチェック インターフェース
+ * 
+ * @author dotlife
+ */
+@Constraint(validatedBy = StockListFormValidatorImpl.class)
+@Target({ ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@ReportAsSingleViolation
+public @interface StockListFormValidator {
+
+	String message() default ErrorMessage.INVALID_INPUT_ERROR_MESSAGE;
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
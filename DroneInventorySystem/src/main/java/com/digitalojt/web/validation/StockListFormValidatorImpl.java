@@ -0,0 +1,71 @@
+package com.digitalojt.web.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.ErrorMessage;
+import com.digitalojt.web.exception.ErrorMessageHelper;
+import com.digitalojt.web.form.StockListForm;
+
+/**
+ * 在庫一覧のバリデーション処理実装
+ * StockListForm のフィールドに対してバリデーションを行うクラスです。
+ */
+public class StockListFormValidatorImpl implements ConstraintValidator<StockListFormValidator, StockListForm> {
+
+    /**
+     * フォームデータのバリデーション処理を行う
+     * @param form バリデーション対象のフォームデータ
+     * @param context バリデーションコンテキスト
+     * @return フォームが有効かどうか（有効ならtrue、無効ならfalse）
+     */
+    @Override
+    public boolean isValid(StockListForm form, ConstraintValidatorContext context) {
+        // 分類が列挙値に含まれない場合にエラー処理
+        if (form.getCategory() != null && !form.getCategory().isEmpty() && !isValidCategory(form.getCategory())) {
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(ErrorMessageHelper.getMessage(ErrorMessage.INVALID_INPUT_ERROR_MESSAGE))
+                   .addConstraintViolation();
+            return false;
+        }
+
+        // 在庫数の範囲が不正な場合にエラー処理
+        if (!isValidQuantityRange(form.getQuantityFrom(), form.getQuantityTo())) {
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(ErrorMessageHelper.getMessage(ErrorMessage.STOCK_QUANTITY_RANGE_ERROR_MESSAGE))
+                   .addConstraintViolation();
+            return false;
+        }
+
+        // バリデーションが成功した場合はtrueを返す
+        return true;
+    }
+
+    /**
+     * 分類が有効かどうかを確認
+     * @param category 分類（Categoryの列挙名）
+     * @return 列挙値に含まれる場合はtrue
+     */
+    private boolean isValidCategory(String category) {
+        for (Category value : Category.values()) {
+            if (value.name().equals(category)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在庫数の範囲が有効かどうかを確認
+     * @param from 在庫数(From)
+     * @param to 在庫数(To)
+     * @return 0以上かつ From <= To の場合はtrue
+     */
+    private boolean isValidQuantityRange(Integer from, Integer to) {
+        if ((from != null && from < 0) || (to != null && to < 0)) {
+            return false;
+        }
+        return from == null || to == null || from <= to;
+    }
+}
@@ -0,0 +1,6 @@
+-- ============================================================
+-- 在庫情報：発注点
+-- ※在庫数が発注点を下回った在庫を在庫不足として検知する（0は検知対象外）
+-- ============================================================
+
+ALTER TABLE stock_info ADD COLUMN reorder_point INT NOT NULL DEFAULT 0 AFTER quantity;
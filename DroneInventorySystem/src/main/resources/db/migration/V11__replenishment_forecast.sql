@@ -0,0 +1,39 @@
+-- ============================================================
+-- 補充数の予測
+-- ※出庫履歴（在庫移動履歴の出庫）から在庫センター・部品ごとの発注点・推奨発注数を算出する
+--   予測バッチは在庫センター単位で進捗（チェックポイント）を記録し、中断後は未完了のセンターから再開する
+-- ============================================================
+
+-- 在庫センターごとに出庫履歴を期間指定で読み込むためのインデックス
+CREATE INDEX idx_stock_movement_center_type_date ON stock_movement (center_id, movement_type, create_date);
+
+-- 推奨発注数
+CREATE TABLE replenishment_suggestion (
+    forecast_date       DATE           NOT NULL,
+    center_id           INT            NOT NULL,
+    part_id             INT            NOT NULL,
+    avg_daily_demand    DECIMAL(12, 3) NOT NULL,
+    safety_stock        INT            NOT NULL,
+    reorder_point       INT            NOT NULL,
+    current_quantity    INT            NOT NULL,
+    suggested_quantity  INT            NOT NULL,
+    create_date         DATETIME(6)    NOT NULL,
+    PRIMARY KEY (forecast_date, center_id, part_id)
+) ENGINE = InnoDB;
+
+-- 予測バッチの実行履歴
+CREATE TABLE replenishment_run (
+    forecast_date  DATE         NOT NULL,
+    started_at     DATETIME(6)  NOT NULL,
+    completed_at   DATETIME(6),
+    PRIMARY KEY (forecast_date)
+) ENGINE = InnoDB;
+
+-- 予測バッチのチェックポイント（予測が完了した在庫センター）
+CREATE TABLE replenishment_checkpoint (
+    forecast_date  DATE         NOT NULL,
+    center_id      INT          NOT NULL,
+    suggestion_count INT        NOT NULL,
+    completed_at   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (forecast_date, center_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,21 @@
+-- ============================================================
+-- 日次在庫スナップショット（在庫センター・分類ごと）
+-- ※日ごとの終了時点の在庫数を「前日の在庫数 + 当日の増減」で書き出す
+--   増減の無い日も前日の在庫数を引き継いで1行作成し、推移の参照時は在庫移動履歴を読まない
+-- ============================================================
+
+-- 日次在庫スナップショット
+CREATE TABLE stock_daily_snapshot (
+    center_id      INT          NOT NULL,
+    category       VARCHAR(30)  NOT NULL,
+    snapshot_date  DATE         NOT NULL,
+    quantity       BIGINT       NOT NULL,
+    PRIMARY KEY (center_id, category, snapshot_date)
+) ENGINE = InnoDB;
+
+-- 日次在庫スナップショットの作成履歴（次回はこの日の翌日から作成する）
+CREATE TABLE stock_daily_snapshot_run (
+    snapshot_date  DATE         NOT NULL,
+    created_at     DATETIME(6)  NOT NULL,
+    PRIMARY KEY (snapshot_date)
+) ENGINE = InnoDB;
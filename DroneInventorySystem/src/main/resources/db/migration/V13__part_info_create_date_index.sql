@@ -0,0 +1,7 @@
+-- ============================================================
+-- 部品情報：登録日時のインデックス
+-- ※部品コードのブルームフィルタ（PartCodeIndex）は、前回の読み込み以降に登録された部品を
+--   登録日時の範囲で定期的に読み込んで追加する
+-- ============================================================
+
+CREATE INDEX idx_part_info_create_date ON part_info (create_date);
@@ -0,0 +1,55 @@
+-- ============================================================
+-- 初期スキーマ
+-- ※ddl-auto=update で作成されていた既存DBは baseline（V1適用済み）として扱う
+-- ============================================================
+
+-- 管理者情報
+CREATE TABLE IF NOT EXISTS admin_info (
+    admin_id        VARCHAR(100) NOT NULL,
+    admin_name      VARCHAR(100) NOT NULL,
+    mail            VARCHAR(320) NOT NULL,
+    phone_number    VARCHAR(20)  NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    delete_flag     INT          NOT NULL,
+    create_date     DATETIME(6)  NOT NULL,
+    update_date     DATETIME(6)  NOT NULL,
+    PRIMARY KEY (admin_id)
+) ENGINE = InnoDB;
+
+-- 在庫センター情報
+CREATE TABLE IF NOT EXISTS center_info (
+    center_id                INT          NOT NULL AUTO_INCREMENT,
+    center_name              VARCHAR(20)  NOT NULL,
+    post_code                VARCHAR(10)  NOT NULL,
+    address                  VARCHAR(255) NOT NULL,
+    prefecture_code          TINYINT,
+    phone_number             VARCHAR(100) NOT NULL,
+    manager_name             VARCHAR(100) NOT NULL,
+    operational_status       TINYINT(1)   NOT NULL,
+    max_storage_capacity     INT          NOT NULL,
+    current_storage_capacity INT          NOT NULL,
+    utilization_rate         INT          NOT NULL,
+    notes                    VARCHAR(255),
+    delete_flag              INT          NOT NULL,
+    create_date              DATETIME(6)  NOT NULL,
+    update_date              DATETIME(6)  NOT NULL,
+    PRIMARY KEY (center_id),
+    INDEX idx_center_info_prefecture_status (prefecture_code, operational_status),
+    INDEX idx_center_info_status_capacity (operational_status, max_storage_capacity),
+    INDEX idx_center_info_status_utilization (operational_status, utilization_rate, center_id)
+) ENGINE = InnoDB;
+
+-- 操作履歴
+CREATE TABLE IF NOT EXISTS operation_log (
+    log_id            INT          NOT NULL AUTO_INCREMENT,
+    admin_id          VARCHAR(100) NOT NULL,
+    table_key         VARCHAR(255) NOT NULL,
+    operate_type      INT          NOT NULL,
+    status            INT          NOT NULL,
+    operation_details VARCHAR(255),
+    delete_flag       INT          NOT NULL,
+    create_date       DATETIME(6)  NOT NULL,
+    update_date       DATETIME(6)  NOT NULL,
+    PRIMARY KEY (log_id),
+    CONSTRAINT fk_operation_log_admin_info FOREIGN KEY (admin_id) REFERENCES admin_info (admin_id)
+) ENGINE = InnoDB;
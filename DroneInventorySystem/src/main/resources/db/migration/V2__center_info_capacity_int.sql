@@ -0,0 +1,51 @@
+-- ============================================================
+-- 在庫センター情報：容量カラムの整数化と使用率の再計算
+-- ※ddl-auto で作成された既存DB（baseline）は容量が文字列型で、使用率カラム・検索用インデックスが無い
+--   無いものは INFORMATION_SCHEMA で確認して追加する。V1で作成したDBでは同じ定義への変更のため影響はない
+-- ============================================================
+
+ALTER TABLE center_info
+    MODIFY max_storage_capacity INT NOT NULL,
+    MODIFY current_storage_capacity INT NOT NULL;
+
+-- 使用率（千分率）カラムの追加
+SET @ddl = IF((SELECT COUNT(*)
+                 FROM INFORMATION_SCHEMA.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE()
+                  AND TABLE_NAME = 'center_info'
+                  AND COLUMN_NAME = 'utilization_rate') = 0,
+              'ALTER TABLE center_info ADD COLUMN utilization_rate INT NOT NULL DEFAULT 0 AFTER current_storage_capacity',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 容量範囲検索用インデックスの追加
+SET @ddl = IF((SELECT COUNT(*)
+                 FROM INFORMATION_SCHEMA.STATISTICS
+                WHERE TABLE_SCHEMA = DATABASE()
+                  AND TABLE_NAME = 'center_info'
+                  AND INDEX_NAME = 'idx_center_info_status_capacity') = 0,
+              'CREATE INDEX idx_center_info_status_capacity ON center_info (operational_status, max_storage_capacity)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 使用率順の並び替え用インデックスの追加
+SET @ddl = IF((SELECT COUNT(*)
+                 FROM INFORMATION_SCHEMA.STATISTICS
+                WHERE TABLE_SCHEMA = DATABASE()
+                  AND TABLE_NAME = 'center_info'
+                  AND INDEX_NAME = 'idx_center_info_status_utilization') = 0,
+              'CREATE INDEX idx_center_info_status_utilization ON center_info (operational_status, utilization_rate, center_id)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 使用率（千分率）
+UPDATE center_info
+   SET utilization_rate = CASE WHEN max_storage_capacity > 0
+                               THEN FLOOR(current_storage_capacity * 1000 / max_storage_capacity)
+                               ELSE 0 END;
@@ -0,0 +1,95 @@
+-- ============================================================
+-- 在庫センター情報：都道府県コードの設定
+-- ※都道府県コード未設定の既存行に対し、住所中で最も先頭に現れる都道府県名のコードを設定する
+--   （Region#fromAddress と同じ判定）
+--   ddl-auto で作成された既存DB（baseline）にはカラム・インデックスが無いため、確認して追加する
+-- ============================================================
+
+-- 都道府県コードカラムの追加
+SET @ddl = IF((SELECT COUNT(*)
+                 FROM INFORMATION_SCHEMA.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE()
+                  AND TABLE_NAME = 'center_info'
+                  AND COLUMN_NAME = 'prefecture_code') = 0,
+              'ALTER TABLE center_info ADD COLUMN prefecture_code TINYINT AFTER address',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 都道府県検索用インデックスの追加
+SET @ddl = IF((SELECT COUNT(*)
+                 FROM INFORMATION_SCHEMA.STATISTICS
+                WHERE TABLE_SCHEMA = DATABASE()
+                  AND TABLE_NAME = 'center_info'
+                  AND INDEX_NAME = 'idx_center_info_prefecture_status') = 0,
+              'CREATE INDEX idx_center_info_prefecture_status ON center_info (prefecture_code, operational_status)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+CREATE TEMPORARY TABLE tmp_prefecture (
+    code TINYINT     NOT NULL,
+    name VARCHAR(10) NOT NULL
+);
+
+INSERT INTO tmp_prefecture (code, name) VALUES
+    (1, '北海道'),
+    (2, '青森県'),
+    (3, '岩手県'),
+    (4, '宮城県'),
+    (5, '秋田県'),
+    (6, '山形県'),
+    (7, '福島県'),
+    (8, '茨城県'),
+    (9, '栃木県'),
+    (10, '群馬県'),
+    (11, '埼玉県'),
+    (12, '千葉県'),
+    (13, '東京都'),
+    (14, '神奈川県'),
+    (15, '新潟県'),
+    (16, '富山県'),
+    (17, '石川県'),
+    (18, '福井県'),
+    (19, '山梨県'),
+    (20, '長野県'),
+    (21, '岐阜県'),
+    (22, '静岡県'),
+    (23, '愛知県'),
+    (24, '三重県'),
+    (25, '滋賀県'),
+    (26, '京都府'),
+    (27, '大阪府'),
+    (28, '兵庫県'),
+    (29, '奈良県'),
+    (30, '和歌山県'),
+    (31, '鳥取県'),
+    (32, '島根県'),
+    (33, '岡山県'),
+    (34, '広島県'),
+    (35, '山口県'),
+    (36, '徳島県'),
+    (37, '香川県'),
+    (38, '愛媛県'),
+    (39, '高知県'),
+    (40, '福岡県'),
+    (41, '佐賀県'),
+    (42, '長崎県'),
+    (43, '熊本県'),
+    (44, '大分県'),
+    (45, '宮崎県'),
+    (46, '鹿児島県'),
+    (47, '沖縄県');
+
+UPDATE center_info c
+   SET c.prefecture_code = (
+           SELECT p.code
+             FROM tmp_prefecture p
+            WHERE LOCATE(p.name, c.address) > 0
+            ORDER BY LOCATE(p.name, c.address), p.code
+            LIMIT 1)
+ WHERE c.prefecture_code IS NULL;
+
+DROP TEMPORARY TABLE tmp_prefecture;
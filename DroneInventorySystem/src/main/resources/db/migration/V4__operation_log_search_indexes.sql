@@ -0,0 +1,14 @@
+-- ============================================================
+-- 操作履歴：検索・ページング用の複合インデックス
+-- ※OperationLogRepository の検索は (操作時刻, ログID) のキーセットで並び替えるため、
+--   等価条件（操作・ステータス）の後ろに操作時刻・ログIDを並べる
+-- ============================================================
+
+-- 条件なし（初期表示の直近1ヶ月・管理者名のみ）・操作時刻範囲
+CREATE INDEX idx_operation_log_date ON operation_log (create_date, log_id);
+
+-- 操作（＋ステータス）＋操作時刻範囲
+CREATE INDEX idx_operation_log_type_status_date ON operation_log (operate_type, status, create_date, log_id);
+
+-- ステータス＋操作時刻範囲
+CREATE INDEX idx_operation_log_status_date ON operation_log (status, create_date, log_id);
@@ -0,0 +1,29 @@
+-- ============================================================
+-- 操作履歴：操作時刻による月単位パーティション化
+-- ※MySQLのパーティション表は外部キーを持てず、主キーにパーティションキーを含める必要がある
+--   月別パーティションは OperationLogPartitionService が起動時・毎月 pmax を分割して追加する
+-- ============================================================
+
+-- 外部キーの削除（ddl-auto で作成された既存DBは制約名が異なるため、名前を調べて削除する）
+-- ※admin_id のインデックスは外部キー削除後も残る
+SET @fk_name = (SELECT CONSTRAINT_NAME
+                  FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS
+                 WHERE TABLE_SCHEMA = DATABASE()
+                   AND TABLE_NAME = 'operation_log'
+                   AND CONSTRAINT_TYPE = 'FOREIGN KEY'
+                 LIMIT 1);
+SET @drop_fk = IF(@fk_name IS NULL, 'DO 0', CONCAT('ALTER TABLE operation_log DROP FOREIGN KEY `', @fk_name, '`'));
+PREPARE stmt FROM @drop_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 主キーに操作時刻を含める
+ALTER TABLE operation_log
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (log_id, create_date);
+
+-- 全行を pmax に置いた状態でパーティション化
+ALTER TABLE operation_log
+    PARTITION BY RANGE COLUMNS (create_date) (
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
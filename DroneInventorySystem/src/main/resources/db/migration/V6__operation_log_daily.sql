@@ -0,0 +1,21 @@
+-- ============================================================
+-- 操作履歴の日次集計
+-- ※日付・管理者・画面・操作・ステータスごとの件数。操作履歴の書き込み時に加算する
+--   操作履歴のアーカイブ・削除後も集計は残す
+-- ============================================================
+
+CREATE TABLE operation_log_daily (
+    log_date        DATE         NOT NULL,
+    admin_id        VARCHAR(100) NOT NULL,
+    table_key       VARCHAR(255) NOT NULL,
+    operate_type    INT          NOT NULL,
+    status          INT          NOT NULL,
+    operation_count BIGINT       NOT NULL,
+    PRIMARY KEY (log_date, admin_id, table_key, operate_type, status)
+) ENGINE = InnoDB;
+
+-- 既存の操作履歴から集計
+INSERT INTO operation_log_daily (log_date, admin_id, table_key, operate_type, status, operation_count)
+SELECT DATE(create_date), admin_id, table_key, operate_type, status, COUNT(*)
+  FROM operation_log
+ GROUP BY DATE(create_date), admin_id, table_key, operate_type, status;
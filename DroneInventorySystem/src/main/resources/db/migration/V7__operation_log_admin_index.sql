@@ -0,0 +1,7 @@
+-- ============================================================
+-- 操作履歴：管理者ID＋操作時刻の複合インデックス
+-- ※管理者名の部分一致検索は管理者IDの集合に変換してから IN で絞り込むため、
+--   管理者IDごとに操作時刻・ログIDの順で範囲走査できるようにする
+-- ============================================================
+
+CREATE INDEX idx_operation_log_admin_date ON operation_log (admin_id, create_date, log_id);
@@ -0,0 +1,40 @@
+-- ============================================================
+-- 部品情報・在庫情報
+-- ※在庫情報は在庫センター・部品ごとに1行
+--   在庫一覧は「分類・在庫センター・在庫数」で絞り込み、在庫数・在庫IDの昇順でキーセット取得するため、
+--   絞り込み条件の組み合わせごとに在庫数・在庫IDを後ろに持つ複合インデックスを用意する
+-- ============================================================
+
+-- 部品情報
+CREATE TABLE part_info (
+    part_id      INT          NOT NULL AUTO_INCREMENT,
+    part_code    VARCHAR(30)  NOT NULL,
+    part_name    VARCHAR(100) NOT NULL,
+    category     VARCHAR(30)  NOT NULL,
+    delete_flag  INT          NOT NULL,
+    create_date  DATETIME(6)  NOT NULL,
+    update_date  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (part_id),
+    CONSTRAINT uk_part_info_part_code UNIQUE (part_code)
+) ENGINE = InnoDB;
+
+-- 在庫情報
+CREATE TABLE stock_info (
+    stock_id     INT          NOT NULL AUTO_INCREMENT,
+    center_id    INT          NOT NULL,
+    part_id      INT          NOT NULL,
+    category     VARCHAR(30)  NOT NULL,
+    quantity     INT          NOT NULL,
+    delete_flag  INT          NOT NULL,
+    create_date  DATETIME(6)  NOT NULL,
+    update_date  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (stock_id),
+    CONSTRAINT uk_stock_info_center_part UNIQUE (center_id, part_id),
+    INDEX idx_stock_info_quantity (quantity, stock_id),
+    INDEX idx_stock_info_category_quantity (category, quantity, stock_id),
+    INDEX idx_stock_info_center_quantity (center_id, quantity, stock_id),
+    INDEX idx_stock_info_center_category_quantity (center_id, category, quantity, stock_id),
+    INDEX idx_stock_info_part (part_id),
+    CONSTRAINT fk_stock_info_center_info FOREIGN KEY (center_id) REFERENCES center_info (center_id),
+    CONSTRAINT fk_stock_info_part_info FOREIGN KEY (part_id) REFERENCES part_info (part_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,45 @@
+-- ============================================================
+-- 在庫移動履歴（追記のみ）・在庫スナップショット
+-- ※在庫移動履歴は在庫数の増減を1行ずつ記録し、更新・削除しない
+--   スナップショットは定期的に「前回のスナップショット + 以降の増減」を在庫センター・部品ごとに書き出し、
+--   任意時点の在庫数は「直前のスナップショット + 以降の短い増減」で求める
+-- ============================================================
+
+-- 在庫移動履歴
+CREATE TABLE stock_movement (
+    movement_id    BIGINT       NOT NULL AUTO_INCREMENT,
+    center_id      INT          NOT NULL,
+    part_id        INT          NOT NULL,
+    category       VARCHAR(30)  NOT NULL,
+    movement_type  TINYINT      NOT NULL,
+    quantity       INT          NOT NULL,
+    create_date    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (movement_id),
+    INDEX idx_stock_movement_center_part (center_id, part_id, movement_id),
+    INDEX idx_stock_movement_date (create_date, movement_id)
+) ENGINE = InnoDB;
+
+-- 在庫スナップショット（last_movement_id までの増減を反映した在庫数）
+CREATE TABLE stock_snapshot (
+    center_id         INT          NOT NULL,
+    part_id           INT          NOT NULL,
+    last_movement_id  BIGINT       NOT NULL,
+    snapshot_at       DATETIME(6)  NOT NULL,
+    quantity          INT          NOT NULL,
+    PRIMARY KEY (center_id, part_id, last_movement_id),
+    INDEX idx_stock_snapshot_center_part_date (center_id, part_id, snapshot_at)
+) ENGINE = InnoDB;
+
+-- スナップショットの作成履歴（次回はこの last_movement_id より後の増減を反映する）
+CREATE TABLE stock_snapshot_run (
+    last_movement_id  BIGINT       NOT NULL,
+    snapshot_at       DATETIME(6)  NOT NULL,
+    PRIMARY KEY (last_movement_id)
+) ENGINE = InnoDB;
+
+-- 既存の在庫数を期首残高（調整）として記録
+INSERT INTO stock_movement (center_id, part_id, category, movement_type, quantity, create_date)
+SELECT center_id, part_id, category, 5, quantity, NOW(6)
+FROM stock_info
+WHERE quantity <> 0
+ORDER BY stock_id;
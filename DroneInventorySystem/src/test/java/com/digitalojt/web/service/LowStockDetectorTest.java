@@ -0,0 +1,134 @@
+package com.digitalojt.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.digitalojt.web.dto.LowStockAlert;
+
+/**
+ * 在庫不足の検知の結合テスト
+ * ※在庫数が在庫情報の発注点を下回った時点で在庫不足の一覧に現れること、
+ *   補充数の予測バッチが算出した発注点が在庫情報に反映され、検知に使われることを確認する
+ *
+ * @author dotlife
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("integration")
+@Tag("integration")
+class LowStockDetectorTest {
+
+	/** 在庫不足の一覧の取得件数 */
+	private static final int ALERT_LIMIT = 1000;
+
+	@Autowired
+	private LowStockDetector lowStockDetector;
+
+	@Autowired
+	private StockReservationService stockReservationService;
+
+	@Autowired
+	private ReplenishmentForecastService replenishmentForecastService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/** テスト用データ */
+	private StockTestData testData;
+
+	/** テスト用の在庫センターID */
+	private int centerId;
+
+	/** テスト用の部品ID */
+	private int partId;
+
+	/**
+	 * テスト用の在庫センター・部品を登録
+	 */
+	@BeforeEach
+	void setUp() {
+		testData = new StockTestData(jdbcTemplate);
+		centerId = testData.insertCenter("在庫不足テスト", 100);
+		partId = testData.insertPart("LOW");
+	}
+
+	/**
+	 * テスト用のデータを削除
+	 */
+	@AfterEach
+	void tearDown() {
+		testData.delete();
+		lowStockDetector.sweep();
+	}
+
+	/**
+	 * 在庫数が発注点を下回ると、在庫移動のコミット後に在庫不足の一覧に現れる
+	 */
+	@Test
+	void alertAppearsWhenQuantityDropsBelowReorderPoint() {
+		testData.insertStock(centerId, partId, 100, 10);
+		lowStockDetector.sweep();
+		assertTrue(findAlert().isEmpty(), "発注点以上の在庫は在庫不足ではない");
+
+		stockReservationService.reserve(centerId, partId, 90);
+		assertTrue(findAlert().isEmpty(), "在庫数が発注点と等しい在庫は在庫不足ではない");
+
+		stockReservationService.reserve(centerId, partId, 3);
+		LowStockAlert alert = findAlert().orElseThrow(() -> new AssertionError("在庫不足として検知されていない"));
+		assertEquals(7, alert.getQuantity());
+		assertEquals(10, alert.getReorderPoint());
+	}
+
+	/**
+	 * 補充数の予測バッチが算出した発注点が在庫情報に反映され、在庫不足の検知に使われる
+	 */
+	@Test
+	void forecastReorderPointIsUsedForDetection() {
+		testData.insertStock(centerId, partId, 100);
+		LocalDate today = LocalDate.now();
+		for (int day = 1; day <= 7; day++) {
+			testData.insertIssue(centerId, partId, 5, today.minusDays(day).atTime(12, 0));
+		}
+
+		replenishmentForecastService.forecast(today);
+
+		int reorderPoint = testData.reorderPoint(centerId, partId);
+		int suggested = jdbcTemplate.queryForObject("SELECT reorder_point FROM replenishment_suggestion "
+				+ "WHERE forecast_date = ? AND center_id = ? AND part_id = ?", Integer.class,
+				Date.valueOf(today), centerId, partId);
+		assertEquals(suggested, reorderPoint);
+		assertTrue(reorderPoint > 0 && reorderPoint < 100, () -> "発注点: " + reorderPoint);
+
+		// 予測バッチは在庫移動を伴わないため、全件照合で発注点の変更を取り込む
+		lowStockDetector.sweep();
+		assertTrue(findAlert().isEmpty());
+
+		stockReservationService.reserve(centerId, partId, 100 - reorderPoint + 1);
+		LowStockAlert alert = findAlert().orElseThrow(() -> new AssertionError("在庫不足として検知されていない"));
+		assertEquals(reorderPoint - 1, alert.getQuantity());
+	}
+
+	/**
+	 * テスト用の在庫の在庫不足を取得
+	 *
+	 * @return 在庫不足（在庫不足でない場合は空）
+	 */
+	private Optional<LowStockAlert> findAlert() {
+		return lowStockDetector.getAlerts(null, null, ALERT_LIMIT).stream()
+				.filter(alert -> alert.getCenterId() == centerId && alert.getPartId() == partId)
+				.findFirst();
+	}
+}
@@ -0,0 +1,195 @@
+package com.digitalojt.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.digitalojt.web.repository.ReplenishmentRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 補充数の予測バッチの単体テスト
+ * ※DBは使用せず、補充数の予測 リポジトリーをモックにする
+ *
+ * @author dotlife
+ *
+ */
+class ReplenishmentForecastServiceTest {
+
+	/** 移動平均を取る日数 */
+	private static final int WINDOW_DAYS = 4;
+
+	/** 調達リードタイム（日） */
+	private static final int LEAD_TIME_DAYS = 4;
+
+	/** 発注間隔（日） */
+	private static final int REVIEW_DAYS = 2;
+
+	/** 安全係数 */
+	private static final double SAFETY_FACTOR = 1.0;
+
+	/** 予測日 */
+	private static final LocalDate FORECAST_DATE = LocalDate.of(2026, 4, 1);
+
+	private ReplenishmentRepository repository;
+
+	private ReplenishmentForecastService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(ReplenishmentRepository.class);
+		service = new ReplenishmentForecastService(repository, mock(PlatformTransactionManager.class),
+				mock(TaskScheduler.class), new SimpleMeterRegistry(),
+				WINDOW_DAYS, LEAD_TIME_DAYS, REVIEW_DAYS, SAFETY_FACTOR, 2, 500);
+	}
+
+	/**
+	 * 日次出庫数の平均・標準偏差（母標準偏差、出庫の無い日は0として数える）
+	 */
+	@Test
+	void demandSeriesMeanAndStandardDeviation() {
+		ReplenishmentForecastService.DemandSeries series = new ReplenishmentForecastService.DemandSeries(4);
+		series.reset(10);
+		series.add(0, 2);
+		series.add(1, 4);
+		series.add(2, 4);
+		series.add(3, 1);
+		series.add(3, 1); // 同じ日の出庫は合算する
+		series.add(4, 100); // 期間外は無視する
+		series.add(-1, 100);
+
+		assertEquals(3.0, series.mean(), 1e-9);
+		assertEquals(1.0, series.standardDeviation(), 1e-9);
+
+		series.reset(11);
+		series.add(1, 8);
+		assertEquals(2.0, series.mean(), 1e-9);
+		assertEquals(Math.sqrt(12.0), series.standardDeviation(), 1e-9);
+	}
+
+	/**
+	 * 安全在庫・発注点・推奨発注数の算出
+	 * ※平均3・標準偏差1、リードタイム4日・発注間隔2日・安全係数1.0・在庫数5 の場合
+	 *   安全在庫 = ceil(1.0 × 1 × √4) = 2
+	 *   発注点 = ceil(3 × 4) + 2 = 14
+	 *   推奨発注数 = 14 + ceil(3 × 2) - 5 = 15
+	 */
+	@Test
+	void addSuggestionCalculatesSafetyStockReorderPointAndSuggestedQuantity() {
+		ReplenishmentForecastService.DemandSeries series = new ReplenishmentForecastService.DemandSeries(WINDOW_DAYS);
+		series.reset(10);
+		series.add(0, 2);
+		series.add(1, 4);
+		series.add(2, 4);
+		series.add(3, 2);
+		LocalDateTime now = LocalDateTime.of(2026, 4, 1, 3, 0);
+
+		List<Object[]> rows = new ArrayList<>();
+		service.addSuggestion(rows, series, FORECAST_DATE, 1, Map.of(10, 5), now);
+
+		assertEquals(1, rows.size());
+		assertArrayEquals(new Object[] { FORECAST_DATE, 1, 10, 3.0, 2, 14, 5, 15, now }, rows.get(0));
+	}
+
+	/**
+	 * 在庫数が発注点 + 発注間隔分の出庫を上回る場合、推奨発注数は0
+	 */
+	@Test
+	void addSuggestionDoesNotSuggestNegativeQuantity() {
+		ReplenishmentForecastService.DemandSeries series = new ReplenishmentForecastService.DemandSeries(WINDOW_DAYS);
+		series.reset(10);
+		series.add(0, 4);
+
+		List<Object[]> rows = new ArrayList<>();
+		service.addSuggestion(rows, series, FORECAST_DATE, 1, Map.of(10, 1000), LocalDateTime.now());
+
+		assertEquals(0, rows.get(0)[7]);
+	}
+
+	/**
+	 * 部品未設定（出庫履歴が1件も無い）の場合は行を追加しない
+	 */
+	@Test
+	void addSuggestionSkipsEmptySeries() {
+		List<Object[]> rows = new ArrayList<>();
+		service.addSuggestion(rows, new ReplenishmentForecastService.DemandSeries(WINDOW_DAYS), FORECAST_DATE, 1,
+				Map.of(), LocalDateTime.now());
+
+		assertTrue(rows.isEmpty());
+	}
+
+	/**
+	 * チェックポイント済みの在庫センターは処理せず、残りの在庫センターのみ予測して実行を完了する
+	 */
+	@Test
+	void forecastResumesFromCheckpoint() {
+		when(repository.findCompletedCenterIds(FORECAST_DATE)).thenReturn(Set.of(1, 3));
+		when(repository.findCenterIdsWithStock()).thenReturn(List.of(1, 2, 3, 4));
+
+		service.forecast(FORECAST_DATE);
+
+		verify(repository, never()).streamDailyIssues(eq(1), any(), any(), any());
+		verify(repository, never()).streamDailyIssues(eq(3), any(), any(), any());
+		verify(repository).streamDailyIssues(eq(2), any(), eq(FORECAST_DATE), any());
+		verify(repository).streamDailyIssues(eq(4), any(), eq(FORECAST_DATE), any());
+		verify(repository).markCompleted(eq(FORECAST_DATE), eq(2), anyInt(), any());
+		verify(repository).markCompleted(eq(FORECAST_DATE), eq(4), anyInt(), any());
+		verify(repository, never()).markCompleted(eq(FORECAST_DATE), eq(1), anyInt(), any());
+		verify(repository).completeRun(eq(FORECAST_DATE), any());
+	}
+
+	/**
+	 * 失敗した在庫センターはチェックポイントを記録せず、実行も未完了のまま残す（次回の実行で再試行する）
+	 */
+	@Test
+	void forecastLeavesRunIncompleteWhenCenterFails() {
+		when(repository.findCompletedCenterIds(FORECAST_DATE)).thenReturn(Set.of());
+		when(repository.findCenterIdsWithStock()).thenReturn(List.of(1, 2));
+		doThrow(new DataAccessResourceFailureException("テスト")).when(repository).findQuantities(2);
+
+		service.forecast(FORECAST_DATE);
+
+		verify(repository).markCompleted(eq(FORECAST_DATE), eq(1), anyInt(), any());
+		verify(repository, never()).markCompleted(eq(FORECAST_DATE), eq(2), anyInt(), any());
+		verify(repository, never()).completeRun(any(), any());
+	}
+
+	/**
+	 * 起動時は未完了の実行の予測日で再開する
+	 */
+	@Test
+	void resumeIncompleteRunForecastsIncompleteDate() {
+		when(repository.findIncompleteRun()).thenReturn(FORECAST_DATE);
+		when(repository.findCompletedCenterIds(FORECAST_DATE)).thenReturn(Set.of(1));
+		when(repository.findCenterIdsWithStock()).thenReturn(List.of(1, 2));
+
+		service.resumeIncompleteRun();
+
+		verify(repository).startRun(eq(FORECAST_DATE), any());
+		verify(repository, never()).streamDailyIssues(eq(1), any(), any(), any());
+		verify(repository).streamDailyIssues(eq(2), any(), eq(FORECAST_DATE), any());
+		verify(repository).completeRun(eq(FORECAST_DATE), any());
+	}
+}
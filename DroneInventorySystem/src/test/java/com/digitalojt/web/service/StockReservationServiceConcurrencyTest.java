@@ -0,0 +1,141 @@
+package com.digitalojt.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.digitalojt.web.exception.InsufficientStockException;
+
+/**
+ * 在庫数の引当・戻しの同時実行テスト
+ * ※1つの在庫（在庫センター・部品）に複数スレッドから引当・戻しを繰り返し、
+ *   在庫数・在庫移動履歴の合計・在庫センターの現在容量・在庫移動履歴から算出した現在の在庫数が一致することを確認する
+ *
+ * @author dotlife
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("integration")
+@Tag("integration")
+class StockReservationServiceConcurrencyTest {
+
+	/** スレッド数 */
+	private static final int THREADS = 8;
+
+	/** 1スレッドあたりの引当・戻しの回数 */
+	private static final int CALLS_PER_THREAD = 200;
+
+	/** 初期在庫数（引当が在庫不足で失敗する場合も含めるため少なめにする） */
+	private static final int INITIAL_QUANTITY = 50;
+
+	@Autowired
+	private StockReservationService stockReservationService;
+
+	@Autowired
+	private StockLedgerService stockLedgerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/** テスト用データ */
+	private StockTestData testData;
+
+	/** テスト用の在庫センターID */
+	private int centerId;
+
+	/** テスト用の部品ID */
+	private int partId;
+
+	/**
+	 * テスト用の在庫センター・部品・在庫を登録
+	 */
+	@BeforeEach
+	void setUp() {
+		testData = new StockTestData(jdbcTemplate);
+		centerId = testData.insertCenter("引当テスト", INITIAL_QUANTITY);
+		partId = testData.insertPart("RSV");
+		testData.insertStock(centerId, partId, INITIAL_QUANTITY);
+	}
+
+	/**
+	 * テスト用のデータを削除
+	 */
+	@AfterEach
+	void tearDown() {
+		testData.delete();
+	}
+
+	/**
+	 * 同時に引当・戻しを繰り返しても、在庫数・在庫移動履歴の合計・現在容量が一致する
+	 */
+	@Test
+	void reserveAndReleaseConcurrently() throws Exception {
+		AtomicLong appliedDelta = new AtomicLong();
+		Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int call = 0; call < CALLS_PER_THREAD; call++) {
+						int quantity = random.nextInt(1, 6);
+						try {
+							if (random.nextBoolean()) {
+								stockReservationService.reserve(centerId, partId, quantity);
+								appliedDelta.addAndGet(-quantity);
+							} else {
+								stockReservationService.release(centerId, partId, quantity);
+								appliedDelta.addAndGet(quantity);
+							}
+						} catch (InsufficientStockException e) {
+							// 在庫不足の引当は何も更新しない
+						} catch (RuntimeException e) {
+							errors.add(e);
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(5, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertTrue(errors.isEmpty(), () -> "想定外の例外: " + errors);
+
+		long expected = INITIAL_QUANTITY + appliedDelta.get();
+		assertTrue(expected >= 0);
+		assertEquals(expected, testData.stockQuantity(centerId, partId));
+		assertEquals(expected, testData.movementTotal(centerId, partId));
+		assertEquals(expected, testData.currentStorageCapacity(centerId));
+		assertEquals(expected, stockLedgerService.getQuantityAsOf(centerId, partId, LocalDateTime.now()));
+	}
+}
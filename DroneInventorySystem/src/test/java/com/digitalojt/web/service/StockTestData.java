@@ -0,0 +1,204 @@
+package com.digitalojt.web.service;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.digitalojt.web.consts.Category;
+import com.digitalojt.web.consts.StockMovementType;
+
+/**
+ * 在庫の結合テスト用データの登録・削除
+ * ※登録した在庫センター・部品を覚えておき、delete() でまとめて削除する
+ *
+ * @author dotlife
+ *
+ */
+class StockTestData {
+
+	/** 分類（テストでは全部品共通） */
+	private static final Category CATEGORY = Category.FRAME;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/** 登録した在庫センターID */
+	private final List<Integer> centerIds = new ArrayList<>();
+
+	/** 登録した部品ID */
+	private final List<Integer> partIds = new ArrayList<>();
+
+	StockTestData(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * 稼働中の在庫センターを登録
+	 *
+	 * @param centerName センター名
+	 * @param currentStorageCapacity 現在容量
+	 * @return 在庫センターID
+	 */
+	int insertCenter(String centerName, int currentStorageCapacity) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.update(connection -> {
+			PreparedStatement ps = connection.prepareStatement("INSERT INTO center_info "
+					+ "(center_name, post_code, address, prefecture_code, phone_number, manager_name, operational_status, "
+					+ "max_storage_capacity, current_storage_capacity, utilization_rate, notes, delete_flag, "
+					+ "create_date, update_date) "
+					+ "VALUES (?, '100-0001', '東京都千代田区', 13, '03-0000-0000', 'テスト', 0, 1000000, ?, 0, NULL, 0, ?, ?)",
+					Statement.RETURN_GENERATED_KEYS);
+			ps.setString(1, centerName);
+			ps.setInt(2, currentStorageCapacity);
+			ps.setTimestamp(3, now);
+			ps.setTimestamp(4, now);
+			return ps;
+		}, keyHolder);
+		int centerId = keyHolder.getKey().intValue();
+		centerIds.add(centerId);
+		return centerId;
+	}
+
+	/**
+	 * 部品を登録
+	 *
+	 * @param partCodePrefix 部品コードの接頭辞（一意になるよう後ろに時刻を付ける）
+	 * @return 部品ID
+	 */
+	int insertPart(String partCodePrefix) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.update(connection -> {
+			PreparedStatement ps = connection.prepareStatement("INSERT INTO part_info "
+					+ "(part_code, part_name, category, delete_flag, create_date, update_date) VALUES (?, ?, ?, 0, ?, ?)",
+					Statement.RETURN_GENERATED_KEYS);
+			ps.setString(1, partCodePrefix + "-" + System.nanoTime());
+			ps.setString(2, "テスト部品");
+			ps.setString(3, CATEGORY.name());
+			ps.setTimestamp(4, now);
+			ps.setTimestamp(5, now);
+			return ps;
+		}, keyHolder);
+		int partId = keyHolder.getKey().intValue();
+		partIds.add(partId);
+		return partId;
+	}
+
+	/**
+	 * 在庫を登録し、在庫数を期首残高（調整）として在庫移動履歴にも記録
+	 * ※在庫センターの現在容量は insertCenter() で合計を指定しておくこと
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param quantity 在庫数
+	 */
+	void insertStock(int centerId, int partId, int quantity) {
+		insertStock(centerId, partId, quantity, 0);
+	}
+
+	/**
+	 * 発注点を指定して在庫を登録し、在庫数を期首残高（調整）として在庫移動履歴にも記録
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param quantity 在庫数
+	 * @param reorderPoint 発注点（0は在庫不足の検知対象外）
+	 */
+	void insertStock(int centerId, int partId, int quantity, int reorderPoint) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		jdbcTemplate.update("INSERT INTO stock_info "
+				+ "(center_id, part_id, category, quantity, reorder_point, delete_flag, create_date, update_date) "
+				+ "VALUES (?, ?, ?, ?, ?, 0, ?, ?)",
+				centerId, partId, CATEGORY.name(), quantity, reorderPoint, now, now);
+		jdbcTemplate.update("INSERT INTO stock_movement "
+				+ "(center_id, part_id, category, movement_type, quantity, create_date) VALUES (?, ?, ?, ?, ?, ?)",
+				centerId, partId, CATEGORY.name(), StockMovementType.ADJUSTMENT.getTypeCode(), quantity, now);
+	}
+
+	/**
+	 * 出庫を在庫移動履歴に記録（在庫数は変更しない）
+	 * ※補充数の予測の入力となる過去の出庫履歴を用意する
+	 *
+	 * @param centerId 在庫センターID
+	 * @param partId 部品ID
+	 * @param quantity 出庫数（1以上）
+	 * @param createDate 記録日時
+	 */
+	void insertIssue(int centerId, int partId, int quantity, LocalDateTime createDate) {
+		jdbcTemplate.update("INSERT INTO stock_movement "
+				+ "(center_id, part_id, category, movement_type, quantity, create_date) VALUES (?, ?, ?, ?, ?, ?)",
+				centerId, partId, CATEGORY.name(), StockMovementType.ISSUE.getTypeCode(), -quantity,
+				Timestamp.valueOf(createDate));
+	}
+
+	/**
+	 * 在庫情報の発注点を取得
+	 *
+	 * @return 発注点
+	 */
+	int reorderPoint(int centerId, int partId) {
+		return jdbcTemplate.queryForObject(
+				"SELECT reorder_point FROM stock_info WHERE center_id = ? AND part_id = ?", Integer.class,
+				centerId, partId);
+	}
+
+	/**
+	 * 在庫数を取得
+	 *
+	 * @return 在庫数（在庫が無い場合は0）
+	 */
+	long stockQuantity(int centerId, int partId) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COALESCE(SUM(quantity), 0) FROM stock_info WHERE center_id = ? AND part_id = ?", Long.class,
+				centerId, partId);
+	}
+
+	/**
+	 * 在庫移動履歴の増減の合計を取得
+	 *
+	 * @return 増減の合計（履歴が無い場合は0）
+	 */
+	long movementTotal(int centerId, int partId) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COALESCE(SUM(quantity), 0) FROM stock_movement WHERE center_id = ? AND part_id = ?", Long.class,
+				centerId, partId);
+	}
+
+	/**
+	 * 在庫センターの現在容量を取得
+	 *
+	 * @return 現在容量
+	 */
+	long currentStorageCapacity(int centerId) {
+		return jdbcTemplate.queryForObject(
+				"SELECT current_storage_capacity FROM center_info WHERE center_id = ?", Long.class, centerId);
+	}
+
+	/**
+	 * 登録したデータと、テスト中に記録された在庫移動・スナップショット・推奨発注数を削除
+	 */
+	void delete() {
+		for (int centerId : centerIds) {
+			jdbcTemplate.update("DELETE FROM replenishment_suggestion WHERE center_id = ?", centerId);
+			jdbcTemplate.update("DELETE FROM replenishment_checkpoint WHERE center_id = ?", centerId);
+			jdbcTemplate.update("DELETE FROM stock_movement WHERE center_id = ?", centerId);
+			jdbcTemplate.update("DELETE FROM stock_snapshot WHERE center_id = ?", centerId);
+			jdbcTemplate.update("DELETE FROM stock_info WHERE center_id = ?", centerId);
+		}
+		for (int partId : partIds) {
+			jdbcTemplate.update("DELETE FROM part_info WHERE part_id = ?", partId);
+		}
+		for (int centerId : centerIds) {
+			jdbcTemplate.update("DELETE FROM center_info WHERE center_id = ?", centerId);
+		}
+		centerIds.clear();
+		partIds.clear();
+	}
+}
@@ -0,0 +1,211 @@
+package com.digitalojt.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.digitalojt.web.exception.InsufficientStockException;
+import com.digitalojt.web.form.StockTransferForm;
+
+/**
+ * 在庫移管の同時実行テスト
+ * ※2つの在庫センター間で逆向き（A→B と B→A）の複数明細の移管を並行して繰り返し、
+ *   デッドロックが発生しないこと、部品ごとの在庫数の合計が保存されること、
+ *   在庫移動履歴の合計・各センターの現在容量が在庫数と一致することを確認する
+ *
+ * @author dotlife
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("integration")
+@Tag("integration")
+class StockTransferServiceConcurrencyTest {
+
+	/** スレッド数（半数ずつ逆向きに移管する） */
+	private static final int THREADS = 8;
+
+	/** 1スレッドあたりの移管の回数 */
+	private static final int CALLS_PER_THREAD = 100;
+
+	/** MySQLのデッドロックのエラーコード */
+	private static final int ER_LOCK_DEADLOCK = 1213;
+
+	/** 初期在庫数（1在庫あたり） */
+	private static final int INITIAL_QUANTITY = 40;
+
+	@Autowired
+	private StockTransferService stockTransferService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/** テスト用データ */
+	private StockTestData testData;
+
+	/** 在庫センターA */
+	private int centerA;
+
+	/** 在庫センターB */
+	private int centerB;
+
+	/** 部品ID */
+	private final List<Integer> partIds = new ArrayList<>();
+
+	/**
+	 * テスト用の在庫センター・部品・在庫を登録
+	 * ※移管先の在庫行が無い（移管で登録される）部品を両方向に含める
+	 *   A: 部品1〜4, B: 部品1, 2, 5
+	 */
+	@BeforeEach
+	void setUp() {
+		testData = new StockTestData(jdbcTemplate);
+		centerA = testData.insertCenter("移管テストA", INITIAL_QUANTITY * 4);
+		centerB = testData.insertCenter("移管テストB", INITIAL_QUANTITY * 3);
+		for (int i = 0; i < 5; i++) {
+			partIds.add(testData.insertPart("TRF"));
+		}
+		for (int i = 0; i < 4; i++) {
+			testData.insertStock(centerA, partIds.get(i), INITIAL_QUANTITY);
+		}
+		testData.insertStock(centerB, partIds.get(0), INITIAL_QUANTITY);
+		testData.insertStock(centerB, partIds.get(1), INITIAL_QUANTITY);
+		testData.insertStock(centerB, partIds.get(4), INITIAL_QUANTITY);
+	}
+
+	/**
+	 * テスト用のデータを削除
+	 */
+	@AfterEach
+	void tearDown() {
+		testData.delete();
+		partIds.clear();
+	}
+
+	/**
+	 * 逆向きの複数明細の移管を並行して実行しても、デッドロックせず在庫数・現在容量が保存される
+	 */
+	@Test
+	void transferInOppositeDirectionsConcurrently() throws Exception {
+		long[] initialTotals = new long[partIds.size()];
+		for (int i = 0; i < partIds.size(); i++) {
+			initialTotals[i] = testData.stockQuantity(centerA, partIds.get(i))
+					+ testData.stockQuantity(centerB, partIds.get(i));
+		}
+
+		AtomicInteger committed = new AtomicInteger();
+		Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				int from = i % 2 == 0 ? centerA : centerB;
+				int to = i % 2 == 0 ? centerB : centerA;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int call = 0; call < CALLS_PER_THREAD; call++) {
+						try {
+							stockTransferService.transfer(randomLines(from, to));
+							committed.incrementAndGet();
+						} catch (InsufficientStockException e) {
+							// 在庫が無い・不足する移管は全明細が取り消される
+						} catch (RuntimeException e) {
+							errors.add(e);
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(5, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertTrue(errors.stream().noneMatch(StockTransferServiceConcurrencyTest::isDeadlock),
+				() -> "デッドロックが発生しました: " + errors);
+		assertTrue(errors.isEmpty(), () -> "想定外の例外: " + errors);
+		assertTrue(committed.get() > 0);
+
+		long totalA = 0;
+		long totalB = 0;
+		for (int i = 0; i < partIds.size(); i++) {
+			int partId = partIds.get(i);
+			long quantityA = testData.stockQuantity(centerA, partId);
+			long quantityB = testData.stockQuantity(centerB, partId);
+			assertEquals(initialTotals[i], quantityA + quantityB, "部品ごとの在庫数の合計");
+			assertEquals(quantityA, testData.movementTotal(centerA, partId), "在庫移動履歴の合計（A）");
+			assertEquals(quantityB, testData.movementTotal(centerB, partId), "在庫移動履歴の合計（B）");
+			totalA += quantityA;
+			totalB += quantityB;
+		}
+		assertEquals(totalA, testData.currentStorageCapacity(centerA), "現在容量（A）");
+		assertEquals(totalB, testData.currentStorageCapacity(centerB), "現在容量（B）");
+	}
+
+	/**
+	 * デッドロックによる例外かどうか
+	 * ※ネイティブクエリのデッドロックは JpaSystemException に包まれるため、原因の SQLException も確認する
+	 *
+	 * @param e 例外
+	 * @return デッドロックの場合はtrue
+	 */
+	private static boolean isDeadlock(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof DeadlockLoserDataAccessException
+					|| cause instanceof SQLException sqlException && sqlException.getErrorCode() == ER_LOCK_DEADLOCK) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * ランダムな2〜3明細の移管明細を作成（明細の順序もランダム）
+	 *
+	 * @param fromCenterId 移管元の在庫センターID
+	 * @param toCenterId 移管先の在庫センターID
+	 * @return 移管明細
+	 */
+	private List<StockTransferForm.Line> randomLines(int fromCenterId, int toCenterId) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		List<Integer> parts = new ArrayList<>(partIds);
+		Collections.shuffle(parts, random);
+		List<StockTransferForm.Line> lines = new ArrayList<>();
+		for (int partId : parts.subList(0, random.nextInt(2, 4))) {
+			StockTransferForm.Line line = new StockTransferForm.Line();
+			line.setFromCenterId(fromCenterId);
+			line.setToCenterId(toCenterId);
+			line.setPartId(partId);
+			line.setQuantity(random.nextInt(1, 4));
+			lines.add(line);
+		}
+		return lines;
+	}
+}
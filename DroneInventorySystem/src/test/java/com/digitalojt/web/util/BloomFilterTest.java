@@ -0,0 +1,43 @@
+package com.digitalojt.web.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 文字列のブルームフィルタの単体テスト
+ *
+ * @author dotlife
+ *
+ */
+class BloomFilterTest {
+
+	/**
+	 * 追加した値は必ず「含まれるかもしれない」と判定する
+	 */
+	@Test
+	void containsEveryInsertedValue() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("PART-" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("PART-" + i));
+		}
+	}
+
+	/**
+	 * 追加済みの値を再追加してもビットは変化せず、追加件数に数えない
+	 */
+	@Test
+	void reinsertionIsNotCounted() {
+		BloomFilter filter = new BloomFilter(100, 0.01);
+
+		assertTrue(filter.put("PART-1"));
+		assertFalse(filter.put("PART-1"));
+		assertEquals(1, filter.getInsertions());
+		assertFalse(filter.isSaturated());
+	}
+}